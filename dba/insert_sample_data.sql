@@ -82,3 +82,11 @@ VALUES
 (3, 2, 4),
 (4, 2, 3),
 (5, 3, 8);
+
+-- Start generated IDs above the IDs of the rows inserted above
+INSERT INTO `id_generator`
+(`name`, `next_id`)
+VALUES
+("schedule", 100),
+("schedule_section", 100),
+("schedule_packed", 100);
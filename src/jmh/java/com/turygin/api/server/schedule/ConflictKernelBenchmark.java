@@ -0,0 +1,159 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Section.isConflicting with the scalar and vectorized conflict kernels on the two operations the vector
+ * schedule engine performs: testing a candidate against a partial schedule, and pruning a domain with a placed
+ * section. Run with mvn -Pjmh test-compile exec:exec.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class ConflictKernelBenchmark {
+
+    /** Number of sections in the partial schedule or domain. */
+    @Param({"8", "32", "128"})
+    private int size;
+
+    /** Section the others are tested against. */
+    private Section candidate;
+
+    /** Meeting days of the candidate. */
+    private int candidateDays;
+
+    /** Start time of the candidate in seconds since midnight. */
+    private int candidateFrom;
+
+    /** End time of the candidate in seconds since midnight. */
+    private int candidateTo;
+
+    /** Sections of the partial schedule or domain. */
+    private List<Section> sections;
+
+    /** Meeting days of the packed sections. */
+    private int[] days;
+
+    /** Start times of the packed sections in seconds since midnight. */
+    private int[] from;
+
+    /** End times of the packed sections in seconds since midnight. */
+    private int[] to;
+
+    /** Flags of allowed sections. */
+    private boolean[] allowed;
+
+    /** Receives flags of compatible sections. */
+    private boolean[] compatible;
+
+    /** Scalar conflict kernel. */
+    private final ConflictKernel scalar = new ScalarConflictKernel();
+
+    /** Vectorized conflict kernel. */
+    private final ConflictKernel vector = new VectorConflictKernel();
+
+    /** Generates random sections that do not conflict with the candidate, so every section must be tested. */
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        candidate = new Section(Section.Day.MONDAY.value, Time.valueOf("07:00:00"), Time.valueOf("08:00:00"));
+        candidateDays = candidate.getDaysOfWeek();
+        candidateFrom = candidate.getFromTime().toLocalTime().toSecondOfDay();
+        candidateTo = candidate.getToTime().toLocalTime().toSecondOfDay();
+        sections = new ArrayList<>();
+        while (sections.size() < size) {
+            Section section = new Section(1 + random.nextInt(Section.Day.FRIDAY.value * 2 - 1),
+                    Time.valueOf(String.format("%02d:00:00", 9 + random.nextInt(10))),
+                    Time.valueOf(String.format("%02d:50:00", 9 + random.nextInt(10))));
+            if (section.getFromTime().compareTo(section.getToTime()) < 0) sections.add(section);
+        }
+
+        days = new int[size];
+        from = new int[size];
+        to = new int[size];
+        for (int i = 0; i < size; i++) {
+            Section section = sections.get(i);
+            days[i] = section.getDaysOfWeek();
+            from[i] = section.getFromTime().toLocalTime().toSecondOfDay();
+            to[i] = section.getToTime().toLocalTime().toSecondOfDay();
+        }
+        allowed = new boolean[size];
+        Arrays.fill(allowed, true);
+        compatible = new boolean[size];
+    }
+
+    /**
+     * Tests the candidate against every section with Section.isConflicting.
+     * @return true if the candidate conflicts with any section
+     */
+    @Benchmark
+    public boolean conflictsWithAnySection() {
+        for (Section section : sections) {
+            if (candidate.isConflicting(section)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tests the candidate against every section with the scalar kernel.
+     * @return true if the candidate conflicts with any section
+     */
+    @Benchmark
+    public boolean conflictsWithAnyScalar() {
+        return scalar.conflictsWithAny(candidateDays, candidateFrom, candidateTo, days, from, to, 0, size);
+    }
+
+    /**
+     * Tests the candidate against every section with the vectorized kernel.
+     * @return true if the candidate conflicts with any section
+     */
+    @Benchmark
+    public boolean conflictsWithAnyVector() {
+        return vector.conflictsWithAny(candidateDays, candidateFrom, candidateTo, days, from, to, 0, size);
+    }
+
+    /**
+     * Prunes the domain with Section.isConflicting.
+     * @return number of compatible sections
+     */
+    @Benchmark
+    public int filterCompatibleSection() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            compatible[i] = allowed[i] && !candidate.isConflicting(sections.get(i));
+            if (compatible[i]) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Prunes the domain with the scalar kernel.
+     * @return number of compatible sections
+     */
+    @Benchmark
+    public int filterCompatibleScalar() {
+        return scalar.filterCompatible(candidateDays, candidateFrom, candidateTo, days, from, to, 0, size,
+                allowed, compatible);
+    }
+
+    /**
+     * Prunes the domain with the vectorized kernel.
+     * @return number of compatible sections
+     */
+    @Benchmark
+    public int filterCompatibleVector() {
+        return vector.filterCompatible(candidateDays, candidateFrom, candidateTo, days, from, to, 0, size,
+                allowed, compatible);
+    }
+}
@@ -0,0 +1,203 @@
+package com.turygin.api.server.cofig;
+
+import com.turygin.api.server.schedule.*;
+import com.turygin.persistence.entity.Section;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Provides configured schedule engines. Engines are stateless and shared by all requests.
+ */
+public class ScheduleEngines {
+
+    /** Pool that runs parallel schedule generation. Shared by all requests. */
+    private static final ForkJoinPool SCHEDULE_POOL =
+            new ForkJoinPool(ScheduleSettings.getInt("schedule.parallel.poolSize", 4));
+
+    /** Carts with more schedules than this are searched heuristically. */
+    private static final long HEURISTIC_THRESHOLD = ScheduleSettings.getLong("schedule.heuristic.threshold", 5_000_000);
+
+    /** Default time budget of a heuristic search in milliseconds. */
+    private static final long HEURISTIC_BUDGET_MILLIS =
+            ScheduleSettings.getLong("schedule.heuristic.budgetMillis", 2000);
+
+    /** Maximum time budget of a heuristic search in milliseconds. */
+    private static final long HEURISTIC_MAX_BUDGET_MILLIS =
+            ScheduleSettings.getLong("schedule.heuristic.maxBudgetMillis", 10_000);
+
+    /** Maximum number of schedules a heuristic search returns. */
+    private static final int HEURISTIC_MAX_SCHEDULES = ScheduleSettings.getInt("schedule.heuristic.maxSchedules", 100);
+
+    /** Counts schedules of carts with too many section combinations to enumerate. */
+    private static final ScheduleCounter COUNTER =
+            new ScheduleCounter(ScheduleSettings.getInt("schedule.count.maxStates", 1_000_000));
+
+    /** Maximum time a single request may generate schedules for in milliseconds. */
+    private static final long MAX_DEADLINE_MILLIS = ScheduleSettings.getLong("schedule.deadline.maxMillis", 10_000);
+
+    /** Maximum number of schedules a single request may generate. */
+    private static final long MAX_SCHEDULES = ScheduleSettings.getLong("schedule.maxSchedules", 10_000);
+
+    /** Schedules of carts generated by exhaustive engines, shared by all users. */
+    private static final ScheduleCache CACHE = new ScheduleCache(
+            ScheduleSettings.getLong("schedule.cache.maxWeight", 5_000_000),
+            ScheduleSettings.getString("schedule.cache.catalogVersion", "1"));
+
+    /** Generated schedules of every user until one is selected. */
+    private static final ScheduleStore STORE = new ScheduleStore(
+            ScheduleSettings.getLong("schedule.store.maxWeight", 5_000_000),
+            ScheduleSettings.getInt("schedule.store.maxSchedulesPerUser", 10_000),
+            ScheduleSettings.getLong("schedule.store.ttlMinutes", 30) * 60_000);
+
+    /** Engine of every strategy. */
+    private static final Map<ScheduleStrategy, ScheduleEngine> ENGINES = new EnumMap<>(ScheduleStrategy.class);
+
+    /** Whether exhaustive engines search over classes of sections with equal meeting patterns. */
+    private static final boolean COLLAPSE_EQUIVALENT_SECTIONS =
+            Boolean.parseBoolean(ScheduleSettings.getString("schedule.collapseEquivalentSections", "true"));
+
+    static {
+        ENGINES.put(ScheduleStrategy.SIMPLE, collapsing(new SimpleScheduleEngine()));
+        ENGINES.put(ScheduleStrategy.BITMAP, collapsing(new BitmapScheduleEngine()));
+        ENGINES.put(ScheduleStrategy.PARALLEL, collapsing(new ParallelScheduleEngine(SCHEDULE_POOL,
+                ScheduleSettings.getInt("schedule.parallel.maxTasksPerRequest", 2),
+                ScheduleSettings.getLong("schedule.parallel.serialThreshold", 20_000))));
+        ENGINES.put(ScheduleStrategy.MATRIX, collapsing(new ConflictMatrixScheduleEngine()));
+        ENGINES.put(ScheduleStrategy.FORWARD_CHECKING, collapsing(new ForwardCheckingScheduleEngine()));
+        ENGINES.put(ScheduleStrategy.VECTOR, collapsing(new VectorScheduleEngine()));
+        ENGINES.put(ScheduleStrategy.HEURISTIC, heuristic(null));
+    }
+
+    /** Strategy used when the request does not ask for a particular one. */
+    private static final ScheduleStrategy DEFAULT_STRATEGY =
+            ScheduleStrategy.fromName(ScheduleSettings.getString("schedule.engine", "parallel"));
+
+    /**
+     * Gets the engine of a strategy.
+     * @param strategy schedule generation strategy
+     * @return schedule engine
+     */
+    public static ScheduleEngine get(ScheduleStrategy strategy) {
+        return ENGINES.get(strategy);
+    }
+
+    /**
+     * Gets the engine of a strategy by name, or the default engine if no name is given.
+     * @param name case-insensitive strategy name, or null for the default strategy
+     * @return schedule engine
+     * @throws IllegalArgumentException if there is no strategy with such name
+     */
+    public static ScheduleEngine get(String name) {
+        return get(name == null ? DEFAULT_STRATEGY : ScheduleStrategy.fromName(name));
+    }
+
+    /**
+     * Selects the engine for a cart. If no strategy is named and the cart has more schedules than the heuristic
+     * threshold, a heuristic engine is selected so that the request finishes within the time budget.
+     * @param name case-insensitive strategy name, or null to select automatically
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param budgetMillis time budget of a heuristic search in milliseconds, or null for the default budget
+     * @return schedule engine
+     * @throws IllegalArgumentException if there is no strategy with such name
+     */
+    public static ScheduleEngine select(String name, List<List<Section>> courses, Long budgetMillis) {
+        ScheduleStrategy strategy = name == null ? DEFAULT_STRATEGY : ScheduleStrategy.fromName(name);
+        if (strategy == ScheduleStrategy.HEURISTIC || (name == null && isTooLargeToEnumerate(courses))) {
+            return heuristic(budgetMillis);
+        }
+        return get(strategy);
+    }
+
+    /**
+     * Checks whether a cart has more schedules than the heuristic threshold. Schedules are only counted if the
+     * number of section combinations exceeds the threshold, since there cannot be more schedules than that.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return true if the cart should be searched heuristically
+     */
+    public static boolean isTooLargeToEnumerate(List<List<Section>> courses) {
+        long sectionCombinations = ScheduleEngine.searchSpaceSize(courses);
+        if (sectionCombinations <= HEURISTIC_THRESHOLD) return false;
+        return isTooLargeToEnumerate(sectionCombinations, COUNTER.count(courses));
+    }
+
+    /**
+     * Checks whether a cart with a known count has more schedules than the heuristic threshold.
+     * @param sectionCombinations number of section combinations of the cart
+     * @param count number of schedules of the cart, or empty if the cart is too large to count
+     * @return true if the cart should be searched heuristically
+     */
+    public static boolean isTooLargeToEnumerate(long sectionCombinations, OptionalLong count) {
+        if (sectionCombinations <= HEURISTIC_THRESHOLD) return false;
+        return count.isEmpty() || count.getAsLong() > HEURISTIC_THRESHOLD;
+    }
+
+    /**
+     * Counts conflict free schedules of a cart without enumerating them.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return the number of schedules, or empty if the cart is too large to count
+     */
+    public static OptionalLong count(List<List<Section>> courses) {
+        return COUNTER.count(courses);
+    }
+
+    /**
+     * Wraps an exhaustive engine so that it searches over classes of equivalent sections, if enabled.
+     * @param engine exhaustive schedule engine
+     * @return wrapped engine, or the engine itself if collapsing is disabled
+     */
+    public static ScheduleEngine collapsing(ScheduleEngine engine) {
+        return COLLAPSE_EQUIVALENT_SECTIONS ? new EquivalentSectionScheduleEngine(engine) : engine;
+    }
+
+    /**
+     * Creates a heuristic engine that ranks schedules by compactness.
+     * @param budgetMillis time budget in milliseconds, or null for the default budget
+     * @return heuristic schedule engine
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    private static ScheduleEngine heuristic(Long budgetMillis) {
+        long budget = budgetMillis == null ?
+                HEURISTIC_BUDGET_MILLIS : Math.min(budgetMillis, HEURISTIC_MAX_BUDGET_MILLIS);
+        return new HeuristicScheduleEngine(ScheduleRanking.COMPACT.scorer, HEURISTIC_MAX_SCHEDULES, budget);
+    }
+
+    /**
+     * Gets the shared schedule cache.
+     * @return schedule cache
+     */
+    public static ScheduleCache cache() {
+        return CACHE;
+    }
+
+    /**
+     * Gets the store of generated schedules.
+     * @return schedule store
+     */
+    public static ScheduleStore store() {
+        return STORE;
+    }
+
+    /**
+     * Gets the maximum number of schedules a single request may generate.
+     * @return maximum number of schedules
+     */
+    public static long maxSchedules() {
+        return MAX_SCHEDULES;
+    }
+
+    /**
+     * Creates the limits of a single search. Requested limits are capped by the configured maximums.
+     * @param deadlineMillis requested time budget in milliseconds, or null for the maximum
+     * @param maxSchedules requested maximum number of schedules, or null for the maximum
+     * @return search limits that start counting immediately
+     * @throws IllegalArgumentException if a requested limit is not positive
+     */
+    public static SearchLimits limits(Long deadlineMillis, Long maxSchedules) {
+        long timeout = deadlineMillis == null ? MAX_DEADLINE_MILLIS : Math.min(deadlineMillis, MAX_DEADLINE_MILLIS);
+        return new SearchLimits(timeout, maxSchedules == null ? MAX_SCHEDULES : Math.min(maxSchedules, MAX_SCHEDULES));
+    }
+}
@@ -0,0 +1,129 @@
+package com.turygin.api.server.cofig;
+
+import com.turygin.api.server.schedule.ScheduleJob;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs schedule generation jobs on a fixed pool of threads and keeps track of them. Jobs wait in a bounded queue
+ * while every thread is busy, and a job is rejected while the queue is full. A user has at most one active job,
+ * since a new job supersedes the previous one. Each job searches within the limits of a single schedule request,
+ * and never finds more schedules than are stored for a user. Finished jobs are kept for a while so that clients can
+ * poll their final state, and are forgotten the next time jobs are submitted or looked up.
+ */
+public class ScheduleJobs {
+
+    private static final Logger LOG = LogManager.getLogger(ScheduleJobs.class);
+
+    /** Runs jobs on daemon threads, at most as many at a time as there are threads. */
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    /** Finished jobs are forgotten after this many milliseconds. */
+    private static final long RETENTION_MILLIS =
+            ScheduleSettings.getLong("schedule.jobs.retentionMinutes", 15) * 60_000;
+
+    /** All known jobs by ID. */
+    private static final Map<String, ScheduleJob> JOBS = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the job executor.
+     * @return executor with a fixed number of daemon threads and a bounded queue
+     */
+    private static ThreadPoolExecutor createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        int poolSize = ScheduleSettings.getInt("schedule.jobs.poolSize", 2);
+        return new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(ScheduleSettings.getInt("schedule.jobs.queueSize", 8)), runnable -> {
+                    Thread thread = new Thread(runnable, "schedule-jobs-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Submits a job. Active jobs of the same user are cancelled, since they would store conflicting results, and
+     * the ones still waiting in the queue are removed from it.
+     * @param userId ID of the user whose schedules are generated
+     * @param task work to do
+     * @return submitted job, or null if too many jobs are waiting
+     */
+    public static ScheduleJob submit(long userId, ScheduleJob.Task task) {
+        purgeFinished();
+        for (ScheduleJob job : JOBS.values()) {
+            if (job.getUserId() == userId && job.isActive()) {
+                LOG.debug("Cancelling job '{}' superseded by a new job", job.getId());
+                job.cancel();
+            }
+        }
+        EXECUTOR.getQueue().removeIf(runnable -> runnable instanceof JobRunner runner && runner.cancelIfQueued());
+
+        long maxSchedules = ScheduleEngines.store().getMaxSchedulesPerUser();
+        ScheduleJob job = new ScheduleJob(UUID.randomUUID().toString(), userId,
+                () -> ScheduleEngines.limits(null, maxSchedules));
+        JOBS.put(job.getId(), job);
+        try {
+            EXECUTOR.execute(new JobRunner(job, task));
+        } catch (RejectedExecutionException exception) {
+            LOG.debug("Rejected job '{}' because the queue is full", job.getId());
+            JOBS.remove(job.getId());
+            return null;
+        }
+        return job;
+    }
+
+    /**
+     * Gets a job.
+     * @param jobId unique job ID
+     * @return job, or null if there is no such job
+     */
+    public static ScheduleJob get(String jobId) {
+        purgeFinished();
+        return JOBS.get(jobId);
+    }
+
+    /**
+     * Forgets jobs that finished longer ago than the retention period.
+     */
+    private static void purgeFinished() {
+        long cutoff = System.currentTimeMillis() - RETENTION_MILLIS;
+        JOBS.values().removeIf(job -> !job.isActive() && job.getFinishedAt() < cutoff);
+    }
+
+    /**
+     * Runs a job on a pool thread.
+     * @param job job to run
+     * @param task work to do
+     */
+    private record JobRunner(ScheduleJob job, ScheduleJob.Task task) implements Runnable {
+
+        /**
+         * Runs the job and logs how it ended.
+         */
+        @Override
+        public void run() {
+            job.run(task);
+            LOG.debug("Job '{}' finished in state {} with {} schedules{}", job.getId(), job.getState(),
+                    job.getSchedulesFound(), job.isTruncated() ? ", truncated" : "");
+        }
+
+        /**
+         * Finishes a cancelled job that is still waiting in the queue, so that it can be removed from the queue.
+         * @return true if the job was cancelled and is finished now, false otherwise
+         */
+        boolean cancelIfQueued() {
+            if (!job.isCancelled()) return false;
+            // A cancelled job finishes without running its task
+            run();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.turygin.api.server.cofig;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Provides schedule generation settings. Values are read from the schedule properties resource and can be
+ * overridden with JVM system properties of the same name.
+ */
+public class ScheduleSettings {
+
+    private static final Logger LOG = LogManager.getLogger(ScheduleSettings.class);
+
+    /** Name of the schedule settings resource. */
+    private static final String SETTINGS_RESOURCE = "/schedule.properties";
+
+    /** Settings loaded from the resource. */
+    private static final Properties PROPERTIES = load();
+
+    /**
+     * Loads settings from the schedule settings resource.
+     * @return loaded settings, empty if the resource could not be read
+     */
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream stream = ScheduleSettings.class.getResourceAsStream(SETTINGS_RESOURCE)) {
+            if (stream == null) {
+                LOG.warn("Schedule settings resource '{}' was not found. Using defaults.", SETTINGS_RESOURCE);
+            } else {
+                properties.load(stream);
+            }
+        } catch (Exception exception) {
+            LOG.error("Could not load schedule settings. Using defaults.", exception);
+        }
+        return properties;
+    }
+
+    /**
+     * Gets a setting value.
+     * @param key setting name
+     * @param defaultValue value to use if the setting is missing
+     * @return setting value
+     */
+    public static String getString(String key, String defaultValue) {
+        return System.getProperty(key, PROPERTIES.getProperty(key, defaultValue)).trim();
+    }
+
+    /**
+     * Gets an integer setting value.
+     * @param key setting name
+     * @param defaultValue value to use if the setting is missing or invalid
+     * @return setting value
+     */
+    public static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    /**
+     * Gets a long setting value.
+     * @param key setting name
+     * @param defaultValue value to use if the setting is missing or invalid
+     * @return setting value
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, Long.toString(defaultValue));
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException exception) {
+            LOG.warn("Invalid value '{}' of schedule setting '{}'. Using {}.", value, key, defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.turygin.api.server.cofig;
+
+import com.turygin.api.server.model.HistogramDTO;
+import com.turygin.api.server.model.ScheduleStatsDTO;
+import com.turygin.api.server.schedule.Histogram;
+import com.turygin.api.server.schedule.ScheduleRequestStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Aggregates statistics of schedule requests into histograms, so that engines can be tuned on real traffic.
+ * Statistics of every request are also logged.
+ */
+public class ScheduleStatistics {
+
+    private static final Logger LOG = LogManager.getLogger(ScheduleStatistics.class);
+
+    /** Time spent in every request phase in microseconds. */
+    private static final Map<ScheduleRequestStats.Phase, Histogram> PHASES =
+            new EnumMap<>(ScheduleRequestStats.Phase.class);
+
+    /** Work done by every request, keyed by counter name. */
+    private static final Map<String, Histogram> COUNTERS = new LinkedHashMap<>();
+
+    /** Extracts every counter from request statistics, keyed by counter name. */
+    private static final Map<String, ToLongFunction<ScheduleRequestStats>> COUNTER_VALUES = new LinkedHashMap<>();
+
+    /** Time spent in all timed phases of every request in microseconds. */
+    private static final Histogram TOTAL_MICROS = new Histogram();
+
+    static {
+        for (ScheduleRequestStats.Phase phase : ScheduleRequestStats.Phase.values()) {
+            PHASES.put(phase, new Histogram());
+        }
+        COUNTER_VALUES.put("nodesExplored", ScheduleRequestStats::getNodesExplored);
+        COUNTER_VALUES.put("conflictChecks", ScheduleRequestStats::getConflictChecks);
+        COUNTER_VALUES.put("branchesPruned", ScheduleRequestStats::getBranchesPruned);
+        COUNTER_VALUES.put("schedules", ScheduleRequestStats::getSchedules);
+        for (String counter : COUNTER_VALUES.keySet()) {
+            COUNTERS.put(counter, new Histogram());
+        }
+    }
+
+    /**
+     * Logs statistics of a finished request and adds them to the histograms. Only timed phases are recorded.
+     * @param stats statistics of the request
+     */
+    public static void record(ScheduleRequestStats stats) {
+        LOG.info("{}", stats);
+
+        long totalNanos = 0;
+        for (Map.Entry<ScheduleRequestStats.Phase, Histogram> phase : PHASES.entrySet()) {
+            if (!stats.isTimed(phase.getKey())) continue;
+            long nanos = stats.getPhaseNanos(phase.getKey());
+            phase.getValue().record(nanos / 1000);
+            totalNanos += nanos;
+        }
+        TOTAL_MICROS.record(totalNanos / 1000);
+
+        for (Map.Entry<String, ToLongFunction<ScheduleRequestStats>> counter : COUNTER_VALUES.entrySet()) {
+            COUNTERS.get(counter.getKey()).record(counter.getValue().applyAsLong(stats));
+        }
+    }
+
+    /**
+     * Summarizes the histograms.
+     * @return schedule stats DTO
+     */
+    public static ScheduleStatsDTO toDTO() {
+        Map<String, HistogramDTO> phases = new LinkedHashMap<>();
+        for (Map.Entry<ScheduleRequestStats.Phase, Histogram> phase : PHASES.entrySet()) {
+            phases.put(phase.getKey().label, toDTO(phase.getValue()));
+        }
+        phases.put("total", toDTO(TOTAL_MICROS));
+
+        Map<String, HistogramDTO> counters = new LinkedHashMap<>();
+        for (Map.Entry<String, Histogram> counter : COUNTERS.entrySet()) {
+            counters.put(counter.getKey(), toDTO(counter.getValue()));
+        }
+        return new ScheduleStatsDTO(TOTAL_MICROS.getCount(), phases, counters);
+    }
+
+    /**
+     * Summarizes a histogram.
+     * @param histogram histogram to summarize
+     * @return histogram DTO
+     */
+    private static HistogramDTO toDTO(Histogram histogram) {
+        return new HistogramDTO(histogram.getCount(), histogram.getMean(), histogram.getQuantile(0.5),
+                histogram.getQuantile(0.9), histogram.getQuantile(0.99), histogram.getMax());
+    }
+}
@@ -0,0 +1,37 @@
+package com.turygin.api.server.cofig;
+
+import com.turygin.api.server.schedule.ScheduleRequestStats;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+import java.io.IOException;
+
+/**
+ * Times serialization of schedule responses that carry request statistics, then records the statistics. Responses
+ * without statistics are written as they are.
+ */
+@Provider
+public class ScheduleStatsInterceptor implements WriterInterceptor {
+
+    /**
+     * Writes the response body, timing it if the request collects statistics.
+     * @param context writer interceptor context
+     * @throws IOException if the body cannot be written
+     */
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        if (!(context.getProperty(ScheduleRequestStats.PROPERTY) instanceof ScheduleRequestStats stats)) {
+            context.proceed();
+            return;
+        }
+
+        stats.start(ScheduleRequestStats.Phase.SERIALIZE);
+        try {
+            context.proceed();
+        } finally {
+            stats.stop();
+            ScheduleStatistics.record(stats);
+        }
+    }
+}
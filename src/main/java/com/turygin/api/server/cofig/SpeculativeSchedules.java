@@ -0,0 +1,234 @@
+package com.turygin.api.server.cofig;
+
+import com.turygin.api.server.schedule.BitmapScheduleEngine;
+import com.turygin.api.server.schedule.ScheduleEngine;
+import com.turygin.api.server.schedule.SearchMonitor;
+import com.turygin.persistence.entity.Section;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Generates schedules in the background shortly after a cart changes, so that the schedule request that usually
+ * follows finds them in the shared schedule cache.
+ *
+ * Generation is debounced per user: every cart change drops the pending or running generation of that user and
+ * schedules a new one after a delay. Generation runs on a small pool of low priority threads and pauses while
+ * foreground requests generate schedules, unless a foreground request of the same user is waiting for it.
+ */
+public class SpeculativeSchedules {
+
+    private static final Logger LOG = LogManager.getLogger(SpeculativeSchedules.class);
+
+    /** Whether cart changes trigger background generation. */
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(ScheduleSettings.getString("schedule.speculative.enabled", "true"));
+
+    /** Time to wait after a cart change before generating, in milliseconds. */
+    private static final long DELAY_MILLIS = ScheduleSettings.getLong("schedule.speculative.delayMillis", 1500);
+
+    /** Maximum time a foreground request waits for the background generation of the same user, in milliseconds. */
+    private static final long JOIN_TIMEOUT_MILLIS =
+            ScheduleSettings.getLong("schedule.speculative.joinTimeoutMillis", 5000);
+
+    /** Time a paused background generation sleeps before checking foreground requests again, in nanoseconds. */
+    private static final long PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /** Engine used for background generation. Searches on the calling thread only. */
+    private static final ScheduleEngine ENGINE = ScheduleEngines.collapsing(new BitmapScheduleEngine());
+
+    /** Runs delayed background generation on low priority daemon threads. */
+    private static final ScheduledThreadPoolExecutor EXECUTOR = createExecutor();
+
+    /** Pending or running generation of every user. */
+    private static final Map<Long, Speculation> SPECULATIONS = new ConcurrentHashMap<>();
+
+    /** Number of foreground requests generating schedules. */
+    private static final AtomicInteger FOREGROUND = new AtomicInteger();
+
+    /**
+     * Creates the background executor.
+     * @return executor with low priority daemon threads
+     */
+    private static ScheduledThreadPoolExecutor createExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+                ScheduleSettings.getInt("schedule.speculative.poolSize", 1), runnable -> {
+                    Thread thread = new Thread(runnable, "speculative-schedules-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Schedules background generation for a user whose cart has changed. Earlier generation of the same user is
+     * dropped.
+     * @param userId unique user ID
+     * @param cart loads the selected sections of every course in user's cart when generation starts
+     */
+    public static void cartChanged(long userId, Supplier<List<List<Section>>> cart) {
+        if (!ENABLED) return;
+
+        Speculation speculation = new Speculation();
+        Speculation previous = SPECULATIONS.put(userId, speculation);
+        if (previous != null) {
+            LOG.debug("Dropping background generation for user with ID '{}'", userId);
+            previous.cancel();
+        }
+        speculation.future = EXECUTOR.schedule(() -> generate(userId, speculation, cart),
+                DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits for the running background generation of a user, if any, so that a foreground request can use its result
+     * instead of starting from scratch. Generation that has not started yet is dropped, since the foreground request
+     * would only wait for the delay. Joined generation is not paused by foreground requests, and is dropped if it does
+     * not finish within the join timeout or the given time, so that it does not compete with the foreground request.
+     * @param userId unique user ID
+     * @param timeoutMillis time left until the deadline of the foreground request, in milliseconds
+     * @return true if background generation finished and its result is cached, false if there was none or it was
+     * dropped
+     */
+    public static boolean await(long userId, long timeoutMillis) {
+        Speculation speculation = SPECULATIONS.get(userId);
+        if (speculation == null) return false;
+
+        if (speculation.cancelPending()) {
+            LOG.debug("Dropping pending background generation for user with ID '{}'", userId);
+            SPECULATIONS.remove(userId, speculation);
+            return false;
+        }
+
+        LOG.debug("Joining background generation for user with ID '{}'", userId);
+        speculation.joined = true;
+        try {
+            speculation.done.get(Math.min(JOIN_TIMEOUT_MILLIS, timeoutMillis), TimeUnit.MILLISECONDS);
+            return !speculation.monitor.isCancelled();
+        } catch (TimeoutException exception) {
+            LOG.debug("Background generation did not finish in time. Generating in the foreground.");
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException exception) {
+            LOG.debug("Background generation failed.", exception);
+        }
+        speculation.cancel();
+        return false;
+    }
+
+    /**
+     * Marks the start of foreground generation. Background generation pauses until it ends.
+     */
+    public static void foregroundStarted() {
+        FOREGROUND.incrementAndGet();
+    }
+
+    /**
+     * Marks the end of foreground generation.
+     */
+    public static void foregroundFinished() {
+        FOREGROUND.decrementAndGet();
+    }
+
+    /**
+     * Generates schedules of a cart into the shared schedule cache.
+     * @param userId unique user ID
+     * @param speculation generation state
+     * @param cart loads the selected sections of every course in user's cart
+     */
+    private static void generate(long userId, Speculation speculation, Supplier<List<List<Section>>> cart) {
+        try {
+            if (!speculation.start() || speculation.monitor.isCancelled()) return;
+            List<List<Section>> courses = cart.get();
+
+            // Results of heuristic searches are not cached, so there is nothing to prepare
+            if (ScheduleEngines.isTooLargeToEnumerate(courses)) return;
+
+            long startTime = System.nanoTime();
+            ScheduleEngines.cache().getOrBuild(courses, ENGINE, speculation.monitor);
+            LOG.debug("Generated schedules for user with ID '{}' in the background in {} ms{}", userId,
+                    (System.nanoTime() - startTime) / 1_000_000,
+                    speculation.monitor.isCancelled() ? ", dropped" : "");
+        } catch (Exception exception) {
+            LOG.warn("Background generation for user with ID '{}' failed.", userId, exception);
+        } finally {
+            speculation.done.complete(null);
+            SPECULATIONS.remove(userId, speculation);
+        }
+    }
+
+    /**
+     * Background generation of a single cart.
+     */
+    private static class Speculation {
+
+        /** Stops the search when the cart changes and pauses it during foreground generation unless it is joined. */
+        private final SearchMonitor monitor = new SearchMonitor() {
+            @Override
+            public boolean isCancelled() {
+                while (FOREGROUND.get() > 0 && !joined && !super.isCancelled()) {
+                    LockSupport.parkNanos(PAUSE_NANOS);
+                }
+                return super.isCancelled();
+            }
+        };
+
+        /** Completed once generation has finished or was dropped. */
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        /** Delayed generation task. */
+        private volatile ScheduledFuture<?> future;
+
+        /** Set once a foreground request waits for the generation. */
+        private volatile boolean joined;
+
+        /** Set once the generation has started, or was dropped before it started. */
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        /**
+         * Claims the generation for running it.
+         * @return true if the generation may start, false if it was dropped before it started
+         */
+        boolean start() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        /**
+         * Drops the generation if it has not started yet.
+         * @return true if the generation was dropped, false if it is already running or has finished
+         */
+        boolean cancelPending() {
+            // A delayed task can still be cancelled while it runs, so whether it has started is tracked separately
+            if (!claimed.compareAndSet(false, true)) return false;
+            cancel();
+            done.complete(null);
+            return true;
+        }
+
+        /**
+         * Drops the generation whether it is pending or running.
+         */
+        void cancel() {
+            monitor.cancel();
+            ScheduledFuture<?> pending = future;
+            if (pending != null && pending.cancel(false)) {
+                done.complete(null);
+            }
+        }
+    }
+}
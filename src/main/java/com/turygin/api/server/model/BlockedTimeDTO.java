@@ -0,0 +1,103 @@
+package com.turygin.api.server.model;
+
+import com.turygin.api.model.DaysOfWeekDTO;
+import com.turygin.api.model.MeetingTimeDTO;
+
+/**
+ * Weekly time window the user wants to keep free of classes.
+ */
+public class BlockedTimeDTO {
+
+    /** Unique ID. */
+    private long id;
+
+    /** Blocked days. */
+    private DaysOfWeekDTO daysOfWeek;
+
+    /** Start of the window. */
+    private MeetingTimeDTO startTime;
+
+    /** End of the window. */
+    private MeetingTimeDTO endTime;
+
+    /** Empty constructor. */
+    public BlockedTimeDTO() {}
+
+    /**
+     * Instantiates a blocked time DTO.
+     * @param id unique ID
+     * @param daysOfWeek blocked days
+     * @param startTime start of the window
+     * @param endTime end of the window
+     */
+    public BlockedTimeDTO(long id, DaysOfWeekDTO daysOfWeek, MeetingTimeDTO startTime, MeetingTimeDTO endTime) {
+        this.id = id;
+        this.daysOfWeek = daysOfWeek;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    /**
+     * Gets id.
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets id.
+     * @param id the id
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets blocked days.
+     * @return the blocked days
+     */
+    public DaysOfWeekDTO getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    /**
+     * Sets blocked days.
+     * @param daysOfWeek the blocked days
+     */
+    public void setDaysOfWeek(DaysOfWeekDTO daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    /**
+     * Gets start of the window.
+     * @return the start of the window
+     */
+    public MeetingTimeDTO getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Sets start of the window.
+     * @param startTime the start of the window
+     */
+    public void setStartTime(MeetingTimeDTO startTime) {
+        this.startTime = startTime;
+    }
+
+    /**
+     * Gets end of the window.
+     * @return the end of the window
+     */
+    public MeetingTimeDTO getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Sets end of the window.
+     * @param endTime the end of the window
+     */
+    public void setEndTime(MeetingTimeDTO endTime) {
+        this.endTime = endTime;
+    }
+}
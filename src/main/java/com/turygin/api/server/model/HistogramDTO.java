@@ -0,0 +1,142 @@
+package com.turygin.api.server.model;
+
+/**
+ * Summary of the values recorded in a histogram.
+ */
+public class HistogramDTO {
+
+    /** Number of recorded values. */
+    private long count;
+
+    /** Mean of recorded values. */
+    private double mean;
+
+    /** Median of recorded values. */
+    private long p50;
+
+    /** 90th percentile of recorded values. */
+    private long p90;
+
+    /** 99th percentile of recorded values. */
+    private long p99;
+
+    /** Largest recorded value. */
+    private long max;
+
+    /** Empty constructor. */
+    public HistogramDTO() {}
+
+    /**
+     * Instantiates a histogram DTO.
+     * @param count number of recorded values
+     * @param mean mean of recorded values
+     * @param p50 median of recorded values
+     * @param p90 90th percentile of recorded values
+     * @param p99 99th percentile of recorded values
+     * @param max largest recorded value
+     */
+    public HistogramDTO(long count, double mean, long p50, long p90, long p99, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    /**
+     * Gets the number of recorded values.
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Sets the number of recorded values.
+     * @param count number of recorded values
+     */
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Gets the mean.
+     * @return mean of recorded values
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Sets the mean.
+     * @param mean mean of recorded values
+     */
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+
+    /**
+     * Gets the median.
+     * @return median of recorded values
+     */
+    public long getP50() {
+        return p50;
+    }
+
+    /**
+     * Sets the median.
+     * @param p50 median of recorded values
+     */
+    public void setP50(long p50) {
+        this.p50 = p50;
+    }
+
+    /**
+     * Gets the 90th percentile.
+     * @return 90th percentile of recorded values
+     */
+    public long getP90() {
+        return p90;
+    }
+
+    /**
+     * Sets the 90th percentile.
+     * @param p90 90th percentile of recorded values
+     */
+    public void setP90(long p90) {
+        this.p90 = p90;
+    }
+
+    /**
+     * Gets the 99th percentile.
+     * @return 99th percentile of recorded values
+     */
+    public long getP99() {
+        return p99;
+    }
+
+    /**
+     * Sets the 99th percentile.
+     * @param p99 99th percentile of recorded values
+     */
+    public void setP99(long p99) {
+        this.p99 = p99;
+    }
+
+    /**
+     * Gets the largest value.
+     * @return largest recorded value
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Sets the largest value.
+     * @param max largest recorded value
+     */
+    public void setMax(long max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,107 @@
+package com.turygin.api.server.model;
+
+import com.turygin.api.model.CourseDTO;
+
+import java.util.List;
+
+/**
+ * Schedules in a normalized form. Every course and section appears once in a lookup table, and every schedule is
+ * an array of positions in the section table, so the size of the response grows with the number of distinct
+ * sections rather than with the number of schedules times their sections.
+ */
+public class NormalizedSchedulesDTO {
+
+    /** Courses of all sections. */
+    private List<CourseDTO> courses;
+
+    /** Sections of all schedules, each referencing its course by position in the course table. */
+    private List<NormalizedSectionDTO> sections;
+
+    /** ID of every schedule. */
+    private long[] scheduleIds;
+
+    /** Sections of every schedule as positions in the section table, in the order of the schedule IDs. */
+    private int[][] schedules;
+
+    /** Empty constructor. */
+    public NormalizedSchedulesDTO() {}
+
+    /**
+     * Instantiates a normalized schedules DTO.
+     * @param courses courses of all sections
+     * @param sections sections of all schedules, each referencing its course by position in the course table
+     * @param scheduleIds ID of every schedule
+     * @param schedules sections of every schedule as positions in the section table
+     */
+    public NormalizedSchedulesDTO(List<CourseDTO> courses, List<NormalizedSectionDTO> sections, long[] scheduleIds,
+                                  int[][] schedules) {
+        this.courses = courses;
+        this.sections = sections;
+        this.scheduleIds = scheduleIds;
+        this.schedules = schedules;
+    }
+
+    /**
+     * Gets the course table.
+     * @return courses of all sections
+     */
+    public List<CourseDTO> getCourses() {
+        return courses;
+    }
+
+    /**
+     * Sets the course table.
+     * @param courses courses of all sections
+     */
+    public void setCourses(List<CourseDTO> courses) {
+        this.courses = courses;
+    }
+
+    /**
+     * Gets the section table.
+     * @return sections of all schedules
+     */
+    public List<NormalizedSectionDTO> getSections() {
+        return sections;
+    }
+
+    /**
+     * Sets the section table.
+     * @param sections sections of all schedules
+     */
+    public void setSections(List<NormalizedSectionDTO> sections) {
+        this.sections = sections;
+    }
+
+    /**
+     * Gets schedule IDs.
+     * @return ID of every schedule
+     */
+    public long[] getScheduleIds() {
+        return scheduleIds;
+    }
+
+    /**
+     * Sets schedule IDs.
+     * @param scheduleIds ID of every schedule
+     */
+    public void setScheduleIds(long[] scheduleIds) {
+        this.scheduleIds = scheduleIds;
+    }
+
+    /**
+     * Gets schedules.
+     * @return sections of every schedule as positions in the section table
+     */
+    public int[][] getSchedules() {
+        return schedules;
+    }
+
+    /**
+     * Sets schedules.
+     * @param schedules sections of every schedule as positions in the section table
+     */
+    public void setSchedules(int[][] schedules) {
+        this.schedules = schedules;
+    }
+}
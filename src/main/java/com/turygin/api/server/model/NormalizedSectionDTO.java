@@ -0,0 +1,60 @@
+package com.turygin.api.server.model;
+
+import com.turygin.api.model.SectionDTO;
+
+/**
+ * Section of a normalized schedule response. The course is referenced by its position in the course table.
+ */
+public class NormalizedSectionDTO {
+
+    /** Section information. */
+    private SectionDTO section;
+
+    /** Index of the section's course in the course table. */
+    private int course;
+
+    /** Empty constructor. */
+    public NormalizedSectionDTO() {}
+
+    /**
+     * Instantiates a normalized section DTO.
+     * @param section section information
+     * @param course index of the section's course in the course table
+     */
+    public NormalizedSectionDTO(SectionDTO section, int course) {
+        this.section = section;
+        this.course = course;
+    }
+
+    /**
+     * Gets the section.
+     * @return section information
+     */
+    public SectionDTO getSection() {
+        return section;
+    }
+
+    /**
+     * Sets the section.
+     * @param section section information
+     */
+    public void setSection(SectionDTO section) {
+        this.section = section;
+    }
+
+    /**
+     * Gets the course index.
+     * @return index of the section's course in the course table
+     */
+    public int getCourse() {
+        return course;
+    }
+
+    /**
+     * Sets the course index.
+     * @param course index of the section's course in the course table
+     */
+    public void setCourse(int course) {
+        this.course = course;
+    }
+}
@@ -0,0 +1,64 @@
+package com.turygin.api.server.model;
+
+import com.turygin.api.model.CourseDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Courses of a cart that cannot all be scheduled together.
+ */
+public class ScheduleConflictDTO {
+
+    /** Conflicting courses, empty if the cart yields a schedule. */
+    private List<CourseDTO> courses = new ArrayList<>();
+
+    /** Is every course part of the conflict? */
+    private boolean minimal;
+
+    /** Empty constructor. */
+    public ScheduleConflictDTO() {}
+
+    /**
+     * Instantiates a schedule conflict DTO.
+     * @param courses conflicting courses, empty if the cart yields a schedule
+     * @param minimal is every course part of the conflict
+     */
+    public ScheduleConflictDTO(List<CourseDTO> courses, boolean minimal) {
+        this.courses = courses;
+        this.minimal = minimal;
+    }
+
+    /**
+     * Gets the conflicting courses.
+     * @return conflicting courses, empty if the cart yields a schedule
+     */
+    public List<CourseDTO> getCourses() {
+        return courses;
+    }
+
+    /**
+     * Sets the conflicting courses.
+     * @param courses conflicting courses, empty if the cart yields a schedule
+     */
+    public void setCourses(List<CourseDTO> courses) {
+        this.courses = courses;
+    }
+
+    /**
+     * Checks whether every course is part of the conflict.
+     * @return true if removing any of the courses resolves the conflict, false if the search ran out of time and
+     * some courses may be unrelated
+     */
+    public boolean isMinimal() {
+        return minimal;
+    }
+
+    /**
+     * Sets whether every course is part of the conflict.
+     * @param minimal is every course part of the conflict
+     */
+    public void setMinimal(boolean minimal) {
+        this.minimal = minimal;
+    }
+}
@@ -0,0 +1,79 @@
+package com.turygin.api.server.model;
+
+/**
+ * Number of schedules a cart yields.
+ */
+public class ScheduleCountDTO {
+
+    /** Exact number of conflict free schedules, or null if the cart is too large to count. */
+    private Long count;
+
+    /** Number of section combinations, ignoring conflicts. */
+    private long sectionCombinations;
+
+    /** Will schedule generation enumerate every schedule? */
+    private boolean exhaustive;
+
+    /** Empty constructor. */
+    public ScheduleCountDTO() {}
+
+    /**
+     * Instantiates a schedule count DTO.
+     * @param count exact number of conflict free schedules, or null if the cart is too large to count
+     * @param sectionCombinations number of section combinations, ignoring conflicts
+     * @param exhaustive will schedule generation enumerate every schedule
+     */
+    public ScheduleCountDTO(Long count, long sectionCombinations, boolean exhaustive) {
+        this.count = count;
+        this.sectionCombinations = sectionCombinations;
+        this.exhaustive = exhaustive;
+    }
+
+    /**
+     * Gets the number of schedules.
+     * @return exact number of conflict free schedules, or null if the cart is too large to count
+     */
+    public Long getCount() {
+        return count;
+    }
+
+    /**
+     * Sets the number of schedules.
+     * @param count exact number of conflict free schedules, or null if the cart is too large to count
+     */
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    /**
+     * Gets the number of section combinations.
+     * @return number of section combinations, ignoring conflicts
+     */
+    public long getSectionCombinations() {
+        return sectionCombinations;
+    }
+
+    /**
+     * Sets the number of section combinations.
+     * @param sectionCombinations number of section combinations, ignoring conflicts
+     */
+    public void setSectionCombinations(long sectionCombinations) {
+        this.sectionCombinations = sectionCombinations;
+    }
+
+    /**
+     * Checks whether schedule generation will enumerate every schedule.
+     * @return true if every schedule will be generated, false if the cart will be searched heuristically
+     */
+    public boolean isExhaustive() {
+        return exhaustive;
+    }
+
+    /**
+     * Sets whether schedule generation will enumerate every schedule.
+     * @param exhaustive will schedule generation enumerate every schedule
+     */
+    public void setExhaustive(boolean exhaustive) {
+        this.exhaustive = exhaustive;
+    }
+}
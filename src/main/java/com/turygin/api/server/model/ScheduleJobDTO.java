@@ -0,0 +1,173 @@
+package com.turygin.api.server.model;
+
+/**
+ * State of a schedule generation job.
+ */
+public class ScheduleJobDTO {
+
+    /** Unique job ID. */
+    private String id;
+
+    /** Job state: QUEUED, RUNNING, COMPLETED, CANCELLED or FAILED. */
+    private String state;
+
+    /** Number of schedules stored so far. */
+    private long schedulesFound;
+
+    /** Number of schedules the cart yields, or null if unknown. */
+    private Long expectedSchedules;
+
+    /** Error message of a failed job. */
+    private String error;
+
+    /** ID of the first stored schedule, or null if the job has not started storing schedules. */
+    private Long firstScheduleId;
+
+    /** Whether the search stopped at its deadline or maximum number of schedules. */
+    private boolean truncated;
+
+    /** Empty constructor. */
+    public ScheduleJobDTO() {}
+
+    /**
+     * Instantiates a schedule job DTO.
+     * @param id unique job ID
+     * @param state job state
+     * @param schedulesFound number of schedules stored so far
+     * @param expectedSchedules number of schedules the cart yields, or null if unknown
+     * @param error error message of a failed job
+     * @param firstScheduleId ID of the first stored schedule, or null if the job has not started storing schedules
+     * @param truncated whether the search stopped at its deadline or maximum number of schedules
+     */
+    public ScheduleJobDTO(String id, String state, long schedulesFound, Long expectedSchedules, String error,
+                          Long firstScheduleId, boolean truncated) {
+        this.id = id;
+        this.state = state;
+        this.schedulesFound = schedulesFound;
+        this.expectedSchedules = expectedSchedules;
+        this.error = error;
+        this.firstScheduleId = firstScheduleId;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Gets the job ID.
+     * @return unique job ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the job ID.
+     * @param id unique job ID
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the job state.
+     * @return job state
+     */
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * Sets the job state.
+     * @param state job state
+     */
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    /**
+     * Gets the number of stored schedules.
+     * @return number of schedules stored so far
+     */
+    public long getSchedulesFound() {
+        return schedulesFound;
+    }
+
+    /**
+     * Sets the number of stored schedules.
+     * @param schedulesFound number of schedules stored so far
+     */
+    public void setSchedulesFound(long schedulesFound) {
+        this.schedulesFound = schedulesFound;
+    }
+
+    /**
+     * Gets the number of schedules the cart yields.
+     * @return number of schedules, or null if unknown
+     */
+    public Long getExpectedSchedules() {
+        return expectedSchedules;
+    }
+
+    /**
+     * Sets the number of schedules the cart yields.
+     * @param expectedSchedules number of schedules, or null if unknown
+     */
+    public void setExpectedSchedules(Long expectedSchedules) {
+        this.expectedSchedules = expectedSchedules;
+    }
+
+    /**
+     * Gets the progress of the job.
+     * @return fraction of expected schedules stored so far, or null if the number of schedules is unknown
+     */
+    public Double getProgress() {
+        if (expectedSchedules == null) return null;
+        return expectedSchedules == 0 ? 1.0 : Math.min(1.0, (double) schedulesFound / expectedSchedules);
+    }
+
+    /**
+     * Gets the error message.
+     * @return error message of a failed job, null otherwise
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Sets the error message.
+     * @param error error message of a failed job
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Gets the ID of the first stored schedule. The following schedules have consecutive IDs.
+     * @return schedule ID, or null if the job has not started storing schedules
+     */
+    public Long getFirstScheduleId() {
+        return firstScheduleId;
+    }
+
+    /**
+     * Sets the ID of the first stored schedule.
+     * @param firstScheduleId schedule ID
+     */
+    public void setFirstScheduleId(Long firstScheduleId) {
+        this.firstScheduleId = firstScheduleId;
+    }
+
+    /**
+     * Checks whether the search was truncated.
+     * @return true if the search stopped at its deadline or maximum number of schedules
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Sets whether the search was truncated.
+     * @param truncated whether the search stopped at its deadline or maximum number of schedules
+     */
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+}
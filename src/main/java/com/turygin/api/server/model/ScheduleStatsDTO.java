@@ -0,0 +1,81 @@
+package com.turygin.api.server.model;
+
+import java.util.Map;
+
+/**
+ * Statistics of schedule requests aggregated since the server started.
+ */
+public class ScheduleStatsDTO {
+
+    /** Number of requests with statistics. */
+    private long requests;
+
+    /** Time spent in every request phase in microseconds, keyed by phase name. */
+    private Map<String, HistogramDTO> phaseMicros;
+
+    /** Work done by every request, keyed by counter name. */
+    private Map<String, HistogramDTO> counters;
+
+    /** Empty constructor. */
+    public ScheduleStatsDTO() {}
+
+    /**
+     * Instantiates a schedule stats DTO.
+     * @param requests number of requests with statistics
+     * @param phaseMicros time spent in every request phase in microseconds, keyed by phase name
+     * @param counters work done by every request, keyed by counter name
+     */
+    public ScheduleStatsDTO(long requests, Map<String, HistogramDTO> phaseMicros, Map<String, HistogramDTO> counters) {
+        this.requests = requests;
+        this.phaseMicros = phaseMicros;
+        this.counters = counters;
+    }
+
+    /**
+     * Gets the number of requests.
+     * @return number of requests with statistics
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Sets the number of requests.
+     * @param requests number of requests with statistics
+     */
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * Gets phase durations.
+     * @return time spent in every request phase in microseconds, keyed by phase name
+     */
+    public Map<String, HistogramDTO> getPhaseMicros() {
+        return phaseMicros;
+    }
+
+    /**
+     * Sets phase durations.
+     * @param phaseMicros time spent in every request phase in microseconds, keyed by phase name
+     */
+    public void setPhaseMicros(Map<String, HistogramDTO> phaseMicros) {
+        this.phaseMicros = phaseMicros;
+    }
+
+    /**
+     * Gets work counters.
+     * @return work done by every request, keyed by counter name
+     */
+    public Map<String, HistogramDTO> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Sets work counters.
+     * @param counters work done by every request, keyed by counter name
+     */
+    public void setCounters(Map<String, HistogramDTO> counters) {
+        this.counters = counters;
+    }
+}
@@ -0,0 +1,113 @@
+package com.turygin.api.server.resource;
+
+import com.turygin.api.model.ErrorDTO;
+import com.turygin.api.server.cofig.SpeculativeSchedules;
+import com.turygin.api.server.model.BlockedTimeDTO;
+import com.turygin.persistence.dao.Dao;
+import com.turygin.persistence.entity.BlockedTime;
+import com.turygin.persistence.entity.User;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST API resource of weekly time windows users keep free of classes. Sections that meet during a blocked window
+ * are left out of schedule generation.
+ */
+@Path("/blocked")
+public class BlockedTimeResource {
+
+    protected static final Logger LOG = LogManager.getLogger(BlockedTimeResource.class);
+
+    /** Handles user related database queries. */
+    private final Dao<User> USER_DAO = new Dao<>(User.class);
+
+    /** Handles blocked time related database queries. */
+    private final Dao<BlockedTime> BLOCKED_TIME_DAO = new Dao<>(BlockedTime.class);
+
+    /**
+     * Fetches all time windows blocked by the user.
+     * @param userId user ID
+     * @return a list of blocked time DTOs
+     */
+    @GET
+    @Path("/{userId}")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getBlockedTimes(@PathParam("userId") long userId) {
+        LOG.debug("Fetching blocked times for user with ID '{}'", userId);
+        User user = USER_DAO.getById(userId);
+        assert user != null;
+
+        List<BlockedTimeDTO> blockedTimeDTOs = new ArrayList<>();
+        for (BlockedTime blockedTime : BLOCKED_TIME_DAO.getByPropertyEquals("user", user)) {
+            blockedTimeDTOs.add(Mapper.toBlockedTimeDTO(blockedTime));
+        }
+        return Response.ok(blockedTimeDTOs).build();
+    }
+
+    /**
+     * Blocks a weekly time window.
+     * @param userId user ID
+     * @param blockedTimeDTO blocked days and times
+     * @return blocked time DTO with status 201, or 400 error DTO if the window is empty
+     */
+    @POST
+    @Path("/{userId}")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response addBlockedTime(@PathParam("userId") long userId, BlockedTimeDTO blockedTimeDTO) {
+        LOG.debug("Blocking time for user with ID '{}'", userId);
+        User user = USER_DAO.getById(userId);
+        assert user != null;
+
+        BlockedTime blockedTime = Mapper.createBlockedTime(user, blockedTimeDTO);
+        if (blockedTime.getDaysOfWeek() == 0 || !blockedTime.getFromTime().before(blockedTime.getToTime())) {
+            return Response.status(Response.Status.BAD_REQUEST).
+                    entity(new ErrorDTO(Response.Status.BAD_REQUEST,
+                            "Blocked time must have at least one day and end after it starts.")).
+                    build();
+        }
+
+        BLOCKED_TIME_DAO.insert(blockedTime);
+        regenerateSchedules(userId);
+        return Response.status(Response.Status.CREATED).entity(Mapper.toBlockedTimeDTO(blockedTime)).build();
+    }
+
+    /**
+     * Removes a blocked time window.
+     * @param userId user ID
+     * @param blockedTimeId blocked time ID
+     * @return 204 status if removal was successful, or 404 error DTO if the user has no such blocked time
+     */
+    @DELETE
+    @Path("/{userId}/{blockedTimeId}")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response removeBlockedTime(@PathParam("userId") long userId,
+                                      @PathParam("blockedTimeId") long blockedTimeId) {
+        LOG.debug("Removing blocked time '{}' of user with ID '{}'", blockedTimeId, userId);
+        BlockedTime blockedTime = BLOCKED_TIME_DAO.getById(blockedTimeId);
+        if (blockedTime == null || blockedTime.getUser().getId() != userId) {
+            return Response.status(Response.Status.NOT_FOUND).
+                    entity(new ErrorDTO(Response.Status.NOT_FOUND, "Blocked time was not found.")).
+                    build();
+        }
+
+        BLOCKED_TIME_DAO.delete(blockedTime);
+        regenerateSchedules(userId);
+        return Response.status(Response.Status.NO_CONTENT).build();
+    }
+
+    /**
+     * Schedules background generation of user's schedules, since blocked time changes the sections they are made of.
+     * @param userId user ID
+     */
+    private void regenerateSchedules(long userId) {
+        SpeculativeSchedules.cartChanged(userId,
+                () -> ScheduleResource.getCoursesWithSections(USER_DAO.getById(userId)));
+    }
+}
@@ -2,6 +2,7 @@ package com.turygin.api.server.resource;
 
 import com.turygin.api.model.CourseWithSectionsDTO;
 import com.turygin.api.resource.ICartResource;
+import com.turygin.api.server.cofig.SpeculativeSchedules;
 import com.turygin.persistence.dao.CourseDao;
 import com.turygin.persistence.dao.Dao;
 import com.turygin.persistence.entity.*;
@@ -86,6 +87,7 @@ public class CartResource implements ICartResource {
         newCourse = new CartCourse(user, courseToAdd);
         CART_COURSE_DAO.insert(newCourse);
         LOG.debug("Added new course.");
+        regenerateSchedules(userId);
 
         return Response.status(Response.Status.CREATED).entity(Mapper.cartCourseToCourseDTO(newCourse)).build();
     }
@@ -111,6 +113,7 @@ public class CartResource implements ICartResource {
             if (cartCourse.getCourse().getId() == courseId) {
                 LOG.debug("Found course in cart. Removing.");
                 CART_COURSE_DAO.delete(cartCourse);
+                regenerateSchedules(userId);
                 break;
             }
         }
@@ -169,10 +172,19 @@ public class CartResource implements ICartResource {
         // Update
         currentCourse.setSections(Mapper.createCartSection(currentCourse, selectedSections));
         CART_COURSE_DAO.update(currentCourse);
-
+        regenerateSchedules(userId);
 
         CourseWithSectionsDTO updatedCourse = Mapper.toCourseWithSections(currentCourse);
         LOG.debug("Updated course: {}", updatedCourse.toString());
         return Response.ok(updatedCourse).build();
     }
+
+    /**
+     * Schedules background generation of user's schedules, since a schedule request usually follows a cart change.
+     * @param userId user ID
+     */
+    private void regenerateSchedules(long userId) {
+        SpeculativeSchedules.cartChanged(userId,
+                () -> ScheduleResource.getCoursesWithSections(USER_DAO.getById(userId)));
+    }
 }
@@ -1,6 +1,11 @@
 package com.turygin.api.server.resource;
 
 import com.turygin.api.model.*;
+import com.turygin.api.server.model.BlockedTimeDTO;
+import com.turygin.api.server.model.NormalizedSchedulesDTO;
+import com.turygin.api.server.model.NormalizedSectionDTO;
+import com.turygin.api.server.model.ScheduleJobDTO;
+import com.turygin.api.server.schedule.ScheduleJob;
 import com.turygin.persistence.entity.*;
 
 import java.sql.Time;
@@ -271,6 +276,28 @@ public class Mapper {
                 Time.valueOf(sectionDTO.getEndTime().getTime()));
     }
 
+    /**
+     * Converts blocked time entity to blocked time DTO.
+     * @param blockedTime blocked time entity
+     * @return blocked time DTO
+     */
+    public static BlockedTimeDTO toBlockedTimeDTO(BlockedTime blockedTime) {
+        return new BlockedTimeDTO(blockedTime.getId(), toDaysOfWeekDTO(blockedTime.getDaysOfWeek()),
+                toMeetingTimeDTO(blockedTime.getFromTime()), toMeetingTimeDTO(blockedTime.getToTime()));
+    }
+
+    /**
+     * Creates a blocked time entity from a blocked time DTO.
+     * @param user the user that blocks the time
+     * @param blockedTimeDTO source blocked time DTO
+     * @return blocked time entity
+     */
+    public static BlockedTime createBlockedTime(User user, BlockedTimeDTO blockedTimeDTO) {
+        return new BlockedTime(user, toSectionDayOfWeek(blockedTimeDTO.getDaysOfWeek()),
+                Time.valueOf(blockedTimeDTO.getStartTime().getTime()),
+                Time.valueOf(blockedTimeDTO.getEndTime().getTime()));
+    }
+
     /**
      * Convert days of week DTO into an integer (byte) used by section entity.
      * @param daysOfWeekDTO source days of week DTO
@@ -318,24 +345,149 @@ public class Mapper {
         return new SectionWithCourseDTO(sectionDTO, courseDTO);
     }
 
+    /**
+     * Creates a schedule entity from a list of sections.
+     * @param user owner of the schedule
+     * @param sections sections that are part of the schedule
+     * @return schedule entity
+     */
+    public static Schedule createSchedule(User user, List<Section> sections) {
+        Schedule schedule = new Schedule(user);
+
+        // Create schedule sections from sections
+        List<ScheduleSection> scheduleSections = new ArrayList<>();
+        for (Section section : sections) {
+            scheduleSections.add(new ScheduleSection(schedule, section));
+        }
+        schedule.setSections(scheduleSections);
+
+        return schedule;
+    }
+
     /**
      * Converts schedule entity to schedule DTO.
      * @param schedule source schedule entity
      * @return schedule DTO
      */
     public static ScheduleDTO toScheduleDTO(Schedule schedule) {
-        ScheduleDTO scheduleDTO = new ScheduleDTO(schedule.getId());
+        List<Section> sections = new ArrayList<>();
+        for (ScheduleSection scheduleSection : schedule.getSections()) {
+            sections.add(scheduleSection.getSection());
+        }
+        return toScheduleDTO(schedule.getId(), sections);
+    }
+
+    /**
+     * Converts a generated schedule to schedule DTO.
+     * @param scheduleId schedule ID
+     * @param schedule schedule sections
+     * @return schedule DTO
+     */
+    public static ScheduleDTO toScheduleDTO(long scheduleId, List<Section> schedule) {
+        ScheduleDTO scheduleDTO = new ScheduleDTO(scheduleId);
 
         // Populate sections
         List<SectionWithCourseDTO> sections = new ArrayList<>();
-        for (ScheduleSection scheduleSection : schedule.getSections()) {
-            sections.add(toSectionWithCourseDTO(scheduleSection.getSection()));
+        for (Section section : schedule) {
+            sections.add(toSectionWithCourseDTO(section));
         }
         scheduleDTO.setSections(sections);
 
         return scheduleDTO;
     }
 
+    /**
+     * Converts a list of generated schedules with consecutive IDs to a list of schedule DTOs. Every section is
+     * converted once no matter how many schedules share it.
+     * @param firstScheduleId ID of the first schedule
+     * @param schedules schedule sections
+     * @return list of schedule DTOs
+     */
+    public static List<ScheduleDTO> toScheduleDTO(long firstScheduleId, List<List<Section>> schedules) {
+        Map<Long, SectionWithCourseDTO> sectionDTOs = new HashMap<>();
+        List<ScheduleDTO> scheduleDTOs = new ArrayList<>(schedules.size());
+        for (int i = 0; i < schedules.size(); i++) {
+            List<Section> schedule = schedules.get(i);
+            List<SectionWithCourseDTO> sections = new ArrayList<>(schedule.size());
+            for (Section section : schedule) {
+                sections.add(sectionDTOs.computeIfAbsent(section.getId(), id -> toSectionWithCourseDTO(section)));
+            }
+
+            ScheduleDTO scheduleDTO = new ScheduleDTO(firstScheduleId + i);
+            scheduleDTO.setSections(sections);
+            scheduleDTOs.add(scheduleDTO);
+        }
+        return scheduleDTOs;
+    }
+
+    /**
+     * Converts a list of generated schedules with consecutive IDs to a normalized schedules DTO. Every course and
+     * section is converted once into a lookup table, and every schedule becomes an array of section positions.
+     * @param firstScheduleId ID of the first schedule
+     * @param schedules schedule sections
+     * @return normalized schedules DTO
+     */
+    public static NormalizedSchedulesDTO toNormalizedSchedulesDTO(long firstScheduleId,
+                                                                  List<List<Section>> schedules) {
+        Map<Long, Integer> courseIndexes = new HashMap<>();
+        Map<Long, Integer> sectionIndexes = new HashMap<>();
+        List<CourseDTO> courses = new ArrayList<>();
+        List<NormalizedSectionDTO> sections = new ArrayList<>();
+        long[] scheduleIds = new long[schedules.size()];
+        int[][] scheduleSections = new int[schedules.size()][];
+
+        for (int i = 0; i < schedules.size(); i++) {
+            List<Section> schedule = schedules.get(i);
+            scheduleIds[i] = firstScheduleId + i;
+            scheduleSections[i] = new int[schedule.size()];
+            for (int j = 0; j < schedule.size(); j++) {
+                Section section = schedule.get(j);
+                Integer sectionIndex = sectionIndexes.get(section.getId());
+                if (sectionIndex == null) {
+                    // First time the section is seen, add it and its course to the lookup tables
+                    Course course = section.getCourse();
+                    Integer courseIndex = courseIndexes.get(course.getId());
+                    if (courseIndex == null) {
+                        courseIndex = courses.size();
+                        courseIndexes.put(course.getId(), courseIndex);
+                        courses.add(toCourseDTO(course));
+                    }
+                    sectionIndex = sections.size();
+                    sectionIndexes.put(section.getId(), sectionIndex);
+                    sections.add(new NormalizedSectionDTO(toSectionDTO(section), courseIndex));
+                }
+                scheduleSections[i][j] = sectionIndex;
+            }
+        }
+        return new NormalizedSchedulesDTO(courses, sections, scheduleIds, scheduleSections);
+    }
+
+    /**
+     * Converts a list of packed schedule entities to a list of schedule DTOs. Sections are looked up in the
+     * provided map instead of the database, and every section is converted once no matter how many schedules share it.
+     * Sections missing from the map were deleted after the schedule was saved and are left out.
+     * @param schedules source list of packed schedule entities
+     * @param sectionsById sections referenced by the schedules, keyed by section ID
+     * @return list of schedule DTOs
+     */
+    public static List<ScheduleDTO> toScheduleDTO(List<SchedulePacked> schedules, Map<Long, Section> sectionsById) {
+        Map<Long, SectionWithCourseDTO> sectionDTOs = new HashMap<>();
+        List<ScheduleDTO> scheduleDTOs = new ArrayList<>(schedules.size());
+        for (SchedulePacked schedule : schedules) {
+            List<SectionWithCourseDTO> sections = new ArrayList<>(schedule.getSectionIds().length);
+            for (long sectionId : schedule.getSectionIds()) {
+                Section section = sectionsById.get(sectionId);
+                if (section == null) continue;
+                sections.add(sectionDTOs.computeIfAbsent(sectionId, id -> toSectionWithCourseDTO(section)));
+            }
+
+            ScheduleDTO scheduleDTO = new ScheduleDTO(schedule.getId());
+            scheduleDTO.setSections(sections);
+            scheduleDTOs.add(scheduleDTO);
+        }
+        return scheduleDTOs;
+    }
+
     /**
      * Convert a list of schedule entities to a list of schedule DTOs.
      * @param schedules source list of schedule entities
@@ -348,4 +500,14 @@ public class Mapper {
         }
         return scheduleDTOs;
     }
+
+    /**
+     * Converts a schedule generation job to a schedule job DTO.
+     * @param job source schedule job
+     * @return schedule job DTO
+     */
+    public static ScheduleJobDTO toScheduleJobDTO(ScheduleJob job) {
+        return new ScheduleJobDTO(job.getId(), job.getState().name(), job.getSchedulesFound(),
+                job.getExpectedSchedules(), job.getError(), job.getFirstScheduleId(), job.isTruncated());
+    }
 }
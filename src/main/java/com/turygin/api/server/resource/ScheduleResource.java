@@ -1,17 +1,55 @@
 package com.turygin.api.server.resource;
 
+import com.turygin.api.model.CourseDTO;
+import com.turygin.api.model.ErrorDTO;
 import com.turygin.api.model.ScheduleDTO;
 import com.turygin.api.resource.IScheduleResource;
+import com.turygin.api.server.cofig.ScheduleEngines;
+import com.turygin.api.server.cofig.ScheduleJobs;
+import com.turygin.api.server.cofig.ScheduleSettings;
+import com.turygin.api.server.cofig.ScheduleStatistics;
+import com.turygin.api.server.cofig.SpeculativeSchedules;
+import com.turygin.api.server.model.ScheduleConflictDTO;
+import com.turygin.api.server.model.ScheduleCountDTO;
+import com.turygin.api.server.schedule.BitmapScheduleEngine;
+import com.turygin.api.server.schedule.BlockedTimeMask;
+import com.turygin.api.server.schedule.IncrementalScheduleUpdate;
+import com.turygin.api.server.schedule.MinimalConflictSearch;
+import com.turygin.api.server.schedule.RankedScheduleSearch;
+import com.turygin.api.server.schedule.ResumableScheduleSearch;
+import com.turygin.api.server.schedule.ScheduleCursor;
+import com.turygin.api.server.schedule.ScheduleEngine;
+import com.turygin.api.server.schedule.ScheduleJob;
+import com.turygin.api.server.schedule.ScheduleRanking;
+import com.turygin.api.server.schedule.ScheduleRequestStats;
+import com.turygin.api.server.schedule.ScheduleStore;
+import com.turygin.api.server.schedule.SearchLimits;
 import com.turygin.persistence.dao.Dao;
+import com.turygin.persistence.dao.ScheduleDao;
 import com.turygin.persistence.entity.*;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
 
 /**
  * REST API schedule resource implementation.
@@ -21,108 +59,882 @@ public class ScheduleResource implements IScheduleResource {
 
     protected static final Logger LOG = LogManager.getLogger(ScheduleResource.class);
 
+    /** Media type of newline delimited JSON streams. */
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    /** Serializes streamed schedule DTOs. */
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
+    /** Response header that carries the cursor of the next schedule page. */
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Response header that tells whether every possible schedule was generated. */
+    private static final String EXHAUSTIVE_HEADER = "X-Schedules-Exhaustive";
+
+    /** Response header that tells whether generation stopped at a limit before finding every schedule. */
+    private static final String TRUNCATED_HEADER = "X-Schedules-Truncated";
+
+    /** Response header that carries the number of search nodes explored. */
+    private static final String NODES_EXPLORED_HEADER = "X-Nodes-Explored";
+
+    /** Response header that carries the duration of every request phase. */
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    /** Response header that carries the number of candidate sections checked for conflicts. */
+    private static final String CONFLICT_CHECKS_HEADER = "X-Conflict-Checks";
+
+    /** Response header that carries the number of candidate sections skipped because of a conflict. */
+    private static final String BRANCHES_PRUNED_HEADER = "X-Branches-Pruned";
+
+    /** Schedule response format with every section of every schedule written out in full. */
+    private static final String FULL_FORMAT = "full";
+
+    /** Schedule response format with shared course and section tables and schedules as section positions. */
+    private static final String NORMALIZED_FORMAT = "normalized";
+
+    /** Number of ranked schedules to return if not specified. */
+    private static final int DEFAULT_TOP = 20;
+
+    /** Whether saved schedules are stored as a single row with packed section IDs. */
+    private static final boolean PACKED_SCHEDULES =
+            Boolean.parseBoolean(ScheduleSettings.getString("schedule.persistence.packed", "false"));
+
+    /** Handles blocked time related database queries. */
+    private static final Dao<BlockedTime> BLOCKED_TIME_DAO = new Dao<>(BlockedTime.class);
+
     /** Handles user related database queries. */
     private final Dao<User> USER_DAO = new Dao<>(User.class);
 
     /** Handles schedule related database queries. */
-    private final Dao<Schedule> SCHEDULE_DAO = new Dao<>(Schedule.class);
-
-    /**
-     * Recursive backtracking algorithm that generates a list of all possible schedules.
-     * @param courses a list of all courses that must be represented in the schedule
-     * @param currentCourseIndex index of the current course being processed
-     * @param currentSchedule current schedule represented by a list of sections
-     * @param schedules a list of schedules (list of section lists)
-     */
-    private void recursiveScheduleBuilder(List<CartCourse> courses, int currentCourseIndex,
-                                          List<Section> currentSchedule, List<List<Section>> schedules) {
-
-        // Check if we have a schedule built ...
-        if (currentCourseIndex == courses.size()) {
-            // ... if so, add a copy of it to the list and return
-            schedules.add(new ArrayList<>(currentSchedule));
-            return;
-        }
-
-        CartCourse currentCourse = courses.get(currentCourseIndex);
-
-        // Go through each cart section (selected section) in a cart course
-        for (CartSection cartSection : currentCourse.getSections()) {
-            Section section = cartSection.getSection();
-            // Check if the section does not conflict with the current schedule. Skip if conflicts.
-            if(!isConflicting(currentSchedule, section)) {
-                // Add section to schedule
-                currentSchedule.add(section);
-                // Recursively process the next course
-                recursiveScheduleBuilder(courses, currentCourseIndex + 1, currentSchedule, schedules);
-                // All schedules with this section have been built. Remove it and try the next one.
-                currentSchedule.removeLast();
+    private final ScheduleDao SCHEDULE_DAO = new ScheduleDao();
+
+    /** Handles packed schedule related database queries. */
+    private final Dao<SchedulePacked> PACKED_SCHEDULE_DAO = new Dao<>(SchedulePacked.class);
+
+    /** Handles section related database queries. */
+    private final Dao<Section> SECTION_DAO = new Dao<>(Section.class);
+
+    /** Generates schedules one by one for streaming. */
+    private final ScheduleEngine STREAMING_ENGINE = ScheduleEngines.collapsing(new BitmapScheduleEngine());
+
+    /** Context of the request, carries request statistics until the response is serialized. */
+    @Context
+    private ContainerRequestContext requestContext;
+
+    /** Maximum number of schedules to return. All schedules are returned if missing. */
+    @QueryParam("limit")
+    private Integer limit;
+
+    /** Cursor of the schedule page to return. The first page is returned if missing. */
+    @QueryParam("cursor")
+    private String cursor;
+
+    /** Schedule generation strategy. The configured default strategy is used if missing. */
+    @QueryParam("engine")
+    private String engine;
+
+    /** Time budget of a heuristic search in milliseconds. The configured default budget is used if missing. */
+    @QueryParam("budget")
+    private Long budget;
+
+    /** Time generation may take in milliseconds. The configured maximum is used if missing. */
+    @QueryParam("deadline")
+    private Long deadline;
+
+    /** Time generation may take in milliseconds, used if the deadline query parameter is missing. */
+    @HeaderParam("X-Deadline-Ms")
+    private Long deadlineHeader;
+
+    /** Maximum number of schedules to generate. The configured maximum is used if missing. */
+    @QueryParam("maxResults")
+    private Long maxResults;
+
+    /** Schedule ranking. Schedules are returned in search order if missing. */
+    @QueryParam("rank")
+    private String rank;
+
+    /** Number of best ranked schedules to return. Only used together with the rank query parameter. */
+    @QueryParam("top")
+    private Integer top;
+
+    /** Format of generated schedules, full or normalized. The full format is used if missing. */
+    @QueryParam("format")
+    private String format;
+
+    /**
+     * Generates and returns all available schedules based on user's cart. If the limit query parameter is present,
+     * only a page of schedules is generated and the cursor of the next page is returned in the X-Next-Cursor header.
+     * If the rank query parameter is present, only the best ranked schedules are generated and returned best first.
+     * Carts too large to enumerate are searched heuristically within a time budget, in which case the best schedules
+     * found are returned and the X-Schedules-Exhaustive header is false. Generation stops at the deadline or at the
+     * maximum number of schedules, in which case the schedules found so far are returned, the X-Schedules-Truncated
+     * header is true, and X-Nodes-Explored tells how much of the search was done. If neither the cart nor the request
+     * have changed since the last call, the schedules generated by it are returned again with the same IDs. If only
+     * the selected sections of one course have changed since a complete result, that result is updated instead.
+     * The Server-Timing header tells how long each phase of the request took, and X-Conflict-Checks and
+     * X-Branches-Pruned how much work the search did, where heuristic search counts its moves as explored nodes and
+     * its moves rejected for conflicts as pruned branches. The same statistics are logged and aggregated. If the
+     * format query parameter is normalized, a normalized schedules DTO is returned instead of the list, with every
+     * course and section listed once and every schedule given as positions in the section list.
+     * @param userId unique user ID
+     * @return a list of schedule DTOs, or a normalized schedules DTO
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    @GET
+    @Path("/{userId}")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getSchedules(@PathParam("userId") long userId) {
+        LOG.debug("Generating schedules for user with ID '{}'", userId);
+        checkFormat(format);
+        ScheduleRequestStats stats = new ScheduleRequestStats(rank != null ? "ranked" : limit != null ? "page" : "all");
+        stats.start(ScheduleRequestStats.Phase.LOAD);
+        User user = USER_DAO.getById(userId);
+        assert user != null;
+        Long requestedDeadline = deadline != null ? deadline : deadlineHeader;
+
+        if (rank != null) {
+            return getRankedSchedules(user, rank, top == null ? DEFAULT_TOP : top, requestedDeadline, stats);
+        }
+
+        if (limit != null) {
+            return getSchedulePage(user, limit, cursor, requestedDeadline, stats);
+        }
+
+        List<List<Section>> coursesWithSections = getCoursesWithSections(user);
+        GenerationKey key = new GenerationKey(coursesWithSections.stream().
+                map(sections -> sections.stream().map(Section::getId).toList()).toList(),
+                engine, budget, requestedDeadline, maxResults);
+
+        // Return the schedules generated last time if nothing has changed since
+        ScheduleStore.Snapshot stored = ScheduleEngines.store().snapshot(userId);
+        if (stored != null && stored.version() instanceof Generation generation && generation.key().equals(key)) {
+            LOG.debug("Cart has not changed, returning {} stored schedules", stored.schedules().size());
+            stats.start(ScheduleRequestStats.Phase.MAP);
+            return schedulesResponse(toSchedulesEntity(stored.firstId(), stored.schedules()),
+                    stored.schedules().size(), generation, stats);
+        }
+
+        stats.start(ScheduleRequestStats.Phase.SEARCH);
+        ScheduleEngine scheduleEngine = ScheduleEngines.select(engine, coursesWithSections, budget);
+        SearchLimits limits = ScheduleEngines.limits(requestedDeadline, maxResults);
+        long startTime = System.nanoTime();
+
+        // Update the previous schedules if only one course has changed since, instead of starting from scratch
+        List<List<Section>> allSchedules = updateSchedules(stored, coursesWithSections, scheduleEngine, limits);
+        if (allSchedules == null) {
+            // Build schedules, using the result of background generation after a cart change if there is one.
+            // Waiting for background generation counts against the deadline.
+            SpeculativeSchedules.await(userId, limits.getRemainingMillis());
+            SpeculativeSchedules.foregroundStarted();
+            try {
+                if (scheduleEngine.isExhaustive()) {
+                    // Complete exhaustive results are shared with every identical cart
+                    allSchedules = limits.apply(
+                            ScheduleEngines.cache().getOrBuild(coursesWithSections, scheduleEngine, limits));
+                } else {
+                    allSchedules = new ArrayList<>();
+                    scheduleEngine.buildSchedules(coursesWithSections, allSchedules::add, limits);
+                }
+            } finally {
+                SpeculativeSchedules.foregroundFinished();
             }
         }
+        LOG.debug("{} generated {} schedules in {} ms exploring {} nodes{}",
+                scheduleEngine.getClass().getSimpleName(), allSchedules.size(),
+                (System.nanoTime() - startTime) / 1_000_000, limits.getNodesExplored(),
+                limits.isTruncated() ? ", truncated" : "");
+        stats.recordSearch(scheduleEngine.getClass().getSimpleName(), limits);
+
+        // Keep schedules in memory until the user selects one
+        stats.start(ScheduleRequestStats.Phase.PERSIST);
+        Generation generation = new Generation(key, scheduleEngine.isExhaustive(), limits.isTruncated(),
+                limits.getNodesExplored());
+        long firstScheduleId = ScheduleEngines.store().replace(userId, allSchedules, generation);
+        stats.start(ScheduleRequestStats.Phase.MAP);
+        Object schedulesEntity = toSchedulesEntity(firstScheduleId, allSchedules);
+        LOG.debug("Found {} schedules", allSchedules.size());
+        return schedulesResponse(schedulesEntity, allSchedules.size(), generation, stats);
     }
 
     /**
-     * Helper method that checks whether a section conflicts with an existing schedule.
-     * @param schedule a list of sections comprising a schedule
-     * @param section section to check for conflict
-     * @return true if section is conflicting with schedule, false otherwise
+     * Updates the schedules generated by the previous request of the user if they are complete and the selected
+     * sections of a single course have changed since. Schedules with deselected sections are filtered out and only
+     * the branches of newly selected sections are searched. Updated schedules are listed in cart order, which may
+     * differ from the order of a fresh search.
+     * @param stored schedules generated by the previous request, or null if there are none
+     * @param coursesWithSections a list of courses where each course is represented by a list of its selected sections
+     * @param scheduleEngine engine selected for the cart
+     * @param limits limits of the search over newly selected sections
+     * @return every schedule of the cart up to the maximum, or null if the previous schedules cannot be updated
      */
-    private boolean isConflicting(List<Section> schedule, Section section) {
-        for (Section existingSections : schedule) {
-            if (existingSections.isConflicting(section)) {
-                return true;
+    private List<List<Section>> updateSchedules(ScheduleStore.Snapshot stored, List<List<Section>> coursesWithSections,
+                                                ScheduleEngine scheduleEngine, SearchLimits limits) {
+        if (stored == null || !(stored.version() instanceof Generation previous)) return null;
+
+        // Only a complete previous result contains every schedule that is still valid
+        if (!scheduleEngine.isExhaustive() || !previous.exhaustive() || previous.truncated()) return null;
+
+        List<List<Section>> schedules = new IncrementalScheduleUpdate(scheduleEngine).
+                update(previous.key().sectionIds(), stored.schedules(), coursesWithSections, limits);
+        if (schedules == null) return null;
+        LOG.debug("Updated {} previous schedules to {} after a single course changed", stored.schedules().size(),
+                schedules.size());
+        return limits.apply(schedules);
+    }
+
+    /**
+     * Checks that the requested schedule format is known.
+     * @param format requested format, or null for the full format
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    static void checkFormat(String format) {
+        if (format != null && !format.equalsIgnoreCase(FULL_FORMAT) && !format.equalsIgnoreCase(NORMALIZED_FORMAT)) {
+            throw new IllegalArgumentException("Unknown schedule format: " + format);
+        }
+    }
+
+    /**
+     * Converts generated schedules to a response entity in the requested format.
+     * @param firstScheduleId ID of the first schedule
+     * @param schedules generated schedules
+     * @return a list of schedule DTOs, or a normalized schedules DTO if the normalized format was requested
+     */
+    private Object toSchedulesEntity(long firstScheduleId, List<List<Section>> schedules) {
+        if (NORMALIZED_FORMAT.equalsIgnoreCase(format)) {
+            return Mapper.toNormalizedSchedulesDTO(firstScheduleId, schedules);
+        }
+        return Mapper.toScheduleDTO(firstScheduleId, schedules);
+    }
+
+    /**
+     * Builds a response with generated schedules and the headers that describe how they were generated.
+     * @param schedulesEntity generated schedules in the requested format
+     * @param scheduleCount number of generated schedules
+     * @param generation describes how the schedules were generated
+     * @param stats statistics of the request
+     * @return response with the generated schedules
+     */
+    private Response schedulesResponse(Object schedulesEntity, int scheduleCount, Generation generation,
+                                       ScheduleRequestStats stats) {
+        return withStats(Response.ok(schedulesEntity).
+                header(EXHAUSTIVE_HEADER, generation.exhaustive()).
+                header(TRUNCATED_HEADER, generation.truncated()).
+                header(NODES_EXPLORED_HEADER, generation.nodesExplored()), stats, scheduleCount);
+    }
+
+    /**
+     * Adds request statistics to a schedule response. Serialization of the response body is timed and the
+     * statistics are recorded once the body is written.
+     * @param response response builder with schedule DTOs
+     * @param stats statistics of the request
+     * @param schedules number of schedules in the response
+     * @return response with the statistics headers
+     */
+    private Response withStats(Response.ResponseBuilder response, ScheduleRequestStats stats, int schedules) {
+        stats.stop();
+        stats.recordSchedules(schedules);
+        requestContext.setProperty(ScheduleRequestStats.PROPERTY, stats);
+        return response.
+                header(SERVER_TIMING_HEADER, stats.toServerTiming()).
+                header(CONFLICT_CHECKS_HEADER, stats.getConflictChecks()).
+                header(BRANCHES_PRUNED_HEADER, stats.getBranchesPruned()).
+                build();
+    }
+
+    /**
+     * Generates the best ranked schedules based on user's cart. Branches of the search that cannot produce a schedule
+     * better than the ones already found are skipped, so only a fraction of all schedules is ever scored. Top is
+     * capped by the maximum number of schedules of a request. The search stops at the deadline, in which case the
+     * best of the schedules scored so far are returned and the X-Schedules-Truncated header is true.
+     * @param user user entity
+     * @param rank name of the ranking
+     * @param top maximum number of schedules to return
+     * @param requestedDeadline requested time budget in milliseconds, or null for the maximum
+     * @param stats statistics of the request
+     * @return a list of schedule DTOs ordered from the best to the worst
+     */
+    private Response getRankedSchedules(User user, String rank, int top, Long requestedDeadline,
+                                        ScheduleRequestStats stats) {
+        LOG.debug("Generating {} best schedules ranked by '{}'", top, rank);
+        if (top < 1) {
+            return Response.status(Response.Status.BAD_REQUEST).
+                    entity(new ErrorDTO(Response.Status.BAD_REQUEST, "Top must be a positive number.")).
+                    build();
+        }
+        ScheduleRanking ranking = ScheduleRanking.fromName(rank);
+        int maxTop = (int) Math.min(top, ScheduleEngines.maxSchedules());
+
+        // Find the best schedules, then keep them in rank order
+        List<List<Section>> coursesWithSections = getCoursesWithSections(user);
+        stats.start(ScheduleRequestStats.Phase.SEARCH);
+        SearchLimits limits = ScheduleEngines.limits(requestedDeadline, null);
+        long startTime = System.nanoTime();
+        List<List<Section>> bestSchedules =
+                new RankedScheduleSearch(ranking.scorer, maxTop).findBest(coursesWithSections, limits);
+        LOG.debug("Ranked search found {} schedules in {} ms exploring {} nodes{}", bestSchedules.size(),
+                (System.nanoTime() - startTime) / 1_000_000, limits.getNodesExplored(),
+                limits.isTruncated() ? ", truncated" : "");
+        stats.recordSearch(RankedScheduleSearch.class.getSimpleName(), limits);
+
+        stats.start(ScheduleRequestStats.Phase.PERSIST);
+        long firstScheduleId = ScheduleEngines.store().replace(user.getId(), bestSchedules);
+        stats.start(ScheduleRequestStats.Phase.MAP);
+        return withStats(Response.ok(toSchedulesEntity(firstScheduleId, bestSchedules)).
+                header(TRUNCATED_HEADER, limits.isTruncated()).
+                header(NODES_EXPLORED_HEADER, limits.getNodesExplored()), stats, bestSchedules.size());
+    }
+
+    /**
+     * Generates a page of schedules based on user's cart. The search resumes right after the last schedule of the
+     * previous page, so the cost of a request depends on the page size rather than the total number of schedules.
+     * The limit is capped by the maximum number of schedules of a request. The search stops at the deadline, in
+     * which case the page may be short, the X-Schedules-Truncated header is true and the next page continues
+     * where the search stopped.
+     * @param user user entity
+     * @param limit maximum number of schedules on the page
+     * @param cursor cursor returned with the previous page, or null for the first page
+     * @param requestedDeadline requested time budget in milliseconds, or null for the maximum
+     * @param stats statistics of the request
+     * @return a list of schedule DTOs with the cursor of the next page in the X-Next-Cursor header
+     */
+    private Response getSchedulePage(User user, int limit, String cursor, Long requestedDeadline,
+                                     ScheduleRequestStats stats) {
+        LOG.debug("Generating {} schedules after cursor '{}'", limit, cursor);
+        if (limit < 1) {
+            return Response.status(Response.Status.BAD_REQUEST).
+                    entity(new ErrorDTO(Response.Status.BAD_REQUEST, "Limit must be a positive number.")).
+                    build();
+        }
+
+        List<List<Section>> coursesWithSections = getCoursesWithSections(user);
+        stats.start(ScheduleRequestStats.Phase.SEARCH);
+        ResumableScheduleSearch search = new ResumableScheduleSearch(coursesWithSections);
+
+        if (cursor != null) {
+            ScheduleCursor position = ScheduleCursor.decode(cursor);
+            if (!position.matches(coursesWithSections)) {
+                LOG.debug("Cart has changed since the cursor was created.");
+                return Response.status(Response.Status.CONFLICT).
+                        entity(new ErrorDTO(Response.Status.CONFLICT, "Cart has changed. Start from the first page.")).
+                        build();
             }
+            search.skipPast(position.getPosition());
         }
-        return false;
+
+        // Generate schedules until the page is full or the deadline passes
+        int pageSize = (int) Math.min(limit, ScheduleEngines.maxSchedules());
+        SearchLimits limits = ScheduleEngines.limits(requestedDeadline, null);
+        List<List<Section>> schedules = new ArrayList<>();
+        List<Section> schedule;
+        while (schedules.size() < pageSize && (schedule = search.next(limits)) != null) {
+            schedules.add(schedule);
+        }
+        stats.recordSearch(ResumableScheduleSearch.class.getSimpleName(), limits);
+
+        // The first page replaces schedules kept in memory, the following ones add to them
+        stats.start(ScheduleRequestStats.Phase.PERSIST);
+        long firstScheduleId = cursor == null ?
+                ScheduleEngines.store().replace(user.getId(), schedules) :
+                ScheduleEngines.store().append(user.getId(), schedules);
+        stats.start(ScheduleRequestStats.Phase.MAP);
+        LOG.debug("Found {} schedules", schedules.size());
+        Response.ResponseBuilder response = Response.ok(toSchedulesEntity(firstScheduleId, schedules)).
+                header(TRUNCATED_HEADER, limits.isTruncated()).
+                header(NODES_EXPLORED_HEADER, limits.getNodesExplored());
+
+        // A full page means there may be more schedules. So does a truncated page with a position to resume from.
+        boolean hasPosition = cursor != null || !schedules.isEmpty();
+        if (schedules.size() == pageSize || (limits.isTruncated() && hasPosition)) {
+            response.header(NEXT_CURSOR_HEADER, ScheduleCursor.of(coursesWithSections, search.position()).encode());
+        }
+        return withStats(response, stats, schedules.size());
     }
 
     /**
-     * Generates and returns all available schedules based on user's cart.
+     * Gets statistics of schedule requests aggregated since the server started: histograms of the time spent in
+     * every request phase and of the work done by the search.
+     * @return schedule stats DTO
+     */
+    @GET
+    @Path("/stats")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getStatistics() {
+        return Response.ok(ScheduleStatistics.toDTO()).build();
+    }
+
+    /**
+     * Counts the schedules user's cart yields without generating or storing them.
      * @param userId unique user ID
-     * @return a list of schedule DTOs
+     * @return schedule count DTO
      */
     @GET
-    @Path("/{userId}")
+    @Path("/{userId}/count")
     @Produces({ MediaType.APPLICATION_JSON })
-    public Response getSchedules(@PathParam("userId") long userId) {
-        LOG.debug("Generating schedules for user with ID '{}'", userId);
+    public Response countSchedules(@PathParam("userId") long userId) {
+        LOG.debug("Counting schedules for user with ID '{}'", userId);
+        User user = USER_DAO.getById(userId);
+        assert user != null;
+
+        List<List<Section>> coursesWithSections = getCoursesWithSections(user);
+        long startTime = System.nanoTime();
+        OptionalLong count = ScheduleEngines.count(coursesWithSections);
+        LOG.debug("Counted {} schedules in {} ms", count, (System.nanoTime() - startTime) / 1_000_000);
+
+        long sectionCombinations = ScheduleEngine.searchSpaceSize(coursesWithSections);
+        ScheduleCountDTO countDTO = new ScheduleCountDTO(count.isPresent() ? count.getAsLong() : null,
+                sectionCombinations, !ScheduleEngines.isTooLargeToEnumerate(sectionCombinations, count));
+        return Response.ok(countDTO).build();
+    }
+
+    /**
+     * Explains why user's cart yields no schedules. Finds a minimal set of cart courses that cannot all be scheduled
+     * together, so that removing any one of them resolves the conflict. The search stops at the deadline, in which
+     * case the returned courses still conflict but some of them may be unrelated to the conflict.
+     * @param userId unique user ID
+     * @return schedule conflict DTO, with no courses if the cart yields a schedule
+     */
+    @GET
+    @Path("/{userId}/conflicts")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getConflicts(@PathParam("userId") long userId) {
+        LOG.debug("Finding conflicting courses for user with ID '{}'", userId);
         User user = USER_DAO.getById(userId);
         assert user != null;
 
-        // Clear existing schedules
-        user.setSchedules(null);
-        USER_DAO.update(user);
+        // Conflicts are reported by index, and a fully blocked course has no section to read the course from
+        List<CartCourse> cartCourses = getSelectedCartCourses(user);
+        List<List<Section>> coursesWithSections = getCoursesWithSections(user, cartCourses);
+        SearchLimits limits = ScheduleEngines.limits(deadline != null ? deadline : deadlineHeader, null);
+        long startTime = System.nanoTime();
+        MinimalConflictSearch.Result conflict = new MinimalConflictSearch().find(coursesWithSections, limits);
+        LOG.debug("Found {} conflicting courses in {} ms exploring {} nodes", conflict.courses().size(),
+                (System.nanoTime() - startTime) / 1_000_000, limits.getNodesExplored());
 
-        // Get courses in cart while filtering out the ones without any sections selected
-        List<CartCourse> coursesWithSections = user.getCoursesInCart().stream().
-                filter(cartCourse -> !cartCourse.getSections().isEmpty()).toList();
+        List<CourseDTO> courses = new ArrayList<>();
+        for (int course : conflict.courses()) {
+            courses.add(Mapper.toCourseDTO(cartCourses.get(course).getCourse()));
+        }
+        return Response.ok(new ScheduleConflictDTO(courses, conflict.minimal())).build();
+    }
 
-        // Build schedules
-        List<Section> currentSchedule = new ArrayList<>();
-        List<List<Section>> allSchedules = new ArrayList<>();
-        recursiveScheduleBuilder(coursesWithSections, 0, currentSchedule, allSchedules);
+    /**
+     * Generates all available schedules based on user's cart and streams them to the client as newline delimited
+     * JSON. Each schedule is sent as soon as it is found, so the client can start rendering schedules while the
+     * search is still running, and is stored so that it can be selected by its ID. The stream ends at the deadline or
+     * at the maximum number of schedules, which is never more than the number of schedules stored per user, so every
+     * streamed ID can be selected. It also ends once another request replaces the schedules of the user. Headers are
+     * sent before the search starts, so the X-Schedules-Truncated header only tells whether the cart yields more
+     * schedules than the maximum, and is missing if the cart is too large to count.
+     * @param userId unique user ID
+     * @return a stream of schedule DTOs, one per line
+     */
+    @GET
+    @Path("/{userId}/stream")
+    @Produces({ APPLICATION_NDJSON })
+    public Response streamSchedules(@PathParam("userId") long userId) {
+        LOG.debug("Streaming schedules for user with ID '{}'", userId);
+        User user = USER_DAO.getById(userId);
+        assert user != null;
+
+        List<List<Section>> coursesWithSections = getCoursesWithSections(user);
+        Long requestedDeadline = deadline != null ? deadline : deadlineHeader;
+        long maxSchedules = Math.min(ScheduleEngines.store().getMaxSchedulesPerUser(),
+                maxResults == null ? ScheduleEngines.maxSchedules() : maxResults);
+        OptionalLong count = ScheduleEngines.count(coursesWithSections);
+        SearchLimits limits = ScheduleEngines.limits(requestedDeadline, maxSchedules);
+
+        // Only this stream may add to the schedules of the user until another request replaces them
+        Object owner = new Object();
+        ScheduleEngines.store().claim(userId, owner);
 
-        // Create schedule entities from section lists and insert them into the database
-        List<Schedule> scheduleEntities = new ArrayList<>();
-        for(List<Section> schedule : allSchedules) {
-            Schedule scheduleEntity = new Schedule(user);
+        StreamingOutput stream = output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            STREAMING_ENGINE.buildSchedules(coursesWithSections, schedule -> {
+                OptionalLong scheduleId = ScheduleEngines.store().append(userId, owner, schedule);
+                if (scheduleId.isEmpty()) {
+                    // A schedule that is not stored could not be selected, so it is not sent either
+                    LOG.debug("Schedules of the stream were replaced or could not be stored. Stopping.");
+                    return false;
+                }
+
+                try {
+                    writer.write(JSONB.toJson(Mapper.toScheduleDTO(scheduleId.getAsLong(), schedule)));
+                    writer.write('\n');
+                    writer.flush();
+                    return true;
+                } catch (IOException exception) {
+                    // Client went away, there is no point in generating more schedules
+                    LOG.debug("Could not write schedule to the client. Stopping.", exception);
+                    return false;
+                }
+            }, limits);
+            writer.flush();
+            LOG.debug("Streamed schedules exploring {} nodes{}", limits.getNodesExplored(),
+                    limits.isTruncated() ? ", truncated" : "");
+        };
+        Response.ResponseBuilder response = Response.ok(stream);
+        if (count.isPresent()) {
+            response.header(TRUNCATED_HEADER, count.getAsLong() > maxSchedules);
+        }
+        return response.build();
+    }
 
-            // Create schedule sections from sections
-            List<ScheduleSection> scheduleSections = new ArrayList<>();
-            for(Section section : schedule) {
-                scheduleSections.add(new ScheduleSection(scheduleEntity, section));
+    /**
+     * Starts generating schedules based on user's cart in the background. Schedules are stored as they are found,
+     * and an active job of the same user is cancelled. The job stops once another request replaces the schedules
+     * of the user, and searches within the same deadline and maximum number of schedules as a schedule request.
+     * Jobs wait in a bounded queue while every job thread is busy, and no job is started while the queue is full.
+     * @param userId unique user ID
+     * @return 202 response with the schedule job DTO, or 503 error DTO if too many jobs are waiting
+     */
+    @POST
+    @Path("/{userId}/jobs")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response submitScheduleJob(@PathParam("userId") long userId) {
+        LOG.debug("Submitting schedule job for user with ID '{}'", userId);
+        User user = USER_DAO.getById(userId);
+        assert user != null;
+
+        ScheduleJob job = ScheduleJobs.submit(userId, runningJob -> {
+            List<List<Section>> coursesWithSections = getCoursesWithSections(user);
+            OptionalLong count = ScheduleEngines.count(coursesWithSections);
+            runningJob.setExpectedSchedules(count.isPresent() ? count.getAsLong() : null);
+
+            // Only the job that claimed the schedules of the user may add to them
+            runningJob.setFirstScheduleId(ScheduleEngines.store().claim(userId, runningJob));
+
+            STREAMING_ENGINE.buildSchedules(coursesWithSections, schedule -> {
+                if (ScheduleEngines.store().append(userId, runningJob, schedule).isEmpty()) {
+                    LOG.debug("Schedules of job '{}' were replaced. Stopping.", runningJob.getId());
+                    runningJob.cancel();
+                    return false;
+                }
+                runningJob.scheduleFound();
+                return true;
+            }, runningJob.getMonitor());
+        });
+        if (job == null) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).
+                    entity(new ErrorDTO(Response.Status.SERVICE_UNAVAILABLE,
+                            "Too many schedule jobs are waiting. Try again later.")).
+                    build();
+        }
+
+        LOG.debug("Submitted job '{}'", job.getId());
+        return Response.status(Response.Status.ACCEPTED).entity(Mapper.toScheduleJobDTO(job)).build();
+    }
+
+    /**
+     * Reports the state and progress of a schedule generation job, and the ID of the first schedule it stored.
+     * @param userId unique user ID
+     * @param jobId unique job ID
+     * @return schedule job DTO, or 404 error DTO if the user has no such job
+     */
+    @GET
+    @Path("/{userId}/jobs/{jobId}")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getScheduleJob(@PathParam("userId") long userId, @PathParam("jobId") String jobId) {
+        ScheduleJob job = ScheduleJobs.get(jobId);
+        if (job == null || job.getUserId() != userId) {
+            return jobNotFound(jobId);
+        }
+        return Response.ok(Mapper.toScheduleJobDTO(job)).build();
+    }
+
+    /**
+     * Gets the schedules stored by a schedule generation job so far. Schedules of a running job can be fetched
+     * repeatedly while it finds more. The format query parameter works as for generated schedules.
+     * @param userId unique user ID
+     * @param jobId unique job ID
+     * @return a list of schedule DTOs, or a normalized schedules DTO, or 404 error DTO if the user has no such
+     * job or its schedules have been replaced or have expired
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    @GET
+    @Path("/{userId}/jobs/{jobId}/schedules")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getScheduleJobSchedules(@PathParam("userId") long userId, @PathParam("jobId") String jobId) {
+        checkFormat(format);
+        ScheduleJob job = ScheduleJobs.get(jobId);
+        if (job == null || job.getUserId() != userId) {
+            return jobNotFound(jobId);
+        }
+
+        ScheduleStore.Snapshot stored = ScheduleEngines.store().owned(userId, job);
+        if (stored == null) {
+            LOG.debug("Schedules of job '{}' were replaced or have expired", jobId);
+            return Response.status(Response.Status.NOT_FOUND).
+                    entity(new ErrorDTO(Response.Status.NOT_FOUND,
+                            "Schedules of the job were replaced or have expired. Generate schedules again.")).
+                    build();
+        }
+        return Response.ok(toSchedulesEntity(stored.firstId(), stored.schedules())).
+                header(TRUNCATED_HEADER, job.isTruncated()).
+                build();
+    }
+
+    /**
+     * Cancels a schedule generation job. The job stops shortly after, keeping the schedules found so far.
+     * @param userId unique user ID
+     * @param jobId unique job ID
+     * @return schedule job DTO, or 404 error DTO if the user has no such job
+     */
+    @DELETE
+    @Path("/{userId}/jobs/{jobId}")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response cancelScheduleJob(@PathParam("userId") long userId, @PathParam("jobId") String jobId) {
+        LOG.debug("Cancelling job '{}'", jobId);
+        ScheduleJob job = ScheduleJobs.get(jobId);
+        if (job == null || job.getUserId() != userId) {
+            return jobNotFound(jobId);
+        }
+        job.cancel();
+        return Response.ok(Mapper.toScheduleJobDTO(job)).build();
+    }
+
+    /**
+     * Selects one of the generated schedules and saves it in place of the previously selected one. Generated
+     * schedules are kept in memory for a limited time, so selecting an expired one requires generating again.
+     * @param userId unique user ID
+     * @param scheduleId schedule ID returned by one of the schedule generation endpoints
+     * @return saved schedule DTO, or 404 error DTO if the schedule is not available anymore
+     */
+    @POST
+    @Path("/{userId}/select/{scheduleId}")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response selectSchedule(@PathParam("userId") long userId, @PathParam("scheduleId") long scheduleId) {
+        LOG.debug("Selecting schedule {} for user {}", scheduleId, userId);
+        User user = USER_DAO.getById(userId);
+        assert user != null;
+
+        List<Section> schedule = ScheduleEngines.store().get(userId, scheduleId);
+        if (schedule == null) {
+            return scheduleExpired(scheduleId);
+        }
+
+        // Replace the previously selected schedule
+        if (PACKED_SCHEDULES) {
+            SCHEDULE_DAO.deletePackedByUser(userId, true);
+            SchedulePacked packedSchedule = new SchedulePacked(user, true, schedule);
+            PACKED_SCHEDULE_DAO.insert(packedSchedule);
+            return Response.ok(Mapper.toScheduleDTO(packedSchedule.getId(), schedule)).build();
+        }
+
+        SCHEDULE_DAO.deleteByUser(userId, true);
+
+        Schedule scheduleEntity = Mapper.createSchedule(user, schedule);
+        scheduleEntity.setSelected(true);
+        SCHEDULE_DAO.insert(scheduleEntity);
+        return Response.ok(Mapper.toScheduleDTO(scheduleEntity)).build();
+    }
+
+    /**
+     * Saves several generated schedules at once without changing the selected one. All schedules are written in
+     * a single transaction with batched inserts.
+     * @param userId unique user ID
+     * @param scheduleIds schedule IDs returned by one of the schedule generation endpoints
+     * @return list of saved schedule DTOs, or 404 error DTO if any of the schedules is not available anymore
+     * @throws IllegalArgumentException if no schedule IDs are provided
+     */
+    @POST
+    @Path("/{userId}/saved")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response saveSchedules(@PathParam("userId") long userId, @QueryParam("id") List<Long> scheduleIds) {
+        if (scheduleIds == null || scheduleIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one schedule ID must be provided.");
+        }
+        LOG.debug("Saving {} schedules for user {}", scheduleIds.size(), userId);
+        User user = USER_DAO.getById(userId);
+        assert user != null;
+
+        List<List<Section>> schedules = new ArrayList<>(scheduleIds.size());
+        for (long scheduleId : scheduleIds) {
+            List<Section> schedule = ScheduleEngines.store().get(userId, scheduleId);
+            if (schedule == null) {
+                return scheduleExpired(scheduleId);
             }
-            scheduleEntity.setSections(scheduleSections);
+            schedules.add(schedule);
+        }
+
+        if (PACKED_SCHEDULES) {
+            List<SchedulePacked> packedSchedules = new ArrayList<>(schedules.size());
+            for (List<Section> schedule : schedules) {
+                packedSchedules.add(new SchedulePacked(user, false, schedule));
+            }
+            PACKED_SCHEDULE_DAO.insertAll(packedSchedules);
+
+            List<ScheduleDTO> scheduleDTOs = new ArrayList<>(schedules.size());
+            for (int i = 0; i < schedules.size(); i++) {
+                scheduleDTOs.add(Mapper.toScheduleDTO(packedSchedules.get(i).getId(), schedules.get(i)));
+            }
+            return Response.ok(scheduleDTOs).build();
+        }
+
+        List<Schedule> scheduleEntities = new ArrayList<>(schedules.size());
+        for (List<Section> schedule : schedules) {
+            scheduleEntities.add(Mapper.createSchedule(user, schedule));
+        }
+        SCHEDULE_DAO.insertAll(scheduleEntities);
+        return Response.ok(Mapper.toScheduleDTO(scheduleEntities)).build();
+    }
+
+    /**
+     * Marks a saved schedule as selected or not selected. Other saved schedules are left as they are.
+     * @param userId unique user ID
+     * @param scheduleId saved schedule ID
+     * @param selected whether the schedule is selected, required
+     * @return 204 response, 400 error DTO if selected is missing, or 404 error DTO if the user has no such saved
+     * schedule
+     */
+    @PUT
+    @Path("/{userId}/saved/{scheduleId}")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response setScheduleSelected(@PathParam("userId") long userId, @PathParam("scheduleId") long scheduleId,
+                                        @QueryParam("selected") Boolean selected) {
+        LOG.debug("Setting selected of saved schedule {} to {}", scheduleId, selected);
+        if (selected == null) {
+            return Response.status(Response.Status.BAD_REQUEST).
+                    entity(new ErrorDTO(Response.Status.BAD_REQUEST, "Selected must be true or false.")).
+                    build();
+        }
+        if (PACKED_SCHEDULES) {
+            SchedulePacked packedSchedule = PACKED_SCHEDULE_DAO.getById(scheduleId);
+            if (packedSchedule == null || packedSchedule.getUser().getId() != userId) {
+                return savedScheduleNotFound(scheduleId);
+            }
+            packedSchedule.setSelected(selected);
+            PACKED_SCHEDULE_DAO.update(packedSchedule);
+        } else {
+            Schedule schedule = SCHEDULE_DAO.getById(scheduleId);
+            if (schedule == null || schedule.getUser().getId() != userId) {
+                return savedScheduleNotFound(scheduleId);
+            }
+            schedule.setSelected(selected);
+            SCHEDULE_DAO.update(schedule);
+        }
+        return Response.status(Response.Status.NO_CONTENT).build();
+    }
 
-            // Insert schedule into the database
-            SCHEDULE_DAO.insert(scheduleEntity);
+    /**
+     * Gets the saved schedules of the user. Packed schedules are read with one query and their sections with another,
+     * however many schedules and sections there are.
+     * @param userId unique user ID
+     * @return list of saved schedule DTOs
+     */
+    @GET
+    @Path("/{userId}/saved")
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response getSavedSchedules(@PathParam("userId") long userId) {
+        LOG.debug("Getting saved schedules for user {}", userId);
+        User user = USER_DAO.getById(userId);
+        assert user != null;
+
+        if (!PACKED_SCHEDULES) {
+            return Response.ok(Mapper.toScheduleDTO(user.getSchedules())).build();
+        }
+
+        List<SchedulePacked> packedSchedules = PACKED_SCHEDULE_DAO.getByPropertyEquals("user", user);
+        Set<Long> sectionIds = new HashSet<>();
+        for (SchedulePacked packedSchedule : packedSchedules) {
+            for (long sectionId : packedSchedule.getSectionIds()) {
+                sectionIds.add(sectionId);
+            }
+        }
 
-            // Store to return from the endpoint
-            scheduleEntities.add(scheduleEntity);
+        Map<Long, Section> sectionsById = new HashMap<>();
+        for (Section section : SECTION_DAO.getByPropertyIn("id", sectionIds)) {
+            sectionsById.put(section.getId(), section);
         }
+        return Response.ok(Mapper.toScheduleDTO(packedSchedules, sectionsById)).build();
+    }
+
+    /**
+     * Builds a response for a generated schedule that is not kept in memory anymore.
+     * @param scheduleId schedule ID returned by one of the schedule generation endpoints
+     * @return 404 response with an error DTO
+     */
+    private Response scheduleExpired(long scheduleId) {
+        LOG.debug("Schedule {} was not found or has expired", scheduleId);
+        return Response.status(Response.Status.NOT_FOUND).
+                entity(new ErrorDTO(Response.Status.NOT_FOUND, "Schedule has expired. Generate schedules again.")).
+                build();
+    }
+
+    /**
+     * Builds a response for a missing saved schedule.
+     * @param scheduleId saved schedule ID
+     * @return 404 response with an error DTO
+     */
+    private Response savedScheduleNotFound(long scheduleId) {
+        LOG.debug("Saved schedule {} was not found", scheduleId);
+        return Response.status(Response.Status.NOT_FOUND).
+                entity(new ErrorDTO(Response.Status.NOT_FOUND, "Saved schedule was not found.")).
+                build();
+    }
+
+    /**
+     * Builds a response for a missing schedule job.
+     * @param jobId unique job ID
+     * @return 404 response with an error DTO
+     */
+    private Response jobNotFound(String jobId) {
+        LOG.debug("Job '{}' was not found", jobId);
+        return Response.status(Response.Status.NOT_FOUND).
+                entity(new ErrorDTO(Response.Status.NOT_FOUND, "Schedule job was not found.")).
+                build();
+    }
+
+    /**
+     * Gets selected sections of courses in user's cart while filtering out the courses without any sections selected.
+     * Sections that meet during a time window blocked by the user are left out, and a course whose selected sections
+     * are all blocked is kept without sections, so that the cart yields no schedules.
+     * @param user user entity
+     * @return a list of courses where each course is represented by a list of its selected sections
+     */
+    static List<List<Section>> getCoursesWithSections(User user) {
+        return getCoursesWithSections(user, getSelectedCartCourses(user));
+    }
 
-        List<ScheduleDTO> scheduleDTOs = Mapper.toScheduleDTO(scheduleEntities);
-        LOG.debug("Found {} schedules", scheduleDTOs.size());
-        return Response.ok(scheduleDTOs).build();
+    /**
+     * Gets selected sections of the given cart courses. Sections that meet during a time window blocked by the user
+     * are left out, and a course whose selected sections are all blocked is kept without sections.
+     * @param user user entity
+     * @param cartCourses courses in user's cart that have sections selected
+     * @return a list of courses where each course is represented by a list of its selected sections, in the order of
+     * the cart courses
+     */
+    private static List<List<Section>> getCoursesWithSections(User user, List<CartCourse> cartCourses) {
+        List<List<Section>> courses = cartCourses.stream().
+                map(cartCourse -> cartCourse.getSections().stream().map(CartSection::getSection).toList()).toList();
+        return new BlockedTimeMask(BLOCKED_TIME_DAO.getByPropertyEquals("user", user)).apply(courses);
     }
+
+    /**
+     * Gets courses in user's cart while filtering out the courses without any sections selected.
+     * @param user user entity
+     * @return cart courses with at least one section selected
+     */
+    private static List<CartCourse> getSelectedCartCourses(User user) {
+        return user.getCoursesInCart().stream().filter(cartCourse -> !cartCourse.getSections().isEmpty()).toList();
+    }
+
+    /**
+     * Everything the result of a schedule request depends on.
+     * @param sectionIds IDs of the selected sections of every course in the cart
+     * @param engine requested schedule generation strategy
+     * @param budget requested heuristic search budget
+     * @param deadline requested deadline
+     * @param maxResults requested maximum number of schedules
+     */
+    private record GenerationKey(List<List<Long>> sectionIds, String engine, Long budget, Long deadline,
+                                 Long maxResults) {}
+
+    /**
+     * Describes how stored schedules were generated.
+     * @param key everything the schedules depend on
+     * @param exhaustive whether the search was exhaustive
+     * @param truncated whether the search stopped at a limit
+     * @param nodesExplored number of search nodes explored
+     */
+    private record Generation(GenerationKey key, boolean exhaustive, boolean truncated, long nodesExplored) {}
 }
@@ -2,6 +2,7 @@ package com.turygin.api.server.resource;
 
 import com.turygin.api.model.SectionDTO;
 import com.turygin.api.resource.ISectionResource;
+import com.turygin.api.server.cofig.ScheduleEngines;
 import com.turygin.persistence.dao.CourseDao;
 import com.turygin.persistence.dao.Dao;
 import com.turygin.persistence.entity.Course;
@@ -64,6 +65,8 @@ public class SectionResource implements ISectionResource {
         Section section = SECTION_DAO.getById(sectionId);
         assert section != null;
         SECTION_DAO.delete(section);
+        ScheduleEngines.cache().invalidateSection(sectionId);
+        ScheduleEngines.store().invalidateVersions();
 
         LOG.debug("Section removed");
         return Response.status(Response.Status.NO_CONTENT).build();
@@ -129,6 +132,8 @@ public class SectionResource implements ISectionResource {
             section.setInstructor(instructor);
         }
         SECTION_DAO.update(section);
+        ScheduleEngines.cache().invalidateSection(section.getId());
+        ScheduleEngines.store().invalidateVersions();
 
         sectionDTO = Mapper.toSectionDTO(section);
         LOG.debug("Updated section: {}", sectionDTO.toString());
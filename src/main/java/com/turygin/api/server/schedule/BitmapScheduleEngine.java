@@ -0,0 +1,104 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schedule engine that represents meeting times as weekly occupancy bitmaps. The occupancy of the partial schedule
+ * is maintained as sections are added and removed, so checking a candidate section is a handful of AND operations
+ * regardless of how many sections the partial schedule already contains.
+ */
+public class BitmapScheduleEngine implements ScheduleEngine {
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer) {
+        buildSchedules(courses, consumer, SearchMonitor.NONE);
+    }
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one until the search is cancelled.
+     * Cancellation is checked before every section is tried.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     * @param monitor tells whether the search was cancelled
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer, SearchMonitor monitor) {
+        OccupancyGrid grid = new OccupancyGrid(courses);
+        long[][][] masks = toMasks(grid, courses);
+        recursiveScheduleBuilder(courses, masks, 0, grid.emptyMask(), new ArrayList<>(), consumer, monitor);
+    }
+
+    /**
+     * Precomputes occupancy masks of all sections.
+     * @param grid occupancy grid built from the courses
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return occupancy masks indexed by course and section
+     */
+    static long[][][] toMasks(OccupancyGrid grid, List<List<Section>> courses) {
+        long[][][] masks = new long[courses.size()][][];
+        for (int i = 0; i < courses.size(); i++) {
+            List<Section> sections = courses.get(i);
+            masks[i] = new long[sections.size()][];
+            for (int j = 0; j < sections.size(); j++) {
+                masks[i][j] = grid.toMask(sections.get(j));
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Recursive backtracking algorithm that generates a list of all possible schedules.
+     * @param courses a list of all courses that must be represented in the schedule
+     * @param masks occupancy masks of every section of every course
+     * @param currentCourseIndex index of the current course being processed
+     * @param occupancy combined occupancy mask of the current schedule
+     * @param currentSchedule current schedule represented by a list of sections
+     * @param consumer receives generated schedules
+     * @param monitor tells whether the search was cancelled and records found schedules and search statistics
+     * @return true if generation should continue, false if the consumer asked to stop or the search was cancelled
+     */
+    static boolean recursiveScheduleBuilder(List<List<Section>> courses, long[][][] masks, int currentCourseIndex,
+                                            long[] occupancy, List<Section> currentSchedule,
+                                            ScheduleConsumer consumer, SearchMonitor monitor) {
+
+        // Check if we have a schedule built ...
+        if (currentCourseIndex == courses.size()) {
+            // ... if so, pass a copy of it to the consumer and return
+            return monitor.scheduleFound() && consumer.accept(new ArrayList<>(currentSchedule));
+        }
+
+        List<Section> sections = courses.get(currentCourseIndex);
+        long[][] sectionMasks = masks[currentCourseIndex];
+
+        for (int i = 0; i < sections.size(); i++) {
+            if (monitor.isCancelled()) return false;
+
+            // Skip the section if any of its time slots are already occupied
+            monitor.conflictsChecked(1);
+            if (OccupancyGrid.overlaps(occupancy, sectionMasks[i])) {
+                monitor.branchPruned();
+                continue;
+            }
+
+            // Add section to schedule
+            OccupancyGrid.occupy(occupancy, sectionMasks[i]);
+            currentSchedule.add(sections.get(i));
+            // Recursively process the next course
+            boolean proceed = recursiveScheduleBuilder(courses, masks, currentCourseIndex + 1, occupancy,
+                    currentSchedule, consumer, monitor);
+            // All schedules with this section have been built. Remove it and try the next one.
+            currentSchedule.removeLast();
+            OccupancyGrid.release(occupancy, sectionMasks[i]);
+            if (!proceed) return false;
+        }
+        return true;
+    }
+}
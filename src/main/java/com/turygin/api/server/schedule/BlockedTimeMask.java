@@ -0,0 +1,116 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.BlockedTime;
+import com.turygin.persistence.entity.Section;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weekly occupancy mask of time windows a user keeps free of classes, with one bit per minute of every day.
+ * Sections that meet during a blocked minute are removed from the courses before the schedule search starts, so
+ * the search never explores schedules that would be thrown away.
+ *
+ * Windows and meeting periods are half-open: a section that ends exactly when a window starts is not blocked.
+ */
+public class BlockedTimeMask {
+
+    /** Number of days a section can meet on. */
+    private static final int DAY_COUNT = Section.Day.values().length;
+
+    /** Number of minutes in a day. */
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    /** Number of long words that hold the minutes of a single day. */
+    private static final int WORDS_PER_DAY = (MINUTES_PER_DAY + Long.SIZE - 1) / Long.SIZE;
+
+    /** Blocked minutes of every day. */
+    private final long[] mask = new long[DAY_COUNT * WORDS_PER_DAY];
+
+    /** True if no minute is blocked. */
+    private boolean empty = true;
+
+    /**
+     * Builds a mask of blocked time windows.
+     * @param blockedTimes blocked time windows
+     */
+    public BlockedTimeMask(List<BlockedTime> blockedTimes) {
+        for (BlockedTime blockedTime : blockedTimes) {
+            block(blockedTime.getDaysOfWeek(), blockedTime.getFromTime().toLocalTime(),
+                    blockedTime.getToTime().toLocalTime());
+        }
+    }
+
+    /**
+     * Blocks a time window.
+     * @param daysOfWeek blocked days, encoded the same way as section meeting days
+     * @param from start of the window
+     * @param to end of the window, the window is empty if it is not after the start
+     */
+    public void block(int daysOfWeek, LocalTime from, LocalTime to) {
+        int fromMinute = minuteOf(from);
+        int toMinute = minuteOf(to);
+        Section.Day[] days = Section.Day.values();
+        for (int day = 0; day < days.length; day++) {
+            if ((daysOfWeek & days[day].value) == 0) continue;
+            for (int minute = fromMinute; minute < toMinute; minute++) {
+                int bit = day * WORDS_PER_DAY * Long.SIZE + minute;
+                mask[bit / Long.SIZE] |= 1L << (bit % Long.SIZE);
+                empty = false;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a section meets during a blocked window.
+     * @param section section to check
+     * @return true if the section is blocked, false otherwise
+     */
+    public boolean isBlocked(Section section) {
+        if (empty) return false;
+        int fromMinute = minuteOf(section.getFromTime().toLocalTime());
+        int toMinute = minuteOf(section.getToTime().toLocalTime());
+        if (fromMinute >= toMinute) return false;
+
+        Section.Day[] days = Section.Day.values();
+        for (int day = 0; day < days.length; day++) {
+            if ((section.getDaysOfWeek() & days[day].value) == 0) continue;
+
+            // Test the minutes of the meeting period a word at a time
+            int first = day * WORDS_PER_DAY * Long.SIZE + fromMinute;
+            int last = day * WORDS_PER_DAY * Long.SIZE + toMinute - 1;
+            for (int word = first / Long.SIZE; word <= last / Long.SIZE; word++) {
+                long range = -1L;
+                if (word == first / Long.SIZE) range &= -1L << (first % Long.SIZE);
+                if (word == last / Long.SIZE) range &= -1L >>> (Long.SIZE - 1 - last % Long.SIZE);
+                if ((mask[word] & range) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes blocked sections from every course. Courses are kept even if all their sections are blocked, in which
+     * case the cart yields no schedules.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return a list of courses with only the sections that are not blocked
+     */
+    public List<List<Section>> apply(List<List<Section>> courses) {
+        if (empty) return courses;
+        List<List<Section>> allowed = new ArrayList<>(courses.size());
+        for (List<Section> sections : courses) {
+            allowed.add(sections.stream().filter(section -> !isBlocked(section)).toList());
+        }
+        return allowed;
+    }
+
+    /**
+     * Converts a time of day to minutes since midnight.
+     * @param time time of day
+     * @return minute of the day
+     */
+    private static int minuteOf(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+}
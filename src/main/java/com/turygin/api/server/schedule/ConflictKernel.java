@@ -0,0 +1,64 @@
+package com.turygin.api.server.schedule;
+
+/**
+ * Tests meeting times packed into primitive arrays for conflicts, many sections at a time. A section is packed as
+ * its meeting days (as encoded by Section.Day), and its start and end times in seconds since midnight. Two sections
+ * conflict exactly when {@link com.turygin.persistence.entity.Section#isConflicting} reports a conflict: they share
+ * a day and their meeting periods overlap, end times included.
+ */
+interface ConflictKernel {
+
+    /** Name of the module that provides the vectorized kernel. */
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Checks whether a section conflicts with any of a range of sections, such as a partial schedule.
+     * @param days meeting days of the section
+     * @param from start time of the section
+     * @param to end time of the section
+     * @param allDays meeting days of all packed sections
+     * @param allFrom start times of all packed sections
+     * @param allTo end times of all packed sections
+     * @param offset index of the first section of the range
+     * @param length number of sections in the range
+     * @return true if the section conflicts with at least one section of the range
+     */
+    boolean conflictsWithAny(int days, int from, int to, int[] allDays, int[] allFrom, int[] allTo,
+                             int offset, int length);
+
+    /**
+     * Removes the sections that conflict with a section from a range of allowed sections, such as the remaining
+     * domain of a course.
+     * @param days meeting days of the section
+     * @param from start time of the section
+     * @param to end time of the section
+     * @param allDays meeting days of all packed sections
+     * @param allFrom start times of all packed sections
+     * @param allTo end times of all packed sections
+     * @param offset index of the first section of the range
+     * @param length number of sections in the range
+     * @param allowed flags of sections that are allowed so far
+     * @param compatible receives flags of sections that are allowed and do not conflict with the section
+     * @return number of sections in the range that are allowed and do not conflict with the section
+     */
+    int filterCompatible(int days, int from, int to, int[] allDays, int[] allFrom, int[] allTo,
+                         int offset, int length, boolean[] allowed, boolean[] compatible);
+
+    /**
+     * Gets the fastest kernel available. The vectorized kernel is used if the JVM was started with
+     * --add-modules jdk.incubator.vector, otherwise the scalar one.
+     * @return conflict kernel
+     */
+    static ConflictKernel best() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                // Loaded by name, so that a JVM without the module never links the vector classes
+                return (ConflictKernel) Class.forName(ConflictKernel.class.getPackageName() + ".VectorConflictKernel").
+                        getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError exception) {
+                return new ScalarConflictKernel();
+            }
+        }
+        return new ScalarConflictKernel();
+    }
+}
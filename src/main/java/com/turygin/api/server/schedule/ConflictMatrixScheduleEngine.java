@@ -0,0 +1,94 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Schedule engine that compares every pair of sections once up front. During the search each level keeps the set
+ * of sections compatible with the whole partial schedule, so checking a candidate is a single bit lookup and
+ * placing it is one AND with the candidate's compatibility row.
+ */
+public class ConflictMatrixScheduleEngine implements ScheduleEngine {
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer) {
+        buildSchedules(courses, consumer, SearchMonitor.NONE);
+    }
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one until the search is cancelled.
+     * Cancellation is checked before every section is tried.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     * @param monitor tells whether the search was cancelled and records found schedules
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer, SearchMonitor monitor) {
+        SectionConflictMatrix matrix = new SectionConflictMatrix(courses);
+
+        // Preallocate the allowed section sets of every level
+        BitSet[] allowed = new BitSet[courses.size() + 1];
+        allowed[0] = matrix.allSections();
+        for (int i = 1; i < allowed.length; i++) {
+            allowed[i] = new BitSet(matrix.size());
+        }
+
+        recursiveScheduleBuilder(matrix, 0, allowed, new ArrayList<>(), consumer, monitor);
+    }
+
+    /**
+     * Recursive backtracking algorithm that generates all possible schedules.
+     * @param matrix compatibility matrix of all sections
+     * @param currentCourseIndex index of the current course being processed
+     * @param allowed sets of sections compatible with the partial schedule at each level
+     * @param currentSchedule current schedule represented by a list of sections
+     * @param consumer receives generated schedules
+     * @param monitor tells whether the search was cancelled and records found schedules and search statistics
+     * @return true if generation should continue, false if the consumer asked to stop or the search was cancelled
+     */
+    private boolean recursiveScheduleBuilder(SectionConflictMatrix matrix, int currentCourseIndex, BitSet[] allowed,
+                                             List<Section> currentSchedule, ScheduleConsumer consumer,
+                                             SearchMonitor monitor) {
+
+        // Check if we have a schedule built ...
+        if (currentCourseIndex == matrix.courseCount()) {
+            // ... if so, pass a copy of it to the consumer and return
+            return monitor.scheduleFound() && consumer.accept(new ArrayList<>(currentSchedule));
+        }
+
+        BitSet currentAllowed = allowed[currentCourseIndex];
+        BitSet nextAllowed = allowed[currentCourseIndex + 1];
+        int end = matrix.endSection(currentCourseIndex);
+
+        // Go through the sections of the current course and skip the ones that conflict with the partial schedule
+        for (int i = matrix.firstSection(currentCourseIndex); i < end; i++) {
+            if (monitor.isCancelled()) return false;
+
+            monitor.conflictsChecked(1);
+            if (!currentAllowed.get(i)) {
+                monitor.branchPruned();
+                continue;
+            }
+
+            // Restrict the next level to sections compatible with this one as well
+            nextAllowed.clear();
+            nextAllowed.or(currentAllowed);
+            nextAllowed.and(matrix.getCompatible(i));
+
+            currentSchedule.add(matrix.getSection(i));
+            boolean proceed = recursiveScheduleBuilder(matrix, currentCourseIndex + 1, allowed,
+                    currentSchedule, consumer, monitor);
+            currentSchedule.removeLast();
+            if (!proceed) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,164 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedule engine that collapses sections of a course that meet on the same days at the same times into a single
+ * representative before searching. Sections of such a class are interchangeable, so the delegate engine only
+ * explores distinct meeting patterns, and every schedule it finds is expanded into all combinations of class members
+ * lazily, while the consumer keeps asking for more.
+ *
+ * Schedules are generated in the delegate's order of meeting patterns rather than the order of the raw sections.
+ */
+public class EquivalentSectionScheduleEngine implements ScheduleEngine {
+
+    /** Engine that searches over class representatives. */
+    private final ScheduleEngine delegate;
+
+    /**
+     * Instantiates an engine that collapses equivalent sections.
+     * @param delegate engine that searches over class representatives
+     */
+    public EquivalentSectionScheduleEngine(ScheduleEngine delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer) {
+        buildSchedules(courses, consumer, SearchMonitor.NONE);
+    }
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one until the search is cancelled.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     * @param monitor tells whether the search was cancelled and records found schedules
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer, SearchMonitor monitor) {
+        // Group the sections of every course by meeting pattern, the first section of a class represents it
+        List<Map<Section, List<Section>>> classes = new ArrayList<>();
+        List<List<Section>> representatives = new ArrayList<>();
+        for (List<Section> sections : courses) {
+            Map<MeetingPattern, List<Section>> patterns = new LinkedHashMap<>();
+            for (Section section : sections) {
+                patterns.computeIfAbsent(MeetingPattern.of(section), pattern -> new ArrayList<>()).add(section);
+            }
+
+            Map<Section, List<Section>> courseClasses = new IdentityHashMap<>();
+            for (List<Section> members : patterns.values()) {
+                courseClasses.put(members.getFirst(), members);
+            }
+            classes.add(courseClasses);
+            representatives.add(patterns.values().stream().map(List::getFirst).toList());
+        }
+
+        // Every representative schedule expands to at least one schedule, so the delegate never has to find more
+        // than one past the remaining maximum to tell that the search is truncated. This keeps delegates that
+        // collect schedules before passing them on from collecting every representative schedule.
+        long remaining = monitor.getRemainingSchedules();
+        long maxRepresentatives = remaining == Long.MAX_VALUE ? Long.MAX_VALUE : remaining + 1;
+        AtomicLong representativesFound = new AtomicLong();
+
+        // Only expanded schedules are reported as found, the delegate checks for cancellation, counts
+        // representative schedules against the maximum and reports search statistics
+        SearchMonitor representativeMonitor = new SearchMonitor() {
+            @Override
+            public boolean isCancelled() {
+                return monitor.isCancelled() || representativesFound.get() >= maxRepresentatives;
+            }
+
+            @Override
+            public boolean scheduleFound() {
+                return !monitor.isCancelled() && representativesFound.incrementAndGet() <= maxRepresentatives;
+            }
+
+            @Override
+            public long getRemainingSchedules() {
+                return Math.max(0, maxRepresentatives - representativesFound.get());
+            }
+
+            @Override
+            public void conflictsChecked(int count) {
+                monitor.conflictsChecked(count);
+            }
+
+            @Override
+            public void branchPruned() {
+                monitor.branchPruned();
+            }
+        };
+        delegate.buildSchedules(representatives, representativeSchedule ->
+                expand(classes, representativeSchedule, 0, new ArrayList<>(), consumer, monitor),
+                representativeMonitor);
+    }
+
+    /**
+     * Reports whether the delegate engine is exhaustive.
+     * @return true if all schedules are generated
+     */
+    @Override
+    public boolean isExhaustive() {
+        return delegate.isExhaustive();
+    }
+
+    /**
+     * Recursively expands a schedule of class representatives into all combinations of class members.
+     * @param classes members of every class of every course, keyed by the class representative
+     * @param representativeSchedule schedule of class representatives
+     * @param currentCourseIndex index of the current course being expanded
+     * @param currentSchedule current schedule represented by a list of sections
+     * @param consumer receives expanded schedules
+     * @param monitor records expanded schedules
+     * @return true if generation should continue, false if the consumer or the monitor asked to stop
+     */
+    private static boolean expand(List<Map<Section, List<Section>>> classes, List<Section> representativeSchedule,
+                                  int currentCourseIndex, List<Section> currentSchedule, ScheduleConsumer consumer,
+                                  SearchMonitor monitor) {
+        if (currentCourseIndex == representativeSchedule.size()) {
+            return monitor.scheduleFound() && consumer.accept(new ArrayList<>(currentSchedule));
+        }
+
+        Section representative = representativeSchedule.get(currentCourseIndex);
+        for (Section section : classes.get(currentCourseIndex).get(representative)) {
+            currentSchedule.add(section);
+            boolean proceed = expand(classes, representativeSchedule, currentCourseIndex + 1, currentSchedule,
+                    consumer, monitor);
+            currentSchedule.removeLast();
+            if (!proceed) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Meeting days and times of a section. Sections with equal meeting patterns conflict with exactly the same
+     * sections.
+     * @param daysOfWeek combination of Section.Day values
+     * @param fromTime start time in milliseconds
+     * @param toTime end time in milliseconds
+     */
+    private record MeetingPattern(int daysOfWeek, long fromTime, long toTime) {
+
+        /**
+         * Gets the meeting pattern of a section.
+         * @param section section
+         * @return meeting pattern
+         */
+        static MeetingPattern of(Section section) {
+            return new MeetingPattern(section.getDaysOfWeek(), section.getFromTime().getTime(),
+                    section.getToTime().getTime());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Schedule engine that treats schedule generation as a constraint satisfaction problem. At every level it places
+ * the course with the fewest sections left that are compatible with the partial schedule, and after placing a section
+ * it removes conflicting sections from the domains of all remaining courses. The branch is abandoned as soon as
+ * any remaining course runs out of sections, instead of when the search reaches that course.
+ *
+ * The engine generates the same set of schedules as the other engines, but not necessarily in the same order.
+ * Sections within each schedule are still listed in course order.
+ */
+public class ForwardCheckingScheduleEngine implements ScheduleEngine {
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer) {
+        buildSchedules(courses, consumer, SearchMonitor.NONE);
+    }
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one until the search is cancelled.
+     * Cancellation is checked before every section is tried.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     * @param monitor tells whether the search was cancelled and records found schedules
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer, SearchMonitor monitor) {
+        SectionConflictMatrix matrix = new SectionConflictMatrix(courses);
+
+        // Domains of all courses at each level are kept together as one set of allowed sections
+        BitSet[] allowed = new BitSet[courses.size() + 1];
+        allowed[0] = matrix.allSections();
+        for (int i = 1; i < allowed.length; i++) {
+            allowed[i] = new BitSet(matrix.size());
+        }
+
+        boolean[] assigned = new boolean[courses.size()];
+        if (!isEveryDomainNonEmpty(matrix, allowed[0], assigned)) return;
+
+        recursiveScheduleBuilder(matrix, 0, allowed, assigned, new Section[courses.size()], consumer, monitor);
+    }
+
+    /**
+     * Recursive backtracking algorithm with dynamic course ordering and forward checking.
+     * @param matrix compatibility matrix of all sections
+     * @param depth number of courses already placed
+     * @param allowed sets of sections compatible with the partial schedule at each level
+     * @param assigned flags of courses that are already placed
+     * @param assignment section placed for each course
+     * @param consumer receives generated schedules
+     * @param monitor tells whether the search was cancelled and records found schedules and search statistics
+     * @return true if generation should continue, false if the consumer asked to stop or the search was cancelled
+     */
+    private boolean recursiveScheduleBuilder(SectionConflictMatrix matrix, int depth, BitSet[] allowed,
+                                             boolean[] assigned, Section[] assignment, ScheduleConsumer consumer,
+                                             SearchMonitor monitor) {
+
+        // Check if we have a schedule built ...
+        if (depth == matrix.courseCount()) {
+            // ... if so, pass a copy of it to the consumer and return
+            return monitor.scheduleFound() && consumer.accept(new ArrayList<>(Arrays.asList(assignment)));
+        }
+
+        BitSet currentAllowed = allowed[depth];
+        BitSet nextAllowed = allowed[depth + 1];
+
+        // Pick the most constrained course
+        int course = -1;
+        int smallestDomain = Integer.MAX_VALUE;
+        int unassignedSections = 0;
+        for (int c = 0; c < assigned.length; c++) {
+            if (assigned[c]) continue;
+            unassignedSections += matrix.endSection(c) - matrix.firstSection(c);
+            int domainSize = domainSize(matrix, currentAllowed, c);
+            if (domainSize < smallestDomain) {
+                smallestDomain = domainSize;
+                course = c;
+            }
+        }
+
+        assigned[course] = true;
+        int end = matrix.endSection(course);
+
+        // Placing a section checks it against the sections of every other course that is not placed yet
+        int checkedSections = unassignedSections - (end - matrix.firstSection(course));
+        for (int i = currentAllowed.nextSetBit(matrix.firstSection(course));
+             i >= 0 && i < end; i = currentAllowed.nextSetBit(i + 1)) {
+            if (monitor.isCancelled()) {
+                assigned[course] = false;
+                return false;
+            }
+
+            // Prune domains of the remaining courses and skip the section if any of them becomes empty
+            nextAllowed.clear();
+            nextAllowed.or(currentAllowed);
+            nextAllowed.and(matrix.getCompatible(i));
+            monitor.conflictsChecked(checkedSections);
+            if (!isEveryDomainNonEmpty(matrix, nextAllowed, assigned)) {
+                monitor.branchPruned();
+                continue;
+            }
+
+            assignment[course] = matrix.getSection(i);
+            if (!recursiveScheduleBuilder(matrix, depth + 1, allowed, assigned, assignment, consumer, monitor)) {
+                assigned[course] = false;
+                return false;
+            }
+        }
+        assigned[course] = false;
+        return true;
+    }
+
+    /**
+     * Checks that every course that is not placed yet has at least one allowed section.
+     * @param matrix compatibility matrix of all sections
+     * @param allowed set of allowed sections
+     * @param assigned flags of courses that are already placed
+     * @return true if no domain is empty, false otherwise
+     */
+    private boolean isEveryDomainNonEmpty(SectionConflictMatrix matrix, BitSet allowed, boolean[] assigned) {
+        for (int c = 0; c < assigned.length; c++) {
+            if (assigned[c]) continue;
+            int first = allowed.nextSetBit(matrix.firstSection(c));
+            if (first < 0 || first >= matrix.endSection(c)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts allowed sections of a course.
+     * @param matrix compatibility matrix of all sections
+     * @param allowed set of allowed sections
+     * @param course course index
+     * @return number of allowed sections of the course
+     */
+    private int domainSize(SectionConflictMatrix matrix, BitSet allowed, int course) {
+        int count = 0;
+        int end = matrix.endSection(course);
+        for (int i = allowed.nextSetBit(matrix.firstSection(course));
+             i >= 0 && i < end; i = allowed.nextSetBit(i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,353 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Schedule engine for carts that are too large to enumerate. The search repeatedly starts from a random choice of
+ * sections, repairs it with min-conflicts moves until it is conflict free, and then improves it with simulated
+ * annealing over conflict free neighbours. The best distinct schedules found within the time budget are kept.
+ *
+ * The result is not exhaustive: a valid schedule may be missed, and no schedules may be found even if some exist.
+ * The search also stops at the deadline of its search limits or once it is cancelled, and then passes the best
+ * schedules found so far.
+ */
+public class HeuristicScheduleEngine implements ScheduleEngine {
+
+    /** Min-conflicts repair moves per course before giving up on a restart. */
+    private static final int REPAIR_STEPS_PER_COURSE = 20;
+
+    /** Annealing moves per course in every restart. */
+    private static final int ANNEALING_STEPS_PER_COURSE = 200;
+
+    /** Initial annealing temperature relative to the score of the first conflict free schedule. */
+    private static final double INITIAL_TEMPERATURE_RATIO = 0.05;
+
+    /** Annealing temperature at the end of a restart relative to the initial one. */
+    private static final double FINAL_TEMPERATURE_RATIO = 0.001;
+
+    /** Number of moves between two checks of the clock. */
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    /** Scoring function used to pick the best schedules. */
+    private final ScheduleScorer scorer;
+
+    /** Maximum number of schedules to return. */
+    private final int maxSchedules;
+
+    /** Wall clock time budget of a single search in milliseconds. */
+    private final long budgetMillis;
+
+    /** Source of randomness, or null to use the thread local one. */
+    private final Random random;
+
+    /**
+     * Instantiates a heuristic schedule engine that uses the thread local source of randomness.
+     * @param scorer scoring function used to pick the best schedules
+     * @param maxSchedules maximum number of schedules to return
+     * @param budgetMillis wall clock time budget of a single search in milliseconds
+     */
+    public HeuristicScheduleEngine(ScheduleScorer scorer, int maxSchedules, long budgetMillis) {
+        this(scorer, maxSchedules, budgetMillis, null);
+    }
+
+    /**
+     * Instantiates a heuristic schedule engine. An engine with its own source of randomness must not be shared
+     * between threads.
+     * @param scorer scoring function used to pick the best schedules
+     * @param maxSchedules maximum number of schedules to return
+     * @param budgetMillis wall clock time budget of a single search in milliseconds
+     * @param random source of randomness, or null to use the thread local one
+     */
+    public HeuristicScheduleEngine(ScheduleScorer scorer, int maxSchedules, long budgetMillis, Random random) {
+        if (maxSchedules < 1) throw new IllegalArgumentException("At least one schedule must be requested.");
+        if (budgetMillis < 1) throw new IllegalArgumentException("Time budget must be a positive number.");
+        this.scorer = scorer;
+        this.maxSchedules = maxSchedules;
+        this.budgetMillis = budgetMillis;
+        this.random = random;
+    }
+
+    /**
+     * Searches for the best schedules until the time budget runs out and passes them to the consumer from the best
+     * to the worst. Schedules are passed once the search is complete.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives found schedules and decides whether more should be passed
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer) {
+        buildSchedules(courses, consumer, SearchMonitor.NONE);
+    }
+
+    /**
+     * Searches for the best schedules until the time budget runs out, the deadline of the search limits passes or
+     * the search is cancelled, and passes them to the consumer from the best to the worst. Schedules are passed once
+     * the search is complete, and no more than the maximum number of schedules of the search limits. Every move is
+     * counted as an explored search node, and cancellation is checked before every move.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives found schedules and decides whether more should be passed
+     * @param monitor tells whether the search was cancelled and records search statistics
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer, SearchMonitor monitor) {
+        if (ScheduleEngine.searchSpaceSize(courses) == 0) return;
+        if (courses.isEmpty()) {
+            if (monitor.scheduleFound()) consumer.accept(new ArrayList<>());
+            return;
+        }
+
+        long budget = budgetMillis;
+        if (monitor instanceof SearchLimits limits) budget = Math.min(budget, limits.getRemainingMillis());
+        Search search = new Search(courses, random == null ? ThreadLocalRandom.current() : random, monitor);
+        search.run(System.nanoTime() + budget * 1_000_000);
+
+        // The search may have stopped because the limits were reached, which must not drop what it found
+        List<List<Section>> schedules = search.getBest();
+        if (monitor instanceof SearchLimits limits) schedules = limits.apply(schedules);
+        for (List<Section> schedule : schedules) {
+            if (!consumer.accept(schedule)) return;
+        }
+    }
+
+    /**
+     * Reports that schedules are sampled rather than enumerated.
+     * @return false
+     */
+    @Override
+    public boolean isExhaustive() {
+        return false;
+    }
+
+    /**
+     * A scored schedule.
+     * @param key section choice of every course
+     * @param sections sections of the schedule
+     * @param score schedule score
+     */
+    private record ScoredSchedule(List<Integer> key, List<Section> sections, double score) {}
+
+    /**
+     * State of a single search.
+     */
+    private class Search {
+
+        /** A list of all courses that must be represented in the schedule. */
+        private final List<List<Section>> courses;
+
+        /** Occupancy masks of every section of every course. */
+        private final long[][][] masks;
+
+        /** Source of randomness. */
+        private final Random random;
+
+        /** Tells whether the search was cancelled and records search statistics. */
+        private final SearchMonitor monitor;
+
+        /** Index of the chosen section of every course. */
+        private final int[] choice;
+
+        /** The best schedules found so far with the worst one at the head. */
+        private final PriorityQueue<ScoredSchedule> best =
+                new PriorityQueue<>(Comparator.comparingDouble(ScoredSchedule::score).reversed());
+
+        /** Section choices of the best schedules. */
+        private final Set<List<Integer>> bestKeys = new HashSet<>();
+
+        /** Search deadline as returned by System.nanoTime(). */
+        private long deadline;
+
+        /** Number of moves made since the clock was last checked. */
+        private int movesSinceClockCheck;
+
+        /** True once the deadline has passed or the search was cancelled. */
+        private boolean outOfTime;
+
+        /**
+         * Prepares a search.
+         * @param courses a list of courses where each course is represented by a list of its selected sections
+         * @param random source of randomness
+         * @param monitor tells whether the search was cancelled and records search statistics
+         */
+        Search(List<List<Section>> courses, Random random, SearchMonitor monitor) {
+            this.courses = courses;
+            this.monitor = monitor;
+            this.masks = BitmapScheduleEngine.toMasks(new OccupancyGrid(courses), courses);
+            this.random = random;
+            this.choice = new int[courses.size()];
+        }
+
+        /**
+         * Restarts the search from random section choices until the deadline.
+         * @param deadline search deadline as returned by System.nanoTime()
+         */
+        void run(long deadline) {
+            this.deadline = deadline;
+            while (!isOutOfTime()) {
+                for (int course = 0; course < choice.length; course++) {
+                    choice[course] = random.nextInt(courses.get(course).size());
+                }
+                if (repair()) {
+                    anneal();
+                }
+            }
+        }
+
+        /**
+         * Repairs the current choice with min-conflicts moves: a random conflicting course is moved to the section
+         * with the fewest conflicts.
+         * @return true if the choice is conflict free, false if the repair gave up
+         */
+        private boolean repair() {
+            int steps = REPAIR_STEPS_PER_COURSE * choice.length;
+            List<Integer> conflicting = new ArrayList<>();
+            for (int step = 0; step < steps && !isOutOfTime(); step++) {
+                conflicting.clear();
+                for (int course = 0; course < choice.length; course++) {
+                    if (conflicts(course, choice[course]) > 0) conflicting.add(course);
+                }
+                if (conflicting.isEmpty()) return true;
+
+                int course = conflicting.get(random.nextInt(conflicting.size()));
+                int fewestConflicts = Integer.MAX_VALUE;
+                int ties = 0;
+                for (int section = 0; section < masks[course].length; section++) {
+                    int sectionConflicts = conflicts(course, section);
+                    if (sectionConflicts < fewestConflicts) {
+                        fewestConflicts = sectionConflicts;
+                        choice[course] = section;
+                        ties = 1;
+                    } else if (sectionConflicts == fewestConflicts && random.nextInt(++ties) == 0) {
+                        // Reservoir sampling picks each of the tied sections with equal probability
+                        choice[course] = section;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Improves a conflict free choice with simulated annealing. Moves that introduce a conflict are rejected,
+         * so every accepted choice is a valid schedule.
+         */
+        private void anneal() {
+            double score = record();
+            int steps = ANNEALING_STEPS_PER_COURSE * choice.length;
+            double temperature = Math.max(1, score * INITIAL_TEMPERATURE_RATIO);
+            double cooling = Math.pow(FINAL_TEMPERATURE_RATIO, 1.0 / steps);
+
+            for (int step = 0; step < steps && !isOutOfTime(); step++, temperature *= cooling) {
+                int course = random.nextInt(choice.length);
+                int sectionCount = masks[course].length;
+                if (sectionCount < 2) continue;
+
+                // Pick a different section of the course
+                int previous = choice[course];
+                int section = random.nextInt(sectionCount - 1);
+                if (section >= previous) section++;
+                if (conflicts(course, section) > 0) {
+                    monitor.branchPruned();
+                    continue;
+                }
+
+                choice[course] = section;
+                double candidateScore = scorer.score(toSchedule());
+                double delta = candidateScore - score;
+                if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    score = record(candidateScore);
+                } else {
+                    choice[course] = previous;
+                }
+            }
+        }
+
+        /**
+         * Counts the courses whose chosen section conflicts with a section of a course.
+         * @param course course index
+         * @param section section index within the course
+         * @return number of conflicting courses
+         */
+        private int conflicts(int course, int section) {
+            long[] mask = masks[course][section];
+            monitor.conflictsChecked(choice.length - 1);
+            int count = 0;
+            for (int other = 0; other < choice.length; other++) {
+                if (other != course && OccupancyGrid.overlaps(mask, masks[other][choice[other]])) count++;
+            }
+            return count;
+        }
+
+        /**
+         * Scores the current conflict free choice and keeps it if it is one of the best.
+         * @return score of the current choice
+         */
+        private double record() {
+            return record(scorer.score(toSchedule()));
+        }
+
+        /**
+         * Keeps the current conflict free choice if it is one of the best.
+         * @param score score of the current choice
+         * @return score of the current choice
+         */
+        private double record(double score) {
+            if (best.size() == maxSchedules && score >= best.peek().score()) return score;
+
+            List<Integer> key = Arrays.stream(choice).boxed().toList();
+            if (!bestKeys.add(key)) return score;
+
+            best.add(new ScoredSchedule(key, toSchedule(), score));
+            if (best.size() > maxSchedules) {
+                bestKeys.remove(best.poll().key());
+            }
+            return score;
+        }
+
+        /**
+         * Gets the sections of the current choice.
+         * @return a list of sections in course order
+         */
+        private List<Section> toSchedule() {
+            List<Section> schedule = new ArrayList<>(choice.length);
+            for (int course = 0; course < choice.length; course++) {
+                schedule.add(courses.get(course).get(choice[course]));
+            }
+            return schedule;
+        }
+
+        /**
+         * Checks for cancellation before every move, and the clock every few moves.
+         * @return true if the search was cancelled or the deadline has passed
+         */
+        private boolean isOutOfTime() {
+            if (!outOfTime && monitor.isCancelled()) outOfTime = true;
+            if (!outOfTime && ++movesSinceClockCheck >= CLOCK_CHECK_INTERVAL) {
+                movesSinceClockCheck = 0;
+                outOfTime = System.nanoTime() - deadline >= 0;
+            }
+            return outOfTime;
+        }
+
+        /**
+         * Gets the best schedules found.
+         * @return schedules ordered from the best to the worst
+         */
+        List<List<Section>> getBest() {
+            List<ScoredSchedule> ranked = new ArrayList<>(best);
+            ranked.sort(Comparator.comparingDouble(ScoredSchedule::score));
+            List<List<Section>> schedules = new ArrayList<>();
+            for (ScoredSchedule schedule : ranked) {
+                schedules.add(schedule.sections());
+            }
+            return schedules;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Updates the complete list of schedules of a cart after the selected sections of a single course have changed,
+ * instead of generating every schedule again. Schedules that use a section which is not selected anymore are
+ * filtered out, and the engine only searches the branches of newly selected sections, with every other course
+ * unchanged. The result is sorted in cart order, by the position of every section within its course, so that its
+ * order does not depend on the engine. It is not necessarily the order of a fresh search, as some engines, such as
+ * the equivalent section and forward checking engines, generate schedules in an order of their own.
+ */
+public class IncrementalScheduleUpdate {
+
+    /** Engine that searches the branches of newly selected sections. Must be exhaustive. */
+    private final ScheduleEngine engine;
+
+    /**
+     * Instantiates an incremental schedule update.
+     * @param engine exhaustive engine that searches the branches of newly selected sections
+     * @throws IllegalArgumentException if the engine is not exhaustive
+     */
+    public IncrementalScheduleUpdate(ScheduleEngine engine) {
+        if (!engine.isExhaustive()) throw new IllegalArgumentException("Engine must be exhaustive.");
+        this.engine = engine;
+    }
+
+    /**
+     * Finds the only course whose selected sections differ between two carts.
+     * @param previousSectionIds IDs of the selected sections of every course of the previous cart
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return index of the changed course, or -1 if the carts have different courses or more than one changed
+     */
+    public static int changedCourse(List<List<Long>> previousSectionIds, List<List<Section>> courses) {
+        if (previousSectionIds.size() != courses.size()) return -1;
+
+        int changedCourse = -1;
+        for (int i = 0; i < courses.size(); i++) {
+            if (previousSectionIds.get(i).equals(courses.get(i).stream().map(Section::getId).toList())) continue;
+            if (changedCourse >= 0) return -1;
+            changedCourse = i;
+        }
+        return changedCourse;
+    }
+
+    /**
+     * Updates the schedules of a cart in which the selected sections of a single course have changed.
+     * @param previousSectionIds IDs of the selected sections of every course of the previous cart
+     * @param previousSchedules every schedule of the previous cart, with sections in course order
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param monitor monitor of the search over newly selected sections
+     * @return every schedule of the cart, or null if more than one course has changed or none has
+     */
+    public List<List<Section>> update(List<List<Long>> previousSectionIds, List<List<Section>> previousSchedules,
+                                      List<List<Section>> courses, SearchMonitor monitor) {
+        int changedCourse = changedCourse(previousSectionIds, courses);
+        if (changedCourse < 0) return null;
+
+        // Position of every selected section within its course, also used to swap in current section entities
+        List<Map<Long, Integer>> positions = new ArrayList<>(courses.size());
+        for (List<Section> sections : courses) {
+            Map<Long, Integer> coursePositions = new HashMap<>();
+            for (int i = 0; i < sections.size(); i++) {
+                coursePositions.put(sections.get(i).getId(), i);
+            }
+            positions.add(coursePositions);
+        }
+
+        // Keep previous schedules whose section of the changed course is still selected
+        List<PositionedSchedule> schedules = new ArrayList<>();
+        Map<Long, Integer> changedPositions = positions.get(changedCourse);
+        for (List<Section> schedule : previousSchedules) {
+            if (!changedPositions.containsKey(schedule.get(changedCourse).getId())) continue;
+            schedules.add(PositionedSchedule.of(schedule, courses, positions));
+        }
+
+        // Search only the branches of newly selected sections
+        Set<Long> previousIds = new HashSet<>(previousSectionIds.get(changedCourse));
+        List<Section> addedSections = courses.get(changedCourse).stream().
+                filter(section -> !previousIds.contains(section.getId())).toList();
+        if (!addedSections.isEmpty()) {
+            List<List<Section>> addedBranches = new ArrayList<>(courses);
+            addedBranches.set(changedCourse, addedSections);
+            engine.buildSchedules(addedBranches,
+                    schedule -> schedules.add(PositionedSchedule.of(schedule, courses, positions)), monitor);
+        }
+
+        schedules.sort((first, second) -> Arrays.compare(first.positions(), second.positions()));
+        List<List<Section>> updatedSchedules = new ArrayList<>(schedules.size());
+        for (PositionedSchedule schedule : schedules) {
+            updatedSchedules.add(schedule.sections());
+        }
+        return updatedSchedules;
+    }
+
+    /**
+     * Schedule together with the position of each of its sections within the course.
+     * @param sections current section entities of the schedule in course order
+     * @param positions position of every section within its course
+     */
+    private record PositionedSchedule(List<Section> sections, int[] positions) {
+
+        /**
+         * Finds the positions of the sections of a schedule and swaps in the current section entities.
+         * @param schedule sections of the schedule in course order
+         * @param courses a list of courses where each course is represented by a list of its selected sections
+         * @param positions position of every selected section within its course, keyed by section ID
+         * @return positioned schedule
+         */
+        static PositionedSchedule of(List<Section> schedule, List<List<Section>> courses,
+                                     List<Map<Long, Integer>> positions) {
+            List<Section> sections = new ArrayList<>(schedule.size());
+            int[] sectionPositions = new int[schedule.size()];
+            for (int i = 0; i < schedule.size(); i++) {
+                sectionPositions[i] = positions.get(i).get(schedule.get(i).getId());
+                sections.add(courses.get(i).get(sectionPositions[i]));
+            }
+            return new PositionedSchedule(sections, sectionPositions);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Explains why a cart yields no schedules by finding a minimal set of conflicting courses: the courses of the set
+ * cannot all be scheduled together, but every proper subset of it can. Removing any course of the set from the cart
+ * resolves that conflict.
+ *
+ * Pairs of courses whose sections all conflict with each other are found first from the pairwise conflict structure.
+ * Otherwise courses are removed one by one, and a removal is kept whenever the remaining courses still yield no
+ * schedule. Every check is a forward checking search that stops at the first schedule it finds.
+ */
+public class MinimalConflictSearch {
+
+    /** Search found a schedule. */
+    private static final int FOUND = 1;
+
+    /** Search proved there is no schedule. */
+    private static final int NOT_FOUND = 0;
+
+    /** Search was cancelled before it could tell. */
+    private static final int CANCELLED = -1;
+
+    /**
+     * Finds a minimal set of conflicting courses until the search is cancelled. A cancelled search returns a set of
+     * courses that yields no schedule but may not be minimal.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param monitor tells whether the search was cancelled
+     * @return conflicting courses, none if the cart yields a schedule
+     */
+    public Result find(List<List<Section>> courses, SearchMonitor monitor) {
+        SectionConflictMatrix matrix = new SectionConflictMatrix(courses);
+        int courseCount = matrix.courseCount();
+
+        // Courses without sections cannot be scheduled at all
+        for (int c = 0; c < courseCount; c++) {
+            if (matrix.firstSection(c) == matrix.endSection(c)) return new Result(List.of(c), true);
+        }
+
+        // Two courses are enough if none of their sections can be taken together
+        for (int first = 0; first < courseCount; first++) {
+            for (int second = first + 1; second < courseCount; second++) {
+                if (!areCompatible(matrix, first, second)) return new Result(List.of(first, second), true);
+            }
+        }
+
+        boolean[] excluded = new boolean[courseCount];
+        int result = search(matrix, excluded, monitor);
+        if (result == FOUND) return new Result(List.of(), true);
+        if (result == CANCELLED) return new Result(included(excluded), false);
+
+        // Remove every course that is not needed for the conflict
+        boolean minimal = true;
+        for (int c = 0; c < courseCount; c++) {
+            excluded[c] = true;
+            result = search(matrix, excluded, monitor);
+            if (result != NOT_FOUND) {
+                // The course is part of the conflict, or it could not be checked in time
+                excluded[c] = false;
+                minimal &= result == FOUND;
+            }
+        }
+        return new Result(included(excluded), minimal);
+    }
+
+    /**
+     * Checks whether at least one section of the first course can be taken together with a section of the second.
+     * @param matrix compatibility matrix of all sections
+     * @param first index of the first course
+     * @param second index of the second course
+     * @return true if the courses can be scheduled together, false otherwise
+     */
+    private static boolean areCompatible(SectionConflictMatrix matrix, int first, int second) {
+        int secondStart = matrix.firstSection(second);
+        int secondEnd = matrix.endSection(second);
+        for (int i = matrix.firstSection(first); i < matrix.endSection(first); i++) {
+            int compatible = matrix.getCompatible(i).nextSetBit(secondStart);
+            if (compatible >= 0 && compatible < secondEnd) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Searches for a single schedule of all courses that are not excluded.
+     * @param matrix compatibility matrix of all sections
+     * @param excluded flags of courses left out of the search
+     * @param monitor tells whether the search was cancelled
+     * @return FOUND, NOT_FOUND or CANCELLED
+     */
+    private static int search(SectionConflictMatrix matrix, boolean[] excluded, SearchMonitor monitor) {
+        BitSet allowed = new BitSet(matrix.size());
+        int remaining = 0;
+        for (int c = 0; c < excluded.length; c++) {
+            if (excluded[c]) continue;
+            allowed.set(matrix.firstSection(c), matrix.endSection(c));
+            remaining++;
+        }
+
+        // Excluded courses are treated as already placed
+        return search(matrix, allowed, excluded.clone(), remaining, monitor);
+    }
+
+    /**
+     * Recursive forward checking search that stops at the first schedule.
+     * @param matrix compatibility matrix of all sections
+     * @param allowed set of sections compatible with the partial schedule
+     * @param assigned flags of courses that are already placed or excluded
+     * @param remaining number of courses left to place
+     * @param monitor tells whether the search was cancelled
+     * @return FOUND, NOT_FOUND or CANCELLED
+     */
+    private static int search(SectionConflictMatrix matrix, BitSet allowed, boolean[] assigned, int remaining,
+                              SearchMonitor monitor) {
+        if (remaining == 0) return FOUND;
+        if (monitor.isCancelled()) return CANCELLED;
+
+        // Pick the most constrained course, a course without allowed sections ends the branch
+        int course = -1;
+        int smallestDomain = Integer.MAX_VALUE;
+        for (int c = 0; c < assigned.length; c++) {
+            if (assigned[c]) continue;
+            int domainSize = allowed.get(matrix.firstSection(c), matrix.endSection(c)).cardinality();
+            if (domainSize == 0) return NOT_FOUND;
+            if (domainSize < smallestDomain) {
+                smallestDomain = domainSize;
+                course = c;
+            }
+        }
+
+        assigned[course] = true;
+        int end = matrix.endSection(course);
+        for (int i = allowed.nextSetBit(matrix.firstSection(course));
+             i >= 0 && i < end; i = allowed.nextSetBit(i + 1)) {
+            BitSet nextAllowed = (BitSet) allowed.clone();
+            nextAllowed.and(matrix.getCompatible(i));
+            int result = search(matrix, nextAllowed, assigned, remaining - 1, monitor);
+            if (result != NOT_FOUND) {
+                assigned[course] = false;
+                return result;
+            }
+        }
+        assigned[course] = false;
+        return NOT_FOUND;
+    }
+
+    /**
+     * Collects indices of courses that are not excluded.
+     * @param excluded flags of excluded courses
+     * @return indices of included courses in increasing order
+     */
+    private static List<Integer> included(boolean[] excluded) {
+        List<Integer> courses = new ArrayList<>();
+        for (int c = 0; c < excluded.length; c++) {
+            if (!excluded[c]) courses.add(c);
+        }
+        return courses;
+    }
+
+    /**
+     * Conflicting courses of a cart.
+     * @param courses indices of the conflicting courses in increasing order, empty if the cart yields a schedule
+     * @param minimal false if the search was cancelled and some of the courses may not be part of the conflict
+     */
+    public record Result(List<Integer> courses, boolean minimal) {}
+}
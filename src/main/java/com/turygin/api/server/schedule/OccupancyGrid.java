@@ -0,0 +1,126 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Weekly time grid that encodes section meeting times as occupancy bitmaps.
+ *
+ * The time axis of each day is compressed to the distinct start times of the sections the grid was built from.
+ * A section occupies every start time that falls within its meeting period (inclusive) on each of its meeting days.
+ * Two sections overlap if and only if the later of their start times is occupied by both, so two occupancy masks
+ * share a bit exactly when {@link Section#isConflicting(Section)} reports a conflict.
+ */
+public class OccupancyGrid {
+
+    /** Number of days a section can meet on. */
+    private static final int DAY_COUNT = Section.Day.values().length;
+
+    /** Distinct section start times in ascending order (milliseconds, as compared by java.sql.Time). */
+    private final long[] startTimes;
+
+    /** Number of long words in a single occupancy mask. */
+    private final int wordCount;
+
+    /**
+     * Builds a grid from all sections of all courses.
+     * @param courses a list of courses where each course is represented by a list of its sections
+     */
+    public OccupancyGrid(List<List<Section>> courses) {
+        TreeSet<Long> distinctStartTimes = new TreeSet<>();
+        for (List<Section> sections : courses) {
+            for (Section section : sections) {
+                distinctStartTimes.add(section.getFromTime().getTime());
+            }
+        }
+
+        startTimes = new long[distinctStartTimes.size()];
+        int i = 0;
+        for (long startTime : distinctStartTimes) {
+            startTimes[i++] = startTime;
+        }
+
+        wordCount = Math.max(1, (DAY_COUNT * startTimes.length + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Creates an empty occupancy mask.
+     * @return occupancy mask with no time slots occupied
+     */
+    public long[] emptyMask() {
+        return new long[wordCount];
+    }
+
+    /**
+     * Encodes section meeting days and times as an occupancy mask. The section's start time must be one of
+     * the start times the grid was built from.
+     * @param section section to encode
+     * @return occupancy mask of the section
+     */
+    public long[] toMask(Section section) {
+        long[] mask = emptyMask();
+        long fromTime = section.getFromTime().getTime();
+        long toTime = section.getToTime().getTime();
+
+        // Find the range of start times that fall within the section meeting period
+        int firstSlot = Arrays.binarySearch(startTimes, fromTime);
+        if (firstSlot < 0) {
+            throw new IllegalArgumentException("Section start time is not part of the occupancy grid.");
+        }
+        int lastSlot = firstSlot - 1;
+        while (lastSlot + 1 < startTimes.length && startTimes[lastSlot + 1] <= toTime) {
+            lastSlot++;
+        }
+
+        // Occupy the range on each of the meeting days
+        Section.Day[] days = Section.Day.values();
+        for (int day = 0; day < days.length; day++) {
+            if ((section.getDaysOfWeek() & days[day].value) == 0) continue;
+            for (int slot = firstSlot; slot <= lastSlot; slot++) {
+                int bit = day * startTimes.length + slot;
+                mask[bit / Long.SIZE] |= 1L << (bit % Long.SIZE);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks whether two occupancy masks have at least one time slot in common.
+     * @param first first occupancy mask
+     * @param second second occupancy mask
+     * @return true if masks overlap, false otherwise
+     */
+    public static boolean overlaps(long[] first, long[] second) {
+        for (int i = 0; i < first.length; i++) {
+            if ((first[i] & second[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks all time slots of a mask as occupied.
+     * @param occupancy occupancy mask to update
+     * @param mask time slots to occupy
+     */
+    public static void occupy(long[] occupancy, long[] mask) {
+        for (int i = 0; i < occupancy.length; i++) {
+            occupancy[i] |= mask[i];
+        }
+    }
+
+    /**
+     * Marks all time slots of a mask as free.
+     * @param occupancy occupancy mask to update
+     * @param mask time slots to free
+     */
+    public static void release(long[] occupancy, long[] mask) {
+        for (int i = 0; i < occupancy.length; i++) {
+            occupancy[i] &= ~mask[i];
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Schedule engine that splits the search tree at the first one or two courses and explores the resulting
+ * subtrees on a fork/join pool. Subtree results are merged in the order the serial search would have produced them.
+ * Small carts are generated on the calling thread.
+ *
+ * Subtrees are searched concurrently, so a cancelled search may have found schedules in later subtrees while an
+ * earlier one was still being explored. Every schedule found is kept, so a search stopped at the maximum number of
+ * schedules returns that many, but a truncated result is not necessarily a prefix of the complete one in search
+ * order. Found schedules are reported to the monitor as they are collected, so no subtree buffers more schedules
+ * than the monitor allows.
+ */
+public class ParallelScheduleEngine implements ScheduleEngine {
+
+    /** Maximum number of courses the search tree is split at. */
+    private static final int MAX_SPLIT_DEPTH = 2;
+
+    /** Pool that runs subtree searches. Usually shared by all requests. */
+    private final ForkJoinPool pool;
+
+    /** Maximum number of subtree tasks a single request is split into. */
+    private final int maxTasks;
+
+    /** Carts with fewer section combinations than this are generated serially. */
+    private final long serialThreshold;
+
+    /** Engine used for small carts. */
+    private final ScheduleEngine serialEngine = new BitmapScheduleEngine();
+
+    /**
+     * Instantiates a parallel schedule engine.
+     * @param pool fork/join pool that runs subtree searches
+     * @param maxTasks maximum number of pool threads a single request may occupy
+     * @param serialThreshold carts with fewer section combinations than this are generated serially
+     */
+    public ParallelScheduleEngine(ForkJoinPool pool, int maxTasks, long serialThreshold) {
+        if (maxTasks < 1) throw new IllegalArgumentException("At least one task per request must be allowed.");
+        this.pool = pool;
+        this.maxTasks = maxTasks;
+        this.serialThreshold = serialThreshold;
+    }
+
+    /**
+     * Generates all possible schedules and passes them to the consumer in search order. Schedules are passed
+     * once the whole search is complete, so use a serial engine when schedules must be consumed as they are found.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer) {
+        buildSchedules(courses, consumer, SearchMonitor.NONE);
+    }
+
+    /**
+     * Generates all possible schedules until the search is cancelled and passes them to the consumer in search
+     * order. Every subtree search checks for cancellation, and the schedules found by every subtree before it was
+     * cancelled are still passed.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     * @param monitor tells whether the search was cancelled and records found schedules
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer, SearchMonitor monitor) {
+        for (List<Section> schedule : buildSchedules(courses, monitor)) {
+            if (!consumer.accept(schedule)) return;
+        }
+    }
+
+    /**
+     * Generates a list of all possible schedules.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return a list of schedules (list of section lists)
+     */
+    @Override
+    public List<List<Section>> buildSchedules(List<List<Section>> courses) {
+        return buildSchedules(courses, SearchMonitor.NONE);
+    }
+
+    /**
+     * Generates a list of all possible schedules, or the ones found before the search was cancelled.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param monitor tells whether the search was cancelled and records found schedules
+     * @return a list of schedules (list of section lists)
+     */
+    private List<List<Section>> buildSchedules(List<List<Section>> courses, SearchMonitor monitor) {
+        if (maxTasks == 1 || courses.size() < 2 || ScheduleEngine.searchSpaceSize(courses) < serialThreshold) {
+            List<List<Section>> schedules = new ArrayList<>();
+            serialEngine.buildSchedules(courses, schedules::add, monitor);
+            return schedules;
+        }
+
+        OccupancyGrid grid = new OccupancyGrid(courses);
+        long[][][] masks = BitmapScheduleEngine.toMasks(grid, courses);
+
+        // Split at the second course only if the first one does not provide enough subtrees
+        int splitDepth = courses.getFirst().size() >= maxTasks ? 1 : Math.min(MAX_SPLIT_DEPTH, courses.size() - 1);
+        List<Subtree> subtrees = new ArrayList<>();
+        collectSubtrees(courses, masks, splitDepth, 0, grid.emptyMask(), new ArrayList<>(), subtrees);
+
+        // Every split doubles the number of leaf tasks, so stop splitting before exceeding the per request cap
+        int maxSplits = 31 - Integer.numberOfLeadingZeros(maxTasks);
+        return pool.invoke(new SubtreeRangeTask(courses, masks, subtrees, 0, subtrees.size(), maxSplits, monitor));
+    }
+
+    /**
+     * Recursively collects all conflict free partial schedules of the first few courses in search order.
+     * @param courses a list of all courses that must be represented in the schedule
+     * @param masks occupancy masks of every section of every course
+     * @param splitDepth number of courses in each partial schedule
+     * @param currentCourseIndex index of the current course being processed
+     * @param occupancy combined occupancy mask of the current partial schedule
+     * @param currentSchedule current partial schedule represented by a list of sections
+     * @param subtrees a list of collected partial schedules
+     */
+    private void collectSubtrees(List<List<Section>> courses, long[][][] masks, int splitDepth,
+                                 int currentCourseIndex, long[] occupancy, List<Section> currentSchedule,
+                                 List<Subtree> subtrees) {
+        if (currentCourseIndex == splitDepth) {
+            subtrees.add(new Subtree(new ArrayList<>(currentSchedule), occupancy.clone()));
+            return;
+        }
+
+        List<Section> sections = courses.get(currentCourseIndex);
+        long[][] sectionMasks = masks[currentCourseIndex];
+        for (int i = 0; i < sections.size(); i++) {
+            if (OccupancyGrid.overlaps(occupancy, sectionMasks[i])) continue;
+
+            OccupancyGrid.occupy(occupancy, sectionMasks[i]);
+            currentSchedule.add(sections.get(i));
+            collectSubtrees(courses, masks, splitDepth, currentCourseIndex + 1, occupancy, currentSchedule, subtrees);
+            currentSchedule.removeLast();
+            OccupancyGrid.release(occupancy, sectionMasks[i]);
+        }
+    }
+
+    /**
+     * Root of a search subtree: a conflict free partial schedule of the first few courses.
+     * @param sections sections of the partial schedule
+     * @param occupancy combined occupancy mask of the partial schedule
+     */
+    private record Subtree(List<Section> sections, long[] occupancy) {}
+
+    /**
+     * Task that explores a contiguous range of subtrees. The range is halved until the split budget is used up,
+     * and the results of both halves are concatenated in order. Schedules of the right half are kept even if the
+     * left half is incomplete.
+     */
+    private static class SubtreeRangeTask extends RecursiveTask<List<List<Section>>> {
+
+        /** A list of all courses that must be represented in the schedule. */
+        private final List<List<Section>> courses;
+
+        /** Occupancy masks of every section of every course. */
+        private final long[][][] masks;
+
+        /** All subtrees of the search. */
+        private final List<Subtree> subtrees;
+
+        /** First subtree of the range (inclusive). */
+        private final int from;
+
+        /** Last subtree of the range (exclusive). */
+        private final int to;
+
+        /** Number of times the range may still be split. */
+        private final int splitsLeft;
+
+        /** Tells whether the search was cancelled. */
+        private final SearchMonitor monitor;
+
+        /**
+         * Instantiates a subtree range task.
+         * @param courses a list of all courses that must be represented in the schedule
+         * @param masks occupancy masks of every section of every course
+         * @param subtrees all subtrees of the search
+         * @param from first subtree of the range (inclusive)
+         * @param to last subtree of the range (exclusive)
+         * @param splitsLeft number of times the range may still be split
+         * @param monitor tells whether the search was cancelled
+         */
+        SubtreeRangeTask(List<List<Section>> courses, long[][][] masks, List<Subtree> subtrees,
+                         int from, int to, int splitsLeft, SearchMonitor monitor) {
+            this.courses = courses;
+            this.masks = masks;
+            this.subtrees = subtrees;
+            this.from = from;
+            this.to = to;
+            this.splitsLeft = splitsLeft;
+            this.monitor = monitor;
+        }
+
+        /**
+         * Explores the range of subtrees.
+         * @return schedules found in the subtrees of the range in search order
+         */
+        @Override
+        protected List<List<Section>> compute() {
+            if (splitsLeft == 0 || to - from < 2) {
+                List<List<Section>> schedules = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    Subtree subtree = subtrees.get(i);
+                    if (!BitmapScheduleEngine.recursiveScheduleBuilder(courses, masks, subtree.sections().size(),
+                            subtree.occupancy(), new ArrayList<>(subtree.sections()), schedules::add, monitor)) {
+                        break;
+                    }
+                }
+                return schedules;
+            }
+
+            int middle = (from + to) >>> 1;
+            SubtreeRangeTask left =
+                    new SubtreeRangeTask(courses, masks, subtrees, from, middle, splitsLeft - 1, monitor);
+            SubtreeRangeTask right =
+                    new SubtreeRangeTask(courses, masks, subtrees, middle, to, splitsLeft - 1, monitor);
+            left.fork();
+            List<List<Section>> rightSchedules = right.compute();
+            List<List<Section>> schedules = left.join();
+            schedules.addAll(rightSchedules);
+            return schedules;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Branch-and-bound search for the best scoring schedules. The best schedules found so far are kept in a bounded
+ * priority queue, and a branch is pruned as soon as the lower bound of its partial schedule cannot beat the worst of
+ * them. The search is stateful, so a new instance should be created for every search.
+ *
+ * How much is pruned depends on how tight the bound of the ranking is, and a ranking may still score most schedules
+ * of a cart, so the search can be cancelled through a search monitor. A cancelled search returns the best of the
+ * schedules scored so far.
+ */
+public class RankedScheduleSearch {
+
+    /** Orders schedules from the best to the worst, breaking ties by the order they were found in. */
+    private static final Comparator<RankedSchedule> BEST_FIRST =
+            Comparator.comparingDouble(RankedSchedule::score).thenComparingLong(RankedSchedule::order);
+
+    /** Scoring function. */
+    private final ScheduleScorer scorer;
+
+    /** Maximum number of schedules to find. */
+    private final int top;
+
+    /** The best schedules found so far with the worst one at the head. */
+    private final PriorityQueue<RankedSchedule> best = new PriorityQueue<>(BEST_FIRST.reversed());
+
+    /** Number of complete schedules scored so far. */
+    private long scheduleCount;
+
+    /**
+     * Instantiates a ranked search.
+     * @param scorer scoring function
+     * @param top maximum number of schedules to find
+     */
+    public RankedScheduleSearch(ScheduleScorer scorer, int top) {
+        if (top < 1) throw new IllegalArgumentException("At least one schedule must be requested.");
+        this.scorer = scorer;
+        this.top = top;
+    }
+
+    /**
+     * Finds the best scoring schedules.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return up to top schedules ordered from the best to the worst
+     */
+    public List<List<Section>> findBest(List<List<Section>> courses) {
+        return findBest(courses, SearchMonitor.NONE);
+    }
+
+    /**
+     * Finds the best scoring schedules until the search is cancelled. Cancellation is checked before every section
+     * is tried.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param monitor tells whether the search was cancelled and records search statistics
+     * @return up to top schedules ordered from the best to the worst
+     */
+    public List<List<Section>> findBest(List<List<Section>> courses, SearchMonitor monitor) {
+        best.clear();
+        scheduleCount = 0;
+
+        OccupancyGrid grid = new OccupancyGrid(courses);
+        long[][][] masks = BitmapScheduleEngine.toMasks(grid, courses);
+        recursiveScheduleBuilder(courses, masks, 0, grid.emptyMask(), new ArrayList<>(), monitor);
+
+        List<RankedSchedule> ranked = new ArrayList<>(best);
+        ranked.sort(BEST_FIRST);
+        List<List<Section>> schedules = new ArrayList<>();
+        for (RankedSchedule schedule : ranked) {
+            schedules.add(schedule.sections());
+        }
+        return schedules;
+    }
+
+    /**
+     * Recursive branch-and-bound search.
+     * @param courses a list of all courses that must be represented in the schedule
+     * @param masks occupancy masks of every section of every course
+     * @param currentCourseIndex index of the current course being processed
+     * @param occupancy combined occupancy mask of the current schedule
+     * @param currentSchedule current schedule represented by a list of sections
+     * @param monitor tells whether the search was cancelled and records search statistics
+     * @return true if the search should continue, false if it was cancelled
+     */
+    private boolean recursiveScheduleBuilder(List<List<Section>> courses, long[][][] masks, int currentCourseIndex,
+                                             long[] occupancy, List<Section> currentSchedule, SearchMonitor monitor) {
+
+        // Prune the branch if none of its schedules can make it into the best ones
+        if (best.size() == top && scorer.lowerBound(currentSchedule,
+                courses.subList(currentCourseIndex, courses.size())) >= best.peek().score()) {
+            return true;
+        }
+
+        // Check if we have a schedule built ...
+        if (currentCourseIndex == courses.size()) {
+            // ... if so, keep it if it is better than the worst of the best ones
+            double score = scorer.score(currentSchedule);
+            if (best.size() < top) {
+                best.add(new RankedSchedule(new ArrayList<>(currentSchedule), score, scheduleCount));
+            } else if (score < best.peek().score()) {
+                best.poll();
+                best.add(new RankedSchedule(new ArrayList<>(currentSchedule), score, scheduleCount));
+            }
+            scheduleCount++;
+            return true;
+        }
+
+        List<Section> sections = courses.get(currentCourseIndex);
+        long[][] sectionMasks = masks[currentCourseIndex];
+        for (int i = 0; i < sections.size(); i++) {
+            if (monitor.isCancelled()) return false;
+
+            // Skip the section if any of its time slots are already occupied
+            monitor.conflictsChecked(1);
+            if (OccupancyGrid.overlaps(occupancy, sectionMasks[i])) {
+                monitor.branchPruned();
+                continue;
+            }
+
+            OccupancyGrid.occupy(occupancy, sectionMasks[i]);
+            currentSchedule.add(sections.get(i));
+            boolean proceed = recursiveScheduleBuilder(courses, masks, currentCourseIndex + 1, occupancy,
+                    currentSchedule, monitor);
+            currentSchedule.removeLast();
+            OccupancyGrid.release(occupancy, sectionMasks[i]);
+            if (!proceed) return false;
+        }
+        return true;
+    }
+
+    /**
+     * A scored schedule.
+     * @param sections sections of the schedule
+     * @param score schedule score
+     * @param order sequence number of the schedule in search order
+     */
+    private record RankedSchedule(List<Section> sections, double score, long order) {}
+}
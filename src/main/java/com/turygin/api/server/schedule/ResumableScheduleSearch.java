@@ -0,0 +1,174 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Depth-first schedule search that produces schedules one at a time and can be resumed from the position of
+ * a previously produced schedule. The position is the per-course section indices of the schedule, and schedules are
+ * produced in the same order as by the schedule engines.
+ *
+ * Finding the next schedule can be cancelled through a search monitor. The next call then continues where the
+ * cancelled one stopped, and the position still refers to the most recently produced schedule.
+ */
+public class ResumableScheduleSearch {
+
+    /** A list of courses where each course is represented by a list of its selected sections. */
+    private final List<List<Section>> courses;
+
+    /** Occupancy masks of every section of every course. */
+    private final long[][][] masks;
+
+    /** Combined occupancy mask of the sections chosen on the search stack. */
+    private final long[] occupancy;
+
+    /** Index of the section chosen for each course on the search stack. */
+    private final int[] choices;
+
+    /** Per-course section indices of the most recently produced or skipped schedule. */
+    private int[] lastPosition;
+
+    /** Has the search produced or skipped past a schedule yet? */
+    private boolean started;
+
+    /** Has the search run out of schedules? */
+    private boolean exhausted;
+
+    /** Was the search cancelled before it found the next schedule? */
+    private boolean interrupted;
+
+    /** Index of the course whose section is tried next. */
+    private int depth;
+
+    /**
+     * Instantiates a search positioned before the first schedule.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     */
+    public ResumableScheduleSearch(List<List<Section>> courses) {
+        this.courses = courses;
+        OccupancyGrid grid = new OccupancyGrid(courses);
+        this.masks = BitmapScheduleEngine.toMasks(grid, courses);
+        this.occupancy = grid.emptyMask();
+        this.choices = new int[courses.size()];
+        this.lastPosition = new int[courses.size()];
+    }
+
+    /**
+     * Positions the search right after the schedule with the given per-course section indices.
+     * Must be called before the first schedule is produced.
+     * @param position per-course section indices of a conflict free schedule
+     */
+    public void skipPast(int[] position) {
+        if (started) throw new IllegalStateException("The search has already started.");
+        if (position.length != courses.size()) {
+            throw new IllegalArgumentException("Position does not match the number of courses.");
+        }
+
+        // Rebuild the search stack along the position
+        for (int i = 0; i < position.length; i++) {
+            if (position[i] < 0 || position[i] >= masks[i].length) {
+                throw new IllegalArgumentException("Position refers to a section that does not exist.");
+            }
+            if (OccupancyGrid.overlaps(occupancy, masks[i][position[i]])) {
+                throw new IllegalArgumentException("Position refers to a conflicting schedule.");
+            }
+            choices[i] = position[i];
+            OccupancyGrid.occupy(occupancy, masks[i][position[i]]);
+        }
+        lastPosition = position.clone();
+        started = true;
+    }
+
+    /**
+     * Produces the next schedule.
+     * @return a list of sections, one per course, or null if there are no more schedules
+     */
+    public List<Section> next() {
+        return next(SearchMonitor.NONE);
+    }
+
+    /**
+     * Produces the next schedule unless the search is cancelled first. Cancellation is checked before every
+     * section is tried.
+     * @param monitor tells whether the search was cancelled
+     * @return a list of sections, one per course, or null if there are no more schedules or the search was cancelled
+     */
+    public List<Section> next(SearchMonitor monitor) {
+        if (exhausted) return null;
+
+        if (interrupted) {
+            interrupted = false;
+        } else if (!started) {
+            started = true;
+            // A cart without courses has exactly one, empty, schedule
+            if (courses.isEmpty()) return new ArrayList<>();
+            depth = 0;
+            choices[depth] = 0;
+        } else {
+            if (courses.isEmpty()) {
+                exhausted = true;
+                return null;
+            }
+            // Remove the last section of the previous schedule and try the next one
+            depth = courses.size() - 1;
+            OccupancyGrid.release(occupancy, masks[depth][choices[depth]]);
+            choices[depth]++;
+        }
+
+        while (true) {
+            if (monitor.isCancelled()) {
+                interrupted = true;
+                return null;
+            }
+
+            // Backtrack if all sections of the current course have been tried
+            if (choices[depth] == masks[depth].length) {
+                if (depth == 0) {
+                    exhausted = true;
+                    return null;
+                }
+                depth--;
+                OccupancyGrid.release(occupancy, masks[depth][choices[depth]]);
+                choices[depth]++;
+                continue;
+            }
+
+            // Skip the section if any of its time slots are already occupied
+            long[] mask = masks[depth][choices[depth]];
+            if (OccupancyGrid.overlaps(occupancy, mask)) {
+                choices[depth]++;
+                continue;
+            }
+
+            OccupancyGrid.occupy(occupancy, mask);
+            if (depth == courses.size() - 1) {
+                return toSchedule();
+            }
+            depth++;
+            choices[depth] = 0;
+        }
+    }
+
+    /**
+     * Gets the position of the most recently produced schedule, or of the schedule the search was positioned after.
+     * @return per-course section indices of the schedule
+     */
+    public int[] position() {
+        return lastPosition.clone();
+    }
+
+    /**
+     * Converts the search stack into a schedule.
+     * @return a list of sections, one per course
+     */
+    private List<Section> toSchedule() {
+        lastPosition = choices.clone();
+        List<Section> schedule = new ArrayList<>(courses.size());
+        for (int i = 0; i < courses.size(); i++) {
+            schedule.add(courses.get(i).get(choices[i]));
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,67 @@
+package com.turygin.api.server.schedule;
+
+/**
+ * Conflict kernel that tests one section at a time.
+ */
+class ScalarConflictKernel implements ConflictKernel {
+
+    /**
+     * Checks whether a section conflicts with any of a range of sections.
+     * @param days meeting days of the section
+     * @param from start time of the section
+     * @param to end time of the section
+     * @param allDays meeting days of all packed sections
+     * @param allFrom start times of all packed sections
+     * @param allTo end times of all packed sections
+     * @param offset index of the first section of the range
+     * @param length number of sections in the range
+     * @return true if the section conflicts with at least one section of the range
+     */
+    @Override
+    public boolean conflictsWithAny(int days, int from, int to, int[] allDays, int[] allFrom, int[] allTo,
+                                    int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (conflicts(days, from, to, allDays[i], allFrom[i], allTo[i])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes the sections that conflict with a section from a range of allowed sections.
+     * @param days meeting days of the section
+     * @param from start time of the section
+     * @param to end time of the section
+     * @param allDays meeting days of all packed sections
+     * @param allFrom start times of all packed sections
+     * @param allTo end times of all packed sections
+     * @param offset index of the first section of the range
+     * @param length number of sections in the range
+     * @param allowed flags of sections that are allowed so far
+     * @param compatible receives flags of sections that are allowed and do not conflict with the section
+     * @return number of sections in the range that are allowed and do not conflict with the section
+     */
+    @Override
+    public int filterCompatible(int days, int from, int to, int[] allDays, int[] allFrom, int[] allTo,
+                                int offset, int length, boolean[] allowed, boolean[] compatible) {
+        int count = 0;
+        for (int i = offset; i < offset + length; i++) {
+            compatible[i] = allowed[i] && !conflicts(days, from, to, allDays[i], allFrom[i], allTo[i]);
+            if (compatible[i]) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether two packed sections conflict.
+     * @param days meeting days of the first section
+     * @param from start time of the first section
+     * @param to end time of the first section
+     * @param otherDays meeting days of the second section
+     * @param otherFrom start time of the second section
+     * @param otherTo end time of the second section
+     * @return true if the sections share a day and their meeting periods overlap
+     */
+    static boolean conflicts(int days, int from, int to, int otherDays, int otherFrom, int otherTo) {
+        return (days & otherDays) != 0 && otherFrom <= to && otherTo >= from;
+    }
+}
@@ -0,0 +1,293 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Size-aware LRU cache of generated schedules shared by all users.
+ *
+ * Carts are keyed by a canonical fingerprint: the sorted section IDs of every course, with courses sorted by those
+ * IDs, plus the catalog version. Carts with the same sections therefore share an entry regardless of the order
+ * courses were added in. Schedules are stored as section IDs in canonical course order and are mapped back to the
+ * requesting cart's sections and course order on every hit.
+ *
+ * The weight of an entry is the number of section IDs it stores. Least recently used entries are evicted once the
+ * total weight exceeds the limit. Entries that contain a changed section are invalidated through a reverse index.
+ */
+public class ScheduleCache {
+
+    /** Maximum total weight of all entries. */
+    private final long maxWeight;
+
+    /** Version of the course catalog the cached schedules were generated from. */
+    private final String catalogVersion;
+
+    /** Cached schedules in access order. */
+    private final LinkedHashMap<CartKey, long[][]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Keys of the entries that contain each section. */
+    private final Map<Long, Set<CartKey>> entriesBySection = new HashMap<>();
+
+    /** Total weight of all entries. */
+    private long weight;
+
+    /** Incremented on every invalidation so that results computed from stale sections are not stored. */
+    private long invalidationCount;
+
+    /**
+     * Instantiates a schedule cache.
+     * @param maxWeight maximum total number of section IDs stored in the cache
+     * @param catalogVersion version of the course catalog
+     */
+    public ScheduleCache(long maxWeight, String catalogVersion) {
+        this.maxWeight = maxWeight;
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * Gets the schedules of a cart from the cache, or generates and caches them on a miss. Only exhaustive engines
+     * should be used, since the result is shared with every identical cart.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param engine engine that generates the schedules on a miss
+     * @return a list of schedules with sections of the given courses, in the same course order
+     */
+    public List<List<Section>> getOrBuild(List<List<Section>> courses, ScheduleEngine engine) {
+        return getOrBuild(courses, engine, SearchMonitor.NONE);
+    }
+
+    /**
+     * Gets the schedules of a cart from the cache, or generates them on a miss and caches them unless the search
+     * was cancelled. Only exhaustive engines should be used, since the result is shared with every identical cart.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param engine engine that generates the schedules on a miss
+     * @param monitor monitor of the search on a miss
+     * @return a list of schedules with sections of the given courses, in the same course order
+     */
+    public List<List<Section>> getOrBuild(List<List<Section>> courses, ScheduleEngine engine, SearchMonitor monitor) {
+        CanonicalCart cart = new CanonicalCart(courses);
+
+        long[][] cached;
+        long invalidationsBefore;
+        synchronized (this) {
+            cached = entries.get(cart.key);
+            invalidationsBefore = invalidationCount;
+        }
+        if (cached != null) return cart.toSchedules(cached);
+
+        List<List<Section>> schedules = new ArrayList<>();
+        engine.buildSchedules(courses, schedules::add, monitor);
+        if (monitor.isCancelled()) return schedules;
+
+        long[][] scheduleIds = cart.toIds(schedules);
+        synchronized (this) {
+            // A section may have changed while the schedules were generated
+            if (invalidationCount == invalidationsBefore) {
+                put(cart.key, scheduleIds);
+            }
+        }
+        return schedules;
+    }
+
+    /**
+     * Invalidates every entry that contains a section.
+     * @param sectionId unique section ID
+     */
+    public synchronized void invalidateSection(long sectionId) {
+        invalidationCount++;
+        Set<CartKey> keys = entriesBySection.remove(sectionId);
+        if (keys == null) return;
+        for (CartKey key : keys) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Gets the number of cached carts.
+     * @return number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total weight of all entries.
+     * @return total number of section IDs stored in the cache
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Stores an entry and evicts least recently used entries until the cache fits into its weight limit.
+     * @param key cart key
+     * @param scheduleIds schedules as section IDs in canonical course order
+     */
+    private void put(CartKey key, long[][] scheduleIds) {
+        long entryWeight = weightOf(key, scheduleIds);
+        if (entryWeight > maxWeight) return;
+
+        remove(key);
+        entries.put(key, scheduleIds);
+        weight += entryWeight;
+        for (List<Long> sectionIds : key.courses()) {
+            for (long sectionId : sectionIds) {
+                entriesBySection.computeIfAbsent(sectionId, id -> new HashSet<>()).add(key);
+            }
+        }
+
+        Iterator<Map.Entry<CartKey, long[][]>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight) {
+            Map.Entry<CartKey, long[][]> entry = eldest.next();
+            eldest.remove();
+            weight -= weightOf(entry.getKey(), entry.getValue());
+            unindex(entry.getKey());
+        }
+    }
+
+    /**
+     * Removes an entry if present.
+     * @param key cart key
+     */
+    private void remove(CartKey key) {
+        long[][] scheduleIds = entries.remove(key);
+        if (scheduleIds == null) return;
+        weight -= weightOf(key, scheduleIds);
+        unindex(key);
+    }
+
+    /**
+     * Removes an entry from the reverse index.
+     * @param key cart key
+     */
+    private void unindex(CartKey key) {
+        for (List<Long> sectionIds : key.courses()) {
+            for (long sectionId : sectionIds) {
+                Set<CartKey> keys = entriesBySection.get(sectionId);
+                if (keys == null) continue;
+                keys.remove(key);
+                if (keys.isEmpty()) entriesBySection.remove(sectionId);
+            }
+        }
+    }
+
+    /**
+     * Computes the weight of an entry.
+     * @param key cart key
+     * @param scheduleIds schedules as section IDs
+     * @return number of section IDs stored by the entry, including its key
+     */
+    private static long weightOf(CartKey key, long[][] scheduleIds) {
+        long entryWeight = 1;
+        for (List<Long> sectionIds : key.courses()) {
+            entryWeight += sectionIds.size();
+        }
+        return entryWeight + (long) scheduleIds.length * key.courses().size();
+    }
+
+    /**
+     * Canonical cart fingerprint.
+     * @param catalogVersion version of the course catalog
+     * @param courses sorted section IDs of every course, with courses sorted by those IDs
+     */
+    private record CartKey(String catalogVersion, List<List<Long>> courses) {}
+
+    /**
+     * A cart together with its canonical form.
+     */
+    private class CanonicalCart {
+
+        /** Canonical cart fingerprint. */
+        private final CartKey key;
+
+        /** Index of every course of the cart in canonical order. */
+        private final int[] canonicalIndex;
+
+        /** Sections of the cart by ID. */
+        private final Map<Long, Section> sections = new HashMap<>();
+
+        /**
+         * Computes the canonical form of a cart.
+         * @param courses a list of courses where each course is represented by a list of its selected sections
+         */
+        CanonicalCart(List<List<Section>> courses) {
+            List<List<Long>> sectionIds = new ArrayList<>();
+            for (List<Section> courseSections : courses) {
+                for (Section section : courseSections) {
+                    sections.put(section.getId(), section);
+                }
+                sectionIds.add(courseSections.stream().map(Section::getId).sorted().toList());
+            }
+
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < courses.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparing(sectionIds::get, CanonicalCart::compare));
+
+            List<List<Long>> canonicalCourses = new ArrayList<>();
+            canonicalIndex = new int[courses.size()];
+            for (int i = 0; i < order.size(); i++) {
+                canonicalCourses.add(sectionIds.get(order.get(i)));
+                canonicalIndex[order.get(i)] = i;
+            }
+            key = new CartKey(catalogVersion, canonicalCourses);
+        }
+
+        /**
+         * Converts schedules of the cart to section IDs in canonical course order.
+         * @param schedules schedules of the cart
+         * @return schedules as section IDs
+         */
+        long[][] toIds(List<List<Section>> schedules) {
+            long[][] scheduleIds = new long[schedules.size()][];
+            for (int i = 0; i < schedules.size(); i++) {
+                List<Section> schedule = schedules.get(i);
+                scheduleIds[i] = new long[schedule.size()];
+                for (int course = 0; course < schedule.size(); course++) {
+                    scheduleIds[i][canonicalIndex[course]] = schedule.get(course).getId();
+                }
+            }
+            return scheduleIds;
+        }
+
+        /**
+         * Converts cached section IDs back to the sections of the cart in its course order.
+         * @param scheduleIds schedules as section IDs in canonical course order
+         * @return schedules of the cart
+         */
+        List<List<Section>> toSchedules(long[][] scheduleIds) {
+            List<List<Section>> schedules = new ArrayList<>(scheduleIds.length);
+            for (long[] ids : scheduleIds) {
+                List<Section> schedule = new ArrayList<>(ids.length);
+                for (int course = 0; course < ids.length; course++) {
+                    schedule.add(sections.get(ids[canonicalIndex[course]]));
+                }
+                schedules.add(schedule);
+            }
+            return schedules;
+        }
+
+        /**
+         * Compares two sorted lists of section IDs lexicographically.
+         * @param first first list
+         * @param second second list
+         * @return negative, zero or positive as the first list is less than, equal to or greater than the second
+         */
+        private static int compare(List<Long> first, List<Long> second) {
+            for (int i = 0; i < Math.min(first.size(), second.size()); i++) {
+                int result = Long.compare(first.get(i), second.get(i));
+                if (result != 0) return result;
+            }
+            return Integer.compare(first.size(), second.size());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.List;
+
+/**
+ * Receives schedules as soon as a schedule engine finds them.
+ */
+@FunctionalInterface
+public interface ScheduleConsumer {
+
+    /**
+     * Accepts a schedule. The list belongs to the consumer and will not be modified by the engine.
+     * @param schedule a list of sections, one per course
+     * @return true to continue generating schedules, false to stop
+     */
+    boolean accept(List<Section> schedule);
+}
@@ -0,0 +1,191 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Counts conflict free schedules without enumerating them.
+ *
+ * The count is computed with memoized dynamic programming over occupancy states. The number of ways to complete a
+ * partial schedule depends only on the courses left and on the time slots the partial schedule occupies, and only
+ * the slots that some remaining section can occupy matter. Occupancy is projected onto those slots before looking up
+ * the memo, so partial schedules that differ only in irrelevant slots share a single entry. Sections of a course
+ * with equal meeting patterns are counted once and weighted by the number of such sections.
+ */
+public class ScheduleCounter {
+
+    /** Maximum number of memoized states before counting gives up. */
+    private final int maxStates;
+
+    /**
+     * Instantiates a schedule counter.
+     * @param maxStates maximum number of memoized states before counting gives up
+     */
+    public ScheduleCounter(int maxStates) {
+        this.maxStates = maxStates;
+    }
+
+    /**
+     * Counts conflict free schedules. Counts that do not fit into a long are reported as Long.MAX_VALUE.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return the number of schedules, or empty if the cart needs more states than allowed
+     */
+    public OptionalLong count(List<List<Section>> courses) {
+        OccupancyGrid grid = new OccupancyGrid(courses);
+
+        // Collapse every course into distinct occupancy masks weighted by the number of sections that have them
+        List<long[][]> masks = new ArrayList<>();
+        List<long[]> weights = new ArrayList<>();
+        for (List<Section> sections : courses) {
+            Map<Mask, Long> patterns = new LinkedHashMap<>();
+            for (Section section : sections) {
+                patterns.merge(new Mask(grid.toMask(section)), 1L, Long::sum);
+            }
+            masks.add(patterns.keySet().stream().map(Mask::bits).toArray(long[][]::new));
+            weights.add(patterns.values().stream().mapToLong(Long::longValue).toArray());
+        }
+
+        // Slots that any section of the course or the courses after it can occupy
+        long[][] relevant = new long[courses.size() + 1][];
+        relevant[courses.size()] = grid.emptyMask();
+        for (int i = courses.size() - 1; i >= 0; i--) {
+            relevant[i] = relevant[i + 1].clone();
+            for (long[] mask : masks.get(i)) {
+                OccupancyGrid.occupy(relevant[i], mask);
+            }
+        }
+
+        Counting counting = new Counting(masks, weights, relevant);
+        try {
+            return OptionalLong.of(counting.count(0, grid.emptyMask()));
+        } catch (StateLimitException exception) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Occupancy mask usable as a hash map key.
+     * @param bits occupancy mask
+     */
+    private record Mask(long[] bits) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Mask mask && Arrays.equals(bits, mask.bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(bits);
+        }
+    }
+
+    /** Thrown when counting needs more memoized states than allowed. */
+    private static class StateLimitException extends RuntimeException {
+
+        /** Instantiates the exception without a stack trace, it is only used to unwind the recursion. */
+        StateLimitException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * State of a single count.
+     */
+    private class Counting {
+
+        /** Distinct occupancy masks of every course. */
+        private final List<long[][]> masks;
+
+        /** Number of sections with each of the masks. */
+        private final List<long[]> weights;
+
+        /** Slots that any section of the course or the courses after it can occupy. */
+        private final long[][] relevant;
+
+        /** Memoized counts of every course, keyed by relevant occupancy. */
+        private final List<Map<Mask, Long>> memo = new ArrayList<>();
+
+        /** Number of memoized states. */
+        private int stateCount;
+
+        /**
+         * Prepares a count.
+         * @param masks distinct occupancy masks of every course
+         * @param weights number of sections with each of the masks
+         * @param relevant slots that any section of the course or the courses after it can occupy
+         */
+        Counting(List<long[][]> masks, List<long[]> weights, long[][] relevant) {
+            this.masks = masks;
+            this.weights = weights;
+            this.relevant = relevant;
+            for (int i = 0; i < masks.size(); i++) {
+                memo.add(new HashMap<>());
+            }
+        }
+
+        /**
+         * Counts the ways to complete a partial schedule.
+         * @param currentCourseIndex index of the current course being processed
+         * @param occupancy combined occupancy mask of the partial schedule
+         * @return the number of completions
+         */
+        long count(int currentCourseIndex, long[] occupancy) {
+            if (currentCourseIndex == masks.size()) return 1;
+
+            // Forget the slots no remaining section can occupy
+            long[] key = occupancy.clone();
+            for (int i = 0; i < key.length; i++) {
+                key[i] &= relevant[currentCourseIndex][i];
+            }
+            Map<Mask, Long> courseMemo = memo.get(currentCourseIndex);
+            Long memoized = courseMemo.get(new Mask(key));
+            if (memoized != null) return memoized;
+
+            long total = 0;
+            long[][] courseMasks = masks.get(currentCourseIndex);
+            long[] courseWeights = weights.get(currentCourseIndex);
+            for (int i = 0; i < courseMasks.length; i++) {
+                if (OccupancyGrid.overlaps(key, courseMasks[i])) continue;
+
+                OccupancyGrid.occupy(key, courseMasks[i]);
+                long completions = count(currentCourseIndex + 1, key);
+                OccupancyGrid.release(key, courseMasks[i]);
+                total = saturatedAdd(total, saturatedMultiply(courseWeights[i], completions));
+            }
+
+            if (++stateCount > maxStates) throw new StateLimitException();
+            // The key was restored by releasing every occupied mask
+            courseMemo.put(new Mask(key), total);
+            return total;
+        }
+    }
+
+    /**
+     * Adds two non-negative numbers, saturating at Long.MAX_VALUE.
+     * @param first first number
+     * @param second second number
+     * @return the sum or Long.MAX_VALUE
+     */
+    private static long saturatedAdd(long first, long second) {
+        long sum = first + second;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    /**
+     * Multiplies two non-negative numbers, saturating at Long.MAX_VALUE.
+     * @param first first number
+     * @param second second number
+     * @return the product or Long.MAX_VALUE
+     */
+    private static long saturatedMultiply(long first, long second) {
+        return second != 0 && first > Long.MAX_VALUE / second ? Long.MAX_VALUE : first * second;
+    }
+}
@@ -0,0 +1,121 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque pagination cursor that records the position of the last schedule of a page. The cursor also carries
+ * a fingerprint of the cart it was created for, so that a cursor cannot be applied to a cart that has changed.
+ */
+public class ScheduleCursor {
+
+    /** Separates the fingerprint from the position and the indices from each other. */
+    private static final String SEPARATOR = ".";
+
+    /** Fingerprint of the cart. */
+    private final long fingerprint;
+
+    /** Per-course section indices of the last schedule of the page. */
+    private final int[] position;
+
+    /**
+     * Instantiates a cursor.
+     * @param fingerprint fingerprint of the cart
+     * @param position per-course section indices of the last schedule of the page
+     */
+    private ScheduleCursor(long fingerprint, int[] position) {
+        this.fingerprint = fingerprint;
+        this.position = position;
+    }
+
+    /**
+     * Creates a cursor for a position within a cart.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param position per-course section indices of the last schedule of the page
+     * @return schedule cursor
+     */
+    public static ScheduleCursor of(List<List<Section>> courses, int[] position) {
+        return new ScheduleCursor(fingerprint(courses), position.clone());
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     * @param cursor encoded cursor
+     * @return schedule cursor
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static ScheduleCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] parts = decoded.split("\\.", -1);
+            long fingerprint = Long.parseUnsignedLong(parts[0], 16);
+            int[] position = new int[parts.length - 1];
+            for (int i = 0; i < position.length; i++) {
+                position[i] = Integer.parseInt(parts[i + 1]);
+            }
+            return new ScheduleCursor(fingerprint, position);
+        } catch (RuntimeException exception) {
+            throw new IllegalArgumentException("Malformed schedule cursor.", exception);
+        }
+    }
+
+    /**
+     * Encodes the cursor as a URL safe string.
+     * @return encoded cursor
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder(Long.toHexString(fingerprint));
+        for (int index : position) {
+            sb.append(SEPARATOR).append(index);
+        }
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.US_ASCII);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Checks whether the cursor was created for the given cart.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return true if the cart has not changed since the cursor was created, false otherwise
+     */
+    public boolean matches(List<List<Section>> courses) {
+        return fingerprint == fingerprint(courses) && position.length == courses.size();
+    }
+
+    /**
+     * Gets the position.
+     * @return per-course section indices of the last schedule of the page
+     */
+    public int[] getPosition() {
+        return position.clone();
+    }
+
+    /**
+     * Computes a fingerprint of the cart from the IDs of the selected sections in cart order.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return cart fingerprint
+     */
+    private static long fingerprint(List<List<Section>> courses) {
+        long hash = 0xcbf29ce484222325L;
+        for (List<Section> sections : courses) {
+            hash = mix(hash, sections.size());
+            for (Section section : sections) {
+                hash = mix(hash, section.getId());
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes a value into a running hash.
+     * @param hash running hash
+     * @param value value to mix in
+     * @return updated hash
+     */
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x100000001b3L;
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,66 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Algorithm that generates conflict free schedules from the sections selected for each course.
+ */
+public interface ScheduleEngine {
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one. Each schedule contains exactly
+     * one section of every course, listed in the same order as the courses.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     */
+    void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer);
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one until the search is cancelled.
+     * By default the monitor is only consulted when a schedule is found. Engines override this to check it while
+     * they search.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     * @param monitor tells whether the search was cancelled and records found schedules
+     */
+    default void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer, SearchMonitor monitor) {
+        buildSchedules(courses, schedule -> monitor.scheduleFound() && consumer.accept(schedule));
+    }
+
+    /**
+     * Generates a list of all possible schedules.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return a list of schedules (list of section lists)
+     */
+    default List<List<Section>> buildSchedules(List<List<Section>> courses) {
+        List<List<Section>> schedules = new ArrayList<>();
+        buildSchedules(courses, schedules::add);
+        return schedules;
+    }
+
+    /**
+     * Checks whether the engine generates every possible schedule.
+     * @return true if all schedules are generated, false if the engine only samples the search space
+     */
+    default boolean isExhaustive() {
+        return true;
+    }
+
+    /**
+     * Estimates the size of the search space as the number of section combinations, ignoring conflicts.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return the number of section combinations, or Long.MAX_VALUE if it does not fit into a long
+     */
+    static long searchSpaceSize(List<List<Section>> courses) {
+        long size = 1;
+        for (List<Section> sections : courses) {
+            if (sections.isEmpty()) return 0;
+            if (size > Long.MAX_VALUE / sections.size()) return Long.MAX_VALUE;
+            size *= sections.size();
+        }
+        return size;
+    }
+}
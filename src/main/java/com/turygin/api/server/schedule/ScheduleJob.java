@@ -0,0 +1,253 @@
+package com.turygin.api.server.schedule;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Schedule generation running in the background. The job tracks its state and the number of schedules stored so
+ * far, and can be cancelled cooperatively through its search monitor. The monitor is created when the job starts,
+ * so limits such as a deadline do not count the time the job was queued.
+ */
+public class ScheduleJob {
+
+    /** Job states. */
+    public enum State {
+        /** Submitted but not started yet. */
+        QUEUED,
+        /** Generating schedules. */
+        RUNNING,
+        /** The search ended. Schedules may be missing if the search limits were reached. */
+        COMPLETED,
+        /** Stopped on request or superseded. Schedules stored before cancellation are kept. */
+        CANCELLED,
+        /** Stopped because of an error. */
+        FAILED
+    }
+
+    /** Work done by a job. */
+    @FunctionalInterface
+    public interface Task {
+
+        /**
+         * Generates and stores schedules. The task should search with the job's monitor and report every stored
+         * schedule.
+         * @param job job running the task
+         * @throws Exception if generation fails
+         */
+        void run(ScheduleJob job) throws Exception;
+    }
+
+    /** Unique job ID. */
+    private final String id;
+
+    /** ID of the user whose schedules are generated. */
+    private final long userId;
+
+    /** Creates the monitor of the search when the job starts. */
+    private final Supplier<? extends SearchMonitor> monitorFactory;
+
+    /** Lets the job cancel its search, or null if the job has not started yet. */
+    private volatile SearchMonitor monitor;
+
+    /** Set once the job was asked to stop. */
+    private volatile boolean cancelled;
+
+    /** Number of schedules stored so far. */
+    private final AtomicLong schedulesFound = new AtomicLong();
+
+    /** Current state. */
+    private volatile State state = State.QUEUED;
+
+    /** Number of schedules the cart yields, or null if unknown. */
+    private volatile Long expectedSchedules;
+
+    /** ID of the first stored schedule, or null if the job has not claimed the schedules of the user yet. */
+    private volatile Long firstScheduleId;
+
+    /** Error message of a failed job. */
+    private volatile String error;
+
+    /** Time the job finished at in milliseconds since the epoch, or 0 if it is still active. */
+    private volatile long finishedAt;
+
+    /**
+     * Instantiates a queued job that searches without limits.
+     * @param id unique job ID
+     * @param userId ID of the user whose schedules are generated
+     */
+    public ScheduleJob(String id, long userId) {
+        this(id, userId, SearchMonitor::new);
+    }
+
+    /**
+     * Instantiates a queued job.
+     * @param id unique job ID
+     * @param userId ID of the user whose schedules are generated
+     * @param monitorFactory creates the monitor of the search when the job starts, such as search limits
+     */
+    public ScheduleJob(String id, long userId, Supplier<? extends SearchMonitor> monitorFactory) {
+        this.id = id;
+        this.userId = userId;
+        this.monitorFactory = monitorFactory;
+    }
+
+    /**
+     * Runs a task and records how it ended.
+     * @param task work to do
+     */
+    public void run(Task task) {
+        if (cancelled) {
+            finish(State.CANCELLED);
+            return;
+        }
+
+        state = State.RUNNING;
+        try {
+            monitor = monitorFactory.get();
+            // The job may have been cancelled before there was a monitor to cancel
+            if (cancelled) monitor.cancel();
+            task.run(this);
+            finish(cancelled ? State.CANCELLED : State.COMPLETED);
+        } catch (Exception exception) {
+            error = exception.getMessage();
+            finish(State.FAILED);
+        }
+    }
+
+    /**
+     * Asks the job to stop as soon as possible.
+     */
+    public void cancel() {
+        cancelled = true;
+        SearchMonitor running = monitor;
+        if (running != null) running.cancel();
+    }
+
+    /**
+     * Checks whether the job was asked to stop.
+     * @return true if the job was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Records a stored schedule.
+     */
+    public void scheduleFound() {
+        schedulesFound.incrementAndGet();
+    }
+
+    /**
+     * Checks whether the job is queued or running.
+     * @return true if the job has not finished yet
+     */
+    public boolean isActive() {
+        return finishedAt == 0;
+    }
+
+    /**
+     * Marks the job as finished.
+     * @param finalState state the job ended in
+     */
+    private void finish(State finalState) {
+        state = finalState;
+        finishedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Gets the job ID.
+     * @return unique job ID
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the user ID.
+     * @return ID of the user whose schedules are generated
+     */
+    public long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Gets the search monitor the task should search with.
+     * @return search monitor, or null if the job has not started yet
+     */
+    public SearchMonitor getMonitor() {
+        return monitor;
+    }
+
+    /**
+     * Gets the number of stored schedules.
+     * @return number of schedules stored so far
+     */
+    public long getSchedulesFound() {
+        return schedulesFound.get();
+    }
+
+    /**
+     * Gets the current state.
+     * @return job state
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the number of schedules the cart yields.
+     * @return number of schedules, or null if unknown
+     */
+    public Long getExpectedSchedules() {
+        return expectedSchedules;
+    }
+
+    /**
+     * Sets the number of schedules the cart yields.
+     * @param expectedSchedules number of schedules, or null if unknown
+     */
+    public void setExpectedSchedules(Long expectedSchedules) {
+        this.expectedSchedules = expectedSchedules;
+    }
+
+    /**
+     * Checks whether the search stopped at a limit of its monitor.
+     * @return true if the search was stopped by search limits before finding every schedule
+     */
+    public boolean isTruncated() {
+        return monitor instanceof SearchLimits limits && limits.isTruncated();
+    }
+
+    /**
+     * Gets the ID of the first stored schedule. The following schedules have consecutive IDs.
+     * @return schedule ID, or null if the job has not claimed the schedules of the user yet
+     */
+    public Long getFirstScheduleId() {
+        return firstScheduleId;
+    }
+
+    /**
+     * Sets the ID of the first stored schedule.
+     * @param firstScheduleId schedule ID
+     */
+    public void setFirstScheduleId(Long firstScheduleId) {
+        this.firstScheduleId = firstScheduleId;
+    }
+
+    /**
+     * Gets the error message.
+     * @return error message of a failed job, null otherwise
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Gets the finish time.
+     * @return time the job finished at in milliseconds since the epoch, or 0 if it is still active
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+}
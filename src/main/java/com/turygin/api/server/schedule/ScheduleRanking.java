@@ -0,0 +1,39 @@
+package com.turygin.api.server.schedule;
+
+import java.time.LocalTime;
+import java.util.Locale;
+
+/**
+ * Predefined schedule rankings.
+ */
+public enum ScheduleRanking {
+    /** Balances fewer campus days, smaller gaps and no early starts. */
+    COMPACT(new WeightedScheduleScorer(120, 1, 60, LocalTime.of(9, 0))),
+    /** Fewest days on campus. */
+    FEWEST_DAYS(new WeightedScheduleScorer(1, 0, 0, LocalTime.MIN)),
+    /** Least idle time between classes. */
+    FEWEST_GAPS(new WeightedScheduleScorer(0, 1, 0, LocalTime.MIN)),
+    /** Fewest classes starting before 9 AM. */
+    LATE_START(new WeightedScheduleScorer(0, 0, 1, LocalTime.of(9, 0)));
+
+    /** Scoring function of the ranking. */
+    public final ScheduleScorer scorer;
+
+    /**
+     * Instantiates a ranking.
+     * @param scorer scoring function of the ranking
+     */
+    ScheduleRanking(ScheduleScorer scorer) {
+        this.scorer = scorer;
+    }
+
+    /**
+     * Finds a ranking by its case-insensitive name.
+     * @param name ranking name
+     * @return matching ranking
+     * @throws IllegalArgumentException if there is no ranking with such name
+     */
+    public static ScheduleRanking fromName(String name) {
+        return ScheduleRanking.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
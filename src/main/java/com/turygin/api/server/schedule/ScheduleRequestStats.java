@@ -0,0 +1,219 @@
+package com.turygin.api.server.schedule;
+
+import java.util.Locale;
+
+/**
+ * Statistics of a single schedule request: how long each phase of the request took and how much work the search
+ * did. Phases are timed one at a time, starting a phase ends the previous one. Statistics are collected by the
+ * thread that handles the request and are not thread safe.
+ */
+public class ScheduleRequestStats {
+
+    /** Name of the request property that carries the statistics until the response is serialized. */
+    public static final String PROPERTY = ScheduleRequestStats.class.getName();
+
+    /** Phases of a schedule request. */
+    public enum Phase {
+        /** Loading the user, the cart and blocked time windows. */
+        LOAD,
+        /** Generating schedules, including cache lookups. */
+        SEARCH,
+        /** Keeping generated schedules until one is selected. */
+        PERSIST,
+        /** Converting schedules to DTOs. */
+        MAP,
+        /** Writing the response body. */
+        SERIALIZE;
+
+        /** Name of the phase in logs and headers. */
+        public final String label = name().toLowerCase(Locale.ROOT);
+    }
+
+    /** Request kind, such as the endpoint that handled it. */
+    private final String operation;
+
+    /** Time spent in every phase in nanoseconds. */
+    private final long[] phaseNanos = new long[Phase.values().length];
+
+    /** Flags of phases that were timed. */
+    private final boolean[] timed = new boolean[Phase.values().length];
+
+    /** Phase being timed, or null if none. */
+    private Phase currentPhase;
+
+    /** Start of the phase being timed as returned by System.nanoTime(). */
+    private long phaseStart;
+
+    /** Name of the engine that generated schedules, or null if there was no search. */
+    private String engine;
+
+    /** Number of explored search nodes. */
+    private long nodesExplored;
+
+    /** Number of candidate sections checked for conflicts. */
+    private long conflictChecks;
+
+    /** Number of candidate sections skipped because of a conflict. */
+    private long branchesPruned;
+
+    /** Number of schedules returned. */
+    private long schedules;
+
+    /**
+     * Instantiates request statistics.
+     * @param operation request kind, such as the endpoint that handled it
+     */
+    public ScheduleRequestStats(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Ends the current phase, if any, and starts timing another one.
+     * @param phase phase to time
+     */
+    public void start(Phase phase) {
+        stop();
+        currentPhase = phase;
+        phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Ends the current phase, if any.
+     */
+    public void stop() {
+        if (currentPhase == null) return;
+        phaseNanos[currentPhase.ordinal()] += System.nanoTime() - phaseStart;
+        timed[currentPhase.ordinal()] = true;
+        currentPhase = null;
+    }
+
+    /**
+     * Records the work done by a search.
+     * @param engine name of the engine that generated schedules
+     * @param limits search limits the search was monitored by
+     */
+    public void recordSearch(String engine, SearchLimits limits) {
+        this.engine = engine;
+        nodesExplored += limits.getNodesExplored();
+        conflictChecks += limits.getConflictChecks();
+        branchesPruned += limits.getBranchesPruned();
+    }
+
+    /**
+     * Records the number of schedules returned.
+     * @param schedules number of schedules returned
+     */
+    public void recordSchedules(long schedules) {
+        this.schedules = schedules;
+    }
+
+    /**
+     * Gets the request kind.
+     * @return request kind, such as the endpoint that handled it
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Checks whether a phase was timed.
+     * @param phase request phase
+     * @return true if the phase was started and ended at least once
+     */
+    public boolean isTimed(Phase phase) {
+        return timed[phase.ordinal()];
+    }
+
+    /**
+     * Gets the time spent in a phase.
+     * @param phase request phase
+     * @return time spent in the phase in nanoseconds
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Gets the engine name.
+     * @return name of the engine that generated schedules, or null if there was no search
+     */
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * Gets the number of explored search nodes.
+     * @return number of explored search nodes
+     */
+    public long getNodesExplored() {
+        return nodesExplored;
+    }
+
+    /**
+     * Gets the number of conflict checks.
+     * @return number of candidate sections checked for conflicts
+     */
+    public long getConflictChecks() {
+        return conflictChecks;
+    }
+
+    /**
+     * Gets the number of pruned branches.
+     * @return number of candidate sections skipped because of a conflict
+     */
+    public long getBranchesPruned() {
+        return branchesPruned;
+    }
+
+    /**
+     * Gets the number of schedules returned.
+     * @return number of schedules returned
+     */
+    public long getSchedules() {
+        return schedules;
+    }
+
+    /**
+     * Formats the timed phases as a Server-Timing header value, such as "load;dur=1.250, search;dur=12.000".
+     * @return header value with phase durations in milliseconds
+     */
+    public String toServerTiming() {
+        StringBuilder sb = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            if (!isTimed(phase)) continue;
+            if (!sb.isEmpty()) sb.append(", ");
+            sb.append(phase.label).append(";dur=").append(toMillis(getPhaseNanos(phase)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Generates a string representation of the statistics for logs.
+     * @return string representation of the statistics
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ScheduleRequestStats{");
+        sb.append("operation=").append(operation);
+        for (Phase phase : Phase.values()) {
+            if (!isTimed(phase)) continue;
+            sb.append(", ").append(phase.label).append("Ms=").append(toMillis(getPhaseNanos(phase)));
+        }
+        sb.append(", engine=").append(engine);
+        sb.append(", nodesExplored=").append(nodesExplored);
+        sb.append(", conflictChecks=").append(conflictChecks);
+        sb.append(", branchesPruned=").append(branchesPruned);
+        sb.append(", schedules=").append(schedules);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * Formats a duration in milliseconds with microsecond precision.
+     * @param nanos duration in nanoseconds
+     * @return formatted duration
+     */
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
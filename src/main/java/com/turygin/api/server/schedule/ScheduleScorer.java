@@ -0,0 +1,28 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.List;
+
+/**
+ * Scoring function used to rank schedules. Lower scores are better.
+ */
+public interface ScheduleScorer {
+
+    /**
+     * Scores a complete schedule.
+     * @param schedule a list of sections, one per course
+     * @return schedule score, lower is better
+     */
+    double score(List<Section> schedule);
+
+    /**
+     * Computes a lower bound of the score of every schedule that can be completed from a partial schedule with one
+     * section of each remaining course. The bound must never exceed the score of such a schedule, otherwise the best
+     * schedules may be pruned.
+     * @param partialSchedule sections placed so far
+     * @param remainingCourses selected sections of every course that is not placed yet
+     * @return lower bound of the score of any completion
+     */
+    double lowerBound(List<Section> partialSchedule, List<List<Section>> remainingCourses);
+}
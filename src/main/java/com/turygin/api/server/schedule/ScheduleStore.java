@@ -0,0 +1,358 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-memory store of generated schedules, keyed by user. Generated schedules only live here until the user
+ * selects one, so they never reach the database.
+ *
+ * Every stored schedule gets an ID that is unique across users. The schedules of a user expire once they have not
+ * been accessed for the time to live. Least recently used users are evicted once the total number of stored section
+ * references exceeds the limit, and schedules beyond the per user limit are not stored at all.
+ *
+ * Schedules can be stored with a version that describes what they were generated from, so that a request with the
+ * same version can be answered with the stored schedules and their IDs instead of generating them again.
+ *
+ * A background writer, such as a schedule job, claims the schedules of a user before it adds to them. Its writes are
+ * refused once any other write replaces or adds to the schedules of the user, so a superseded writer cannot mix its
+ * schedules into newer ones.
+ */
+public class ScheduleStore {
+
+    /** Maximum total weight of all entries. */
+    private final long maxWeight;
+
+    /** Maximum number of schedules stored per user. IDs of a user's schedules are taken from a block of this size. */
+    private final int maxSchedulesPerUser;
+
+    /** Time an entry lives after its last access, in milliseconds. */
+    private final long ttlMillis;
+
+    /** Current time in milliseconds. */
+    private final LongSupplier clock;
+
+    /** Schedules of every user in access order. */
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** First ID of the next block of schedule IDs. */
+    private long nextId = 1;
+
+    /** Total weight of all entries. */
+    private long weight;
+
+    /**
+     * Instantiates a schedule store that uses the system clock.
+     * @param maxWeight maximum total number of section references stored
+     * @param maxSchedulesPerUser maximum number of schedules stored per user
+     * @param ttlMillis time the schedules of a user live after their last access, in milliseconds
+     */
+    public ScheduleStore(long maxWeight, int maxSchedulesPerUser, long ttlMillis) {
+        this(maxWeight, maxSchedulesPerUser, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Instantiates a schedule store.
+     * @param maxWeight maximum total number of section references stored
+     * @param maxSchedulesPerUser maximum number of schedules stored per user
+     * @param ttlMillis time the schedules of a user live after their last access, in milliseconds
+     * @param clock current time in milliseconds
+     */
+    public ScheduleStore(long maxWeight, int maxSchedulesPerUser, long ttlMillis, LongSupplier clock) {
+        if (maxSchedulesPerUser < 1) throw new IllegalArgumentException("At least one schedule must be allowed.");
+        this.maxWeight = maxWeight;
+        this.maxSchedulesPerUser = maxSchedulesPerUser;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Replaces the schedules of a user.
+     * @param userId unique user ID
+     * @param schedules generated schedules
+     * @return ID of the first schedule, the following schedules have consecutive IDs
+     */
+    public synchronized long replace(long userId, List<List<Section>> schedules) {
+        return replace(userId, schedules, null);
+    }
+
+    /**
+     * Replaces the schedules of a user and remembers what they were generated from. The version is only kept if
+     * all schedules fit into the per user limit.
+     * @param userId unique user ID
+     * @param schedules generated schedules
+     * @param version describes what the schedules were generated from, or null if they cannot be reused
+     * @return ID of the first schedule, the following schedules have consecutive IDs
+     */
+    public synchronized long replace(long userId, List<List<Section>> schedules, Object version) {
+        remove(userId);
+        long firstId = append(userId, schedules);
+
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.schedules.size() == schedules.size()) {
+            entry.version = version;
+        }
+        return firstId;
+    }
+
+    /**
+     * Gets all stored schedules of a user together with the version they were stored with.
+     * @param userId unique user ID
+     * @return stored schedules, or null if the user has no schedules, they have expired, they were stored without
+     * a version, or schedules were appended to them since
+     */
+    public synchronized Snapshot snapshot(long userId) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.version == null) return null;
+        entry.lastAccess = now;
+        return new Snapshot(entry.firstId, List.copyOf(entry.schedules), entry.version);
+    }
+
+    /**
+     * Forgets the versions of all stored schedules, so that every user generates schedules again. Stored schedules
+     * can still be looked up by ID.
+     */
+    public synchronized void invalidateVersions() {
+        for (Entry entry : entries.values()) {
+            entry.version = null;
+        }
+    }
+
+    /**
+     * Adds schedules to the schedules of a user. Takes the schedules over from a writer that claimed them.
+     * @param userId unique user ID
+     * @param schedules generated schedules
+     * @return ID of the first added schedule, the following schedules have consecutive IDs
+     */
+    public synchronized long append(long userId, List<List<Section>> schedules) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+
+        Entry entry = entries.get(userId);
+        if (entry == null) {
+            entry = new Entry(nextId);
+            nextId += maxSchedulesPerUser;
+            entries.put(userId, entry);
+        }
+        entry.owner = null;
+        return append(userId, entry, schedules, now);
+    }
+
+    /**
+     * Replaces the schedules of a user with no schedules that only the given writer may add to.
+     * @param userId unique user ID
+     * @param owner writer that adds the schedules
+     * @return ID of the first schedule the writer will add, the following schedules get consecutive IDs
+     */
+    public synchronized long claim(long userId, Object owner) {
+        long firstId = replace(userId, List.of());
+        entries.get(userId).owner = owner;
+        return firstId;
+    }
+
+    /**
+     * Adds a schedule to the schedules of a user if they are still claimed by the writer and the per user limit
+     * has not been reached.
+     * @param userId unique user ID
+     * @param owner writer that claimed the schedules
+     * @param schedule generated schedule
+     * @return ID of the added schedule, or empty if the schedule was not stored because another write has taken
+     * the schedules over, they have been evicted, or the per user limit has been reached
+     */
+    public synchronized OptionalLong append(long userId, Object owner, List<Section> schedule) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.owner != owner || entry.schedules.size() == maxSchedulesPerUser) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(append(userId, entry, List.of(schedule), now));
+    }
+
+    /**
+     * Gets all stored schedules of a user if they are still claimed by the writer.
+     * @param userId unique user ID
+     * @param owner writer that claimed the schedules
+     * @return stored schedules without a version, or null if another write has taken the schedules over or they
+     * have expired
+     */
+    public synchronized Snapshot owned(long userId, Object owner) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+
+        Entry entry = entries.get(userId);
+        if (entry == null || entry.owner != owner) return null;
+        entry.lastAccess = now;
+        return new Snapshot(entry.firstId, List.copyOf(entry.schedules), null);
+    }
+
+    /**
+     * Gets the maximum number of schedules stored per user.
+     * @return per user limit
+     */
+    public int getMaxSchedulesPerUser() {
+        return maxSchedulesPerUser;
+    }
+
+    /**
+     * Adds schedules to an entry.
+     * @param userId unique ID of the user the entry belongs to
+     * @param entry schedules of the user
+     * @param schedules generated schedules
+     * @param now current time in milliseconds
+     * @return ID of the first added schedule, the following schedules have consecutive IDs
+     */
+    private long append(long userId, Entry entry, List<List<Section>> schedules, long now) {
+        entry.lastAccess = now;
+        entry.version = null;
+
+        long firstId = entry.firstId + entry.assigned;
+        entry.assigned += schedules.size();
+        for (List<Section> schedule : schedules) {
+            // Schedules beyond the limit get an ID outside the user's block but are not stored
+            if (entry.schedules.size() == maxSchedulesPerUser) break;
+            entry.schedules.add(schedule);
+            long scheduleWeight = weightOf(schedule);
+            entry.weight += scheduleWeight;
+            weight += scheduleWeight;
+        }
+
+        evictLeastRecentlyUsed(userId);
+        return firstId;
+    }
+
+    /**
+     * Gets a stored schedule of a user.
+     * @param userId unique user ID
+     * @param scheduleId schedule ID
+     * @return schedule sections, or null if the schedule does not exist or has expired
+     */
+    public synchronized List<Section> get(long userId, long scheduleId) {
+        long now = clock.getAsLong();
+        evictExpired(now);
+
+        Entry entry = entries.get(userId);
+        if (entry == null) return null;
+        entry.lastAccess = now;
+
+        long index = scheduleId - entry.firstId;
+        return index >= 0 && index < entry.schedules.size() ? entry.schedules.get((int) index) : null;
+    }
+
+    /**
+     * Removes the schedules of a user.
+     * @param userId unique user ID
+     */
+    public synchronized void remove(long userId) {
+        Entry entry = entries.remove(userId);
+        if (entry != null) weight -= entry.weight;
+    }
+
+    /**
+     * Gets the number of users with stored schedules.
+     * @return number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the total weight of all entries.
+     * @return total number of section references stored, plus one per schedule
+     */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    /**
+     * Removes every entry that has not been accessed for the time to live.
+     * @param now current time in milliseconds
+     */
+    private void evictExpired(long now) {
+        // Entries are in access order, so expired ones are at the front
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext()) {
+            Entry entry = eldest.next();
+            if (now - entry.lastAccess < ttlMillis) break;
+            eldest.remove();
+            weight -= entry.weight;
+        }
+    }
+
+    /**
+     * Removes least recently used entries other than the given one until the store fits into its weight limit.
+     * @param userId unique ID of the user whose entry is kept
+     */
+    private void evictLeastRecentlyUsed(long userId) {
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Map.Entry<Long, Entry> entry = eldest.next();
+            if (entry.getKey() == userId) continue;
+            eldest.remove();
+            weight -= entry.getValue().weight;
+        }
+    }
+
+    /**
+     * Computes the weight of a schedule.
+     * @param schedule schedule sections
+     * @return number of section references plus one
+     */
+    private static long weightOf(List<Section> schedule) {
+        return schedule.size() + 1;
+    }
+
+    /**
+     * All schedules of a user as stored.
+     * @param firstId ID of the first schedule, the following schedules have consecutive IDs
+     * @param schedules stored schedules
+     * @param version describes what the schedules were generated from
+     */
+    public record Snapshot(long firstId, List<List<Section>> schedules, Object version) {}
+
+    /**
+     * Schedules of a single user.
+     */
+    private static class Entry {
+
+        /** ID of the first schedule. */
+        private final long firstId;
+
+        /** Stored schedules. */
+        private final List<List<Section>> schedules = new ArrayList<>();
+
+        /** Number of schedule IDs assigned, including schedules that were not stored. */
+        private long assigned;
+
+        /** Weight of the stored schedules. */
+        private long weight;
+
+        /** Time of the last access in milliseconds. */
+        private long lastAccess;
+
+        /** Describes what the schedules were generated from, or null if they cannot be reused. */
+        private Object version;
+
+        /** Writer that claimed the schedules, or null if they were not claimed or another write took them over. */
+        private Object owner;
+
+        /**
+         * Instantiates an empty entry.
+         * @param firstId ID of the first schedule
+         */
+        Entry(long firstId) {
+            this.firstId = firstId;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.turygin.api.server.schedule;
+
+import java.util.Locale;
+
+/**
+ * Available schedule generation strategies.
+ */
+public enum ScheduleStrategy {
+    /** Checks every candidate section against each section of the partial schedule. */
+    SIMPLE,
+    /** Checks candidates against the occupancy bitmap of the partial schedule. */
+    BITMAP,
+    /** Explores subtrees of the bitmap search on a fork/join pool. */
+    PARALLEL,
+    /** Uses a precomputed pairwise section compatibility matrix. */
+    MATRIX,
+    /** Places the most constrained course first and prunes remaining domains after every placement. */
+    FORWARD_CHECKING,
+    /** Prunes remaining courses with SIMD compares over packed meeting times, or scalar ones if unavailable. */
+    VECTOR,
+    /** Samples the search space with local search within a time budget. Not exhaustive. */
+    HEURISTIC;
+
+    /**
+     * Finds a strategy by its case-insensitive name.
+     * @param name strategy name
+     * @return matching strategy
+     * @throws IllegalArgumentException if there is no strategy with such name
+     */
+    public static ScheduleStrategy fromName(String name) {
+        return ScheduleStrategy.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,176 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Search monitor that stops the search once a deadline passes or a maximum number of schedules is found. A search
+ * stopped by either limit is truncated: the schedules found so far are kept, but there may be more.
+ *
+ * Every cancellation check counts as an explored search node. Conflict checks and pruned branches reported by the
+ * engine are counted as well. The clock is only read every few checks.
+ */
+public class SearchLimits extends SearchMonitor {
+
+    /** Number of cancellation checks between two readings of the clock. */
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    /** Search deadline as returned by System.nanoTime(). */
+    private final long deadline;
+
+    /** True if the search has a deadline. */
+    private final boolean hasDeadline;
+
+    /** Maximum number of schedules to find. */
+    private final long maxSchedules;
+
+    /** Number of schedules found so far. */
+    private final AtomicLong schedulesFound = new AtomicLong();
+
+    /** Number of explored search nodes. */
+    private final LongAdder nodesExplored = new LongAdder();
+
+    /** Number of candidate sections checked for conflicts. */
+    private final LongAdder conflictChecks = new LongAdder();
+
+    /** Number of candidate sections skipped because of a conflict. */
+    private final LongAdder branchesPruned = new LongAdder();
+
+    /** Cancellation checks since the clock was last read. Updated without synchronization, races only delay it. */
+    private int checksSinceClockCheck;
+
+    /** Set once a limit was reached. */
+    private volatile boolean truncated;
+
+    /**
+     * Instantiates search limits. The deadline starts counting immediately.
+     * @param timeoutMillis time the search may take in milliseconds, or Long.MAX_VALUE for no deadline
+     * @param maxSchedules maximum number of schedules to find
+     */
+    public SearchLimits(long timeoutMillis, long maxSchedules) {
+        if (timeoutMillis < 1) throw new IllegalArgumentException("Deadline must be a positive number.");
+        if (maxSchedules < 1) throw new IllegalArgumentException("At least one schedule must be allowed.");
+        this.hasDeadline = timeoutMillis < Long.MAX_VALUE / 1_000_000;
+        this.deadline = hasDeadline ? System.nanoTime() + timeoutMillis * 1_000_000 : 0;
+        this.maxSchedules = maxSchedules;
+    }
+
+    /**
+     * Checks whether the search should stop, and counts the check as an explored search node.
+     * @return true if the search was cancelled or a limit was reached
+     */
+    @Override
+    public boolean isCancelled() {
+        if (super.isCancelled()) return true;
+        nodesExplored.increment();
+        if (hasDeadline && ++checksSinceClockCheck >= CLOCK_CHECK_INTERVAL) {
+            checksSinceClockCheck = 0;
+            if (System.nanoTime() - deadline >= 0) truncate();
+        }
+        return super.isCancelled();
+    }
+
+    /**
+     * Records a found schedule. The search is truncated when a schedule beyond the maximum is found.
+     * @return true if the schedule should be passed on, false if the search should stop without it
+     */
+    @Override
+    public boolean scheduleFound() {
+        if (isCancelled()) return false;
+        if (schedulesFound.incrementAndGet() > maxSchedules) {
+            truncate();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of schedules the search may still find before it is truncated.
+     * @return maximum number of schedules less the ones found so far
+     */
+    @Override
+    public long getRemainingSchedules() {
+        return Math.max(0, maxSchedules - schedulesFound.get());
+    }
+
+    /**
+     * Counts candidate sections checked for conflicts.
+     * @param count number of candidate sections checked
+     */
+    @Override
+    public void conflictsChecked(int count) {
+        conflictChecks.add(count);
+    }
+
+    /**
+     * Counts a candidate section skipped because of a conflict.
+     */
+    @Override
+    public void branchPruned() {
+        branchesPruned.increment();
+    }
+
+    /**
+     * Applies the maximum number of schedules to a result that was not generated with these limits, such as
+     * a cached one.
+     * @param schedules complete list of schedules
+     * @return the first schedules up to the maximum
+     */
+    public List<List<Section>> apply(List<List<Section>> schedules) {
+        if (schedules.size() <= maxSchedules) return schedules;
+        truncate();
+        return schedules.subList(0, (int) maxSchedules);
+    }
+
+    /**
+     * Checks whether a limit was reached.
+     * @return true if the search stopped before finding every schedule
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Gets the time left until the deadline.
+     * @return milliseconds left, 0 if the deadline has passed, or Long.MAX_VALUE if there is no deadline
+     */
+    public long getRemainingMillis() {
+        if (!hasDeadline) return Long.MAX_VALUE;
+        return Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+    }
+
+    /**
+     * Gets the number of explored search nodes.
+     * @return number of cancellation checks made by the engine
+     */
+    public long getNodesExplored() {
+        return nodesExplored.sum();
+    }
+
+    /**
+     * Gets the number of conflict checks.
+     * @return number of candidate sections checked for conflicts
+     */
+    public long getConflictChecks() {
+        return conflictChecks.sum();
+    }
+
+    /**
+     * Gets the number of pruned branches.
+     * @return number of candidate sections skipped because of a conflict
+     */
+    public long getBranchesPruned() {
+        return branchesPruned.sum();
+    }
+
+    /**
+     * Stops the search because a limit was reached.
+     */
+    private void truncate() {
+        truncated = true;
+        cancel();
+    }
+}
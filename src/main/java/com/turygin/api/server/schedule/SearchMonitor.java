@@ -0,0 +1,65 @@
+package com.turygin.api.server.schedule;
+
+/**
+ * Lets the owner of a running search cancel it. Engines check the monitor while they search, so a cancelled search
+ * stops even if it has not found a schedule in a long time, and report every schedule they find to it.
+ */
+public class SearchMonitor {
+
+    /** Monitor of searches that are never cancelled. */
+    public static final SearchMonitor NONE = new SearchMonitor() {
+        @Override
+        public void cancel() {
+            throw new UnsupportedOperationException("Searches without a monitor cannot be cancelled.");
+        }
+    };
+
+    /** Set once the search should stop. */
+    private volatile boolean cancelled;
+
+    /**
+     * Asks the search to stop as soon as possible.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the search should stop.
+     * @return true if the search was cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Records a schedule found by the search before it is passed on. Engines that search on several threads may
+     * call this concurrently.
+     * @return true if the schedule should be passed on, false if the search should stop without it
+     */
+    public boolean scheduleFound() {
+        return !isCancelled();
+    }
+
+    /**
+     * Gets the number of schedules the search may still report before it stops. Engines that collect schedules
+     * before passing them on can use it to avoid collecting more than will ever be passed.
+     * @return remaining number of schedules, or Long.MAX_VALUE if there is no maximum
+     */
+    public long getRemainingSchedules() {
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Records candidate sections checked for conflicts with the partial schedule. Only counted by monitors that
+     * collect search statistics.
+     * @param count number of candidate sections checked
+     */
+    public void conflictsChecked(int count) {}
+
+    /**
+     * Records a candidate section skipped because it conflicts with the partial schedule or leaves a remaining
+     * course without sections. Only counted by monitors that collect search statistics.
+     */
+    public void branchPruned() {}
+}
@@ -0,0 +1,112 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Pairwise compatibility matrix of all sections in a cart. Sections are flattened into a dense index in course
+ * order, and each section has a row with a bit set for every section it does not conflict with.
+ */
+public class SectionConflictMatrix {
+
+    /** All sections in dense index order. */
+    private final List<Section> sections = new ArrayList<>();
+
+    /** Dense index of the first section of each course, plus the total number of sections at the end. */
+    private final int[] courseOffsets;
+
+    /** Compatibility row of every section. */
+    private final BitSet[] compatible;
+
+    /**
+     * Builds the matrix by comparing every pair of sections once.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     */
+    public SectionConflictMatrix(List<List<Section>> courses) {
+        courseOffsets = new int[courses.size() + 1];
+        for (int i = 0; i < courses.size(); i++) {
+            courseOffsets[i] = sections.size();
+            sections.addAll(courses.get(i));
+        }
+        courseOffsets[courses.size()] = sections.size();
+
+        int sectionCount = sections.size();
+        compatible = new BitSet[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            compatible[i] = new BitSet(sectionCount);
+        }
+        for (int i = 0; i < sectionCount; i++) {
+            for (int j = i + 1; j < sectionCount; j++) {
+                if (!sections.get(i).isConflicting(sections.get(j))) {
+                    compatible[i].set(j);
+                    compatible[j].set(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of sections in the matrix.
+     * @return number of sections
+     */
+    public int size() {
+        return sections.size();
+    }
+
+    /**
+     * Gets the number of courses in the matrix.
+     * @return number of courses
+     */
+    public int courseCount() {
+        return courseOffsets.length - 1;
+    }
+
+    /**
+     * Gets the dense index of the first section of a course.
+     * @param course course index
+     * @return dense index of the first section of the course
+     */
+    public int firstSection(int course) {
+        return courseOffsets[course];
+    }
+
+    /**
+     * Gets the dense index right after the last section of a course.
+     * @param course course index
+     * @return dense index right after the last section of the course
+     */
+    public int endSection(int course) {
+        return courseOffsets[course + 1];
+    }
+
+    /**
+     * Gets a section by its dense index.
+     * @param index dense section index
+     * @return section
+     */
+    public Section getSection(int index) {
+        return sections.get(index);
+    }
+
+    /**
+     * Gets the compatibility row of a section. The row must not be modified.
+     * @param index dense section index
+     * @return a set of dense indices of sections that do not conflict with the section
+     */
+    public BitSet getCompatible(int index) {
+        return compatible[index];
+    }
+
+    /**
+     * Creates a set that contains every section.
+     * @return a set of all dense section indices
+     */
+    public BitSet allSections() {
+        BitSet all = new BitSet(sections.size());
+        all.set(0, sections.size());
+        return all;
+    }
+}
@@ -0,0 +1,90 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schedule engine that checks every candidate section against each section of the partial schedule.
+ */
+public class SimpleScheduleEngine implements ScheduleEngine {
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer) {
+        buildSchedules(courses, consumer, SearchMonitor.NONE);
+    }
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one until the search is cancelled.
+     * Cancellation is checked before every section is tried.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     * @param monitor tells whether the search was cancelled and records found schedules
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer, SearchMonitor monitor) {
+        recursiveScheduleBuilder(courses, 0, new ArrayList<>(), consumer, monitor);
+    }
+
+    /**
+     * Recursive backtracking algorithm that generates a list of all possible schedules.
+     * @param courses a list of all courses that must be represented in the schedule
+     * @param currentCourseIndex index of the current course being processed
+     * @param currentSchedule current schedule represented by a list of sections
+     * @param consumer receives generated schedules
+     * @param monitor tells whether the search was cancelled and records found schedules and search statistics
+     * @return true if generation should continue, false if the consumer asked to stop or the search was cancelled
+     */
+    private boolean recursiveScheduleBuilder(List<List<Section>> courses, int currentCourseIndex,
+                                             List<Section> currentSchedule, ScheduleConsumer consumer,
+                                             SearchMonitor monitor) {
+
+        // Check if we have a schedule built ...
+        if (currentCourseIndex == courses.size()) {
+            // ... if so, pass a copy of it to the consumer and return
+            return monitor.scheduleFound() && consumer.accept(new ArrayList<>(currentSchedule));
+        }
+
+        // Go through each selected section of the current course
+        for (Section section : courses.get(currentCourseIndex)) {
+            if (monitor.isCancelled()) return false;
+
+            // Check if the section does not conflict with the current schedule. Skip if conflicts.
+            monitor.conflictsChecked(1);
+            if (isConflicting(currentSchedule, section)) {
+                monitor.branchPruned();
+            } else {
+                // Add section to schedule
+                currentSchedule.add(section);
+                // Recursively process the next course
+                boolean proceed = recursiveScheduleBuilder(courses, currentCourseIndex + 1, currentSchedule, consumer,
+                        monitor);
+                // All schedules with this section have been built. Remove it and try the next one.
+                currentSchedule.removeLast();
+                if (!proceed) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Helper method that checks whether a section conflicts with an existing schedule.
+     * @param schedule a list of sections comprising a schedule
+     * @param section section to check for conflict
+     * @return true if section is conflicting with schedule, false otherwise
+     */
+    private boolean isConflicting(List<Section> schedule, Section section) {
+        for (Section existingSections : schedule) {
+            if (existingSections.isConflicting(section)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,105 @@
+package com.turygin.api.server.schedule;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Conflict kernel that tests as many sections at a time as fit into the preferred vector of the CPU, with a single
+ * vectorized compare per packed field. Only usable if the JVM was started with --add-modules jdk.incubator.vector.
+ */
+class VectorConflictKernel implements ConflictKernel {
+
+    /** Widest integer vector the CPU supports natively. */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Checks whether a section conflicts with any of a range of sections.
+     * @param days meeting days of the section
+     * @param from start time of the section
+     * @param to end time of the section
+     * @param allDays meeting days of all packed sections
+     * @param allFrom start times of all packed sections
+     * @param allTo end times of all packed sections
+     * @param offset index of the first section of the range
+     * @param length number of sections in the range
+     * @return true if the section conflicts with at least one section of the range
+     */
+    @Override
+    public boolean conflictsWithAny(int days, int from, int to, int[] allDays, int[] allFrom, int[] allTo,
+                                    int offset, int length) {
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            if (conflicts(days, from, to, allDays, allFrom, allTo, offset + i).anyTrue()) return true;
+        }
+
+        // Remaining sections that do not fill a whole vector
+        for (; i < length; i++) {
+            int index = offset + i;
+            if (ScalarConflictKernel.conflicts(days, from, to, allDays[index], allFrom[index], allTo[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the sections that conflict with a section from a range of allowed sections.
+     * @param days meeting days of the section
+     * @param from start time of the section
+     * @param to end time of the section
+     * @param allDays meeting days of all packed sections
+     * @param allFrom start times of all packed sections
+     * @param allTo end times of all packed sections
+     * @param offset index of the first section of the range
+     * @param length number of sections in the range
+     * @param allowed flags of sections that are allowed so far
+     * @param compatible receives flags of sections that are allowed and do not conflict with the section
+     * @return number of sections in the range that are allowed and do not conflict with the section
+     */
+    @Override
+    public int filterCompatible(int days, int from, int to, int[] allDays, int[] allFrom, int[] allTo,
+                                int offset, int length, boolean[] allowed, boolean[] compatible) {
+        int count = 0;
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            int index = offset + i;
+            VectorMask<Integer> remaining = VectorMask.fromArray(SPECIES, allowed, index).
+                    andNot(conflicts(days, from, to, allDays, allFrom, allTo, index));
+            remaining.intoArray(compatible, index);
+            count += remaining.trueCount();
+        }
+
+        // Remaining sections that do not fill a whole vector
+        for (; i < length; i++) {
+            int index = offset + i;
+            compatible[index] = allowed[index] &&
+                    !ScalarConflictKernel.conflicts(days, from, to, allDays[index], allFrom[index], allTo[index]);
+            if (compatible[index]) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Tests a section against a vector of packed sections.
+     * @param days meeting days of the section
+     * @param from start time of the section
+     * @param to end time of the section
+     * @param allDays meeting days of all packed sections
+     * @param allFrom start times of all packed sections
+     * @param allTo end times of all packed sections
+     * @param index index of the first packed section of the vector
+     * @return mask of packed sections that conflict with the section
+     */
+    private static VectorMask<Integer> conflicts(int days, int from, int to, int[] allDays, int[] allFrom,
+                                                 int[] allTo, int index) {
+        VectorMask<Integer> sharedDays = IntVector.fromArray(SPECIES, allDays, index).
+                and(days).compare(VectorOperators.NE, 0);
+        VectorMask<Integer> startsBeforeEnd = IntVector.fromArray(SPECIES, allFrom, index).
+                compare(VectorOperators.LE, to);
+        VectorMask<Integer> endsAfterStart = IntVector.fromArray(SPECIES, allTo, index).
+                compare(VectorOperators.GE, from);
+        return sharedDays.and(startsBeforeEnd).and(endsAfterStart);
+    }
+}
@@ -0,0 +1,236 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Schedule engine that packs meeting days and times of all sections into primitive arrays and prunes the remaining
+ * courses with a conflict kernel. After a section is placed, the sections of every later course that conflict with
+ * it are removed in a single vectorized compare per course, and the branch is abandoned as soon as any later course
+ * runs out of sections. Courses are placed in cart order, so schedules are generated in the same order as by the
+ * simple engine.
+ *
+ * The vectorized kernel is used when the JVM is started with --add-modules jdk.incubator.vector. Otherwise the
+ * engine falls back to a scalar kernel and still benefits from the packed layout and forward checking.
+ */
+public class VectorScheduleEngine implements ScheduleEngine {
+
+    /** Kernel that tests packed sections for conflicts. */
+    private final ConflictKernel kernel;
+
+    /** Instantiates an engine with the fastest conflict kernel available. */
+    public VectorScheduleEngine() {
+        this(ConflictKernel.best());
+    }
+
+    /**
+     * Instantiates an engine with a particular conflict kernel.
+     * @param kernel kernel that tests packed sections for conflicts
+     */
+    VectorScheduleEngine(ConflictKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer) {
+        buildSchedules(courses, consumer, SearchMonitor.NONE);
+    }
+
+    /**
+     * Generates all possible schedules and passes them to the consumer one by one until the search is cancelled.
+     * Cancellation is checked before every section is tried.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param consumer receives generated schedules and decides whether generation should continue
+     * @param monitor tells whether the search was cancelled
+     */
+    @Override
+    public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer, SearchMonitor monitor) {
+        PackedSections packed = new PackedSections(courses);
+
+        // Sections of all courses at each level are kept together as one array of allowed flags
+        boolean[][] allowed = new boolean[courses.size() + 1][packed.size()];
+        Arrays.fill(allowed[0], true);
+        for (int c = 0; c < courses.size(); c++) {
+            if (packed.courseSize(c) == 0) return;
+        }
+
+        recursiveScheduleBuilder(packed, 0, allowed, new ArrayList<>(), consumer, monitor);
+    }
+
+    /**
+     * Recursive backtracking algorithm with forward checking in cart order.
+     * @param packed packed meeting days and times of all sections
+     * @param currentCourseIndex index of the current course being processed
+     * @param allowed flags of sections compatible with the partial schedule at each level
+     * @param currentSchedule current schedule represented by a list of sections
+     * @param consumer receives generated schedules
+     * @param monitor tells whether the search was cancelled and records found schedules and search statistics
+     * @return true if generation should continue, false if the consumer asked to stop or the search was cancelled
+     */
+    private boolean recursiveScheduleBuilder(PackedSections packed, int currentCourseIndex, boolean[][] allowed,
+                                             List<Section> currentSchedule, ScheduleConsumer consumer,
+                                             SearchMonitor monitor) {
+
+        // Check if we have a schedule built ...
+        if (currentCourseIndex == packed.courseCount()) {
+            // ... if so, pass a copy of it to the consumer and return
+            return monitor.scheduleFound() && consumer.accept(new ArrayList<>(currentSchedule));
+        }
+
+        boolean[] currentAllowed = allowed[currentCourseIndex];
+        boolean[] nextAllowed = allowed[currentCourseIndex + 1];
+        int end = packed.endSection(currentCourseIndex);
+
+        for (int i = packed.firstSection(currentCourseIndex); i < end; i++) {
+            if (monitor.isCancelled()) return false;
+            if (!currentAllowed[i]) continue;
+
+            // Prune domains of the later courses and skip the section if any of them becomes empty
+            if (!pruneLaterCourses(packed, currentCourseIndex, i, currentAllowed, nextAllowed, monitor)) {
+                monitor.branchPruned();
+                continue;
+            }
+
+            currentSchedule.add(packed.getSection(i));
+            boolean proceed = recursiveScheduleBuilder(packed, currentCourseIndex + 1, allowed, currentSchedule,
+                    consumer, monitor);
+            currentSchedule.removeLast();
+            if (!proceed) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes sections that conflict with a placed section from the domains of all later courses.
+     * @param packed packed meeting days and times of all sections
+     * @param course index of the course of the placed section
+     * @param section index of the placed section
+     * @param currentAllowed flags of sections compatible with the partial schedule
+     * @param nextAllowed receives flags of sections that are also compatible with the placed section
+     * @param monitor records search statistics
+     * @return true if no later course runs out of sections, false otherwise
+     */
+    private boolean pruneLaterCourses(PackedSections packed, int course, int section, boolean[] currentAllowed,
+                                      boolean[] nextAllowed, SearchMonitor monitor) {
+        int days = packed.days[section];
+        int from = packed.from[section];
+        int to = packed.to[section];
+        for (int c = course + 1; c < packed.courseCount(); c++) {
+            int first = packed.firstSection(c);
+            monitor.conflictsChecked(packed.courseSize(c));
+            int remaining = kernel.filterCompatible(days, from, to, packed.days, packed.from, packed.to,
+                    first, packed.courseSize(c), currentAllowed, nextAllowed);
+            if (remaining == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Meeting days and times of all sections of a cart, laid out as one primitive array per field so that
+     * consecutive sections can be loaded into a vector. Sections of each course are stored contiguously.
+     */
+    private static class PackedSections {
+
+        /** All sections in course order. */
+        private final Section[] sections;
+
+        /** Index of the first section of every course, followed by the total number of sections. */
+        private final int[] offsets;
+
+        /** Meeting days of every section. */
+        private final int[] days;
+
+        /** Start time of every section in seconds since midnight. */
+        private final int[] from;
+
+        /** End time of every section in seconds since midnight. */
+        private final int[] to;
+
+        /**
+         * Packs sections of a cart.
+         * @param courses a list of courses where each course is represented by a list of its selected sections
+         */
+        PackedSections(List<List<Section>> courses) {
+            offsets = new int[courses.size() + 1];
+            for (int c = 0; c < courses.size(); c++) {
+                offsets[c + 1] = offsets[c] + courses.get(c).size();
+            }
+
+            int size = offsets[courses.size()];
+            sections = new Section[size];
+            days = new int[size];
+            from = new int[size];
+            to = new int[size];
+            int i = 0;
+            for (List<Section> course : courses) {
+                for (Section section : course) {
+                    sections[i] = section;
+                    days[i] = section.getDaysOfWeek();
+                    from[i] = section.getFromTime().toLocalTime().toSecondOfDay();
+                    to[i] = section.getToTime().toLocalTime().toSecondOfDay();
+                    i++;
+                }
+            }
+        }
+
+        /**
+         * Gets number of sections.
+         * @return number of sections of all courses
+         */
+        int size() {
+            return sections.length;
+        }
+
+        /**
+         * Gets number of courses.
+         * @return number of courses
+         */
+        int courseCount() {
+            return offsets.length - 1;
+        }
+
+        /**
+         * Gets index of the first section of a course.
+         * @param course course index
+         * @return index of the first section
+         */
+        int firstSection(int course) {
+            return offsets[course];
+        }
+
+        /**
+         * Gets index after the last section of a course.
+         * @param course course index
+         * @return index after the last section
+         */
+        int endSection(int course) {
+            return offsets[course + 1];
+        }
+
+        /**
+         * Gets number of sections of a course.
+         * @param course course index
+         * @return number of sections
+         */
+        int courseSize(int course) {
+            return offsets[course + 1] - offsets[course];
+        }
+
+        /**
+         * Gets a section by its index.
+         * @param index section index
+         * @return section
+         */
+        Section getSection(int index) {
+            return sections[index];
+        }
+    }
+}
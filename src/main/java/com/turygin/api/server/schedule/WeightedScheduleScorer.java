@@ -0,0 +1,171 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Scores schedules as a weighted sum of the number of campus days, the idle minutes between classes on the same day,
+ * and the number of class meetings that start early in the morning.
+ *
+ * Campus days and early meetings can only grow as sections are added, so they form the lower bound of a partial
+ * schedule. Idle time can shrink when a later section fills a gap, so only the part of a gap that no section of a
+ * remaining course meets during contributes to the bound.
+ */
+public class WeightedScheduleScorer implements ScheduleScorer {
+
+    /** Milliseconds in a minute. */
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    /** Weight of each day the student has to be on campus. */
+    private final double dayWeight;
+
+    /** Weight of each idle minute between classes on the same day. */
+    private final double gapMinuteWeight;
+
+    /** Weight of each class meeting that starts before the early start threshold. */
+    private final double earlyMeetingWeight;
+
+    /** Meetings starting before this time are considered early. */
+    private final LocalTime earlyStartThreshold;
+
+    /**
+     * Instantiates a weighted scorer.
+     * @param dayWeight weight of each day the student has to be on campus
+     * @param gapMinuteWeight weight of each idle minute between classes on the same day
+     * @param earlyMeetingWeight weight of each class meeting that starts before the early start threshold
+     * @param earlyStartThreshold meetings starting before this time are considered early
+     */
+    public WeightedScheduleScorer(double dayWeight, double gapMinuteWeight, double earlyMeetingWeight,
+                                  LocalTime earlyStartThreshold) {
+        this.dayWeight = dayWeight;
+        this.gapMinuteWeight = gapMinuteWeight;
+        this.earlyMeetingWeight = earlyMeetingWeight;
+        this.earlyStartThreshold = earlyStartThreshold;
+    }
+
+    /**
+     * Scores a complete schedule.
+     * @param schedule a list of sections, one per course
+     * @return schedule score, lower is better
+     */
+    @Override
+    public double score(List<Section> schedule) {
+        return dayAndEarlyMeetingScore(schedule) + gapMinuteWeight * gapMinutes(schedule);
+    }
+
+    /**
+     * Computes a lower bound from campus days, early meetings and the idle time of a partial schedule that cannot be
+     * filled by the remaining courses.
+     * @param partialSchedule sections placed so far
+     * @param remainingCourses selected sections of every course that is not placed yet
+     * @return lower bound of the score of any completion
+     */
+    @Override
+    public double lowerBound(List<Section> partialSchedule, List<List<Section>> remainingCourses) {
+        double bound = dayAndEarlyMeetingScore(partialSchedule);
+        if (gapMinuteWeight > 0) {
+            bound += gapMinuteWeight * unfillableGapMinutes(partialSchedule, remainingCourses);
+        }
+        return bound;
+    }
+
+    /**
+     * Scores campus days and early meetings of a schedule.
+     * @param schedule a list of sections
+     * @return weighted number of campus days and early meetings
+     */
+    private double dayAndEarlyMeetingScore(List<Section> schedule) {
+        int days = 0;
+        int earlyMeetings = 0;
+        for (Section section : schedule) {
+            days |= section.getDaysOfWeek();
+            if (section.getFromTime().toLocalTime().isBefore(earlyStartThreshold)) {
+                earlyMeetings += Integer.bitCount(section.getDaysOfWeek());
+            }
+        }
+        return dayWeight * Integer.bitCount(days) + earlyMeetingWeight * earlyMeetings;
+    }
+
+    /**
+     * Computes the total idle time between consecutive classes on the same day.
+     * @param schedule a list of sections
+     * @return idle time in minutes
+     */
+    private long gapMinutes(List<Section> schedule) {
+        long gapMillis = 0;
+        for (Section.Day day : Section.Day.values()) {
+            // Collect sections meeting on the day in start time order
+            List<Section> meetings = new ArrayList<>();
+            for (Section section : schedule) {
+                if ((section.getDaysOfWeek() & day.value) != 0) {
+                    meetings.add(section);
+                }
+            }
+            meetings.sort(Comparator.comparing(Section::getFromTime));
+
+            for (int i = 1; i < meetings.size(); i++) {
+                long gap = meetings.get(i).getFromTime().getTime() - meetings.get(i - 1).getToTime().getTime();
+                gapMillis += Math.max(0, gap);
+            }
+        }
+        return gapMillis / MILLIS_PER_MINUTE;
+    }
+
+    /**
+     * Computes the idle time between consecutive classes of a partial schedule on the same day that stays idle no
+     * matter which sections of the remaining courses are added. Any minute of a gap during which no remaining section
+     * meets is still between two classes in every completed schedule.
+     * @param partialSchedule sections placed so far
+     * @param remainingCourses selected sections of every course that is not placed yet
+     * @return idle time in minutes, never more than the idle time of any completed schedule
+     */
+    private long unfillableGapMinutes(List<Section> partialSchedule, List<List<Section>> remainingCourses) {
+        long gapMillis = 0;
+        for (Section.Day day : Section.Day.values()) {
+            List<Section> meetings = new ArrayList<>();
+            for (Section section : partialSchedule) {
+                if ((section.getDaysOfWeek() & day.value) != 0) {
+                    meetings.add(section);
+                }
+            }
+            if (meetings.size() < 2) continue;
+            meetings.sort(Comparator.comparing(Section::getFromTime));
+
+            // Remaining sections meeting on the day may fill a gap, in start time order
+            List<Section> fillers = null;
+            for (int i = 1; i < meetings.size(); i++) {
+                long gapStart = meetings.get(i - 1).getToTime().getTime();
+                long gapEnd = meetings.get(i).getFromTime().getTime();
+                if (gapEnd <= gapStart) continue;
+
+                if (fillers == null) {
+                    fillers = new ArrayList<>();
+                    for (List<Section> sections : remainingCourses) {
+                        for (Section section : sections) {
+                            if ((section.getDaysOfWeek() & day.value) != 0) {
+                                fillers.add(section);
+                            }
+                        }
+                    }
+                    fillers.sort(Comparator.comparing(Section::getFromTime));
+                }
+
+                // Add up the parts of the gap no filler meets during
+                long covered = gapStart;
+                for (Section filler : fillers) {
+                    long fillerStart = filler.getFromTime().getTime();
+                    if (fillerStart >= gapEnd) break;
+                    if (fillerStart > covered) gapMillis += fillerStart - covered;
+                    covered = Math.max(covered, filler.getToTime().getTime());
+                    if (covered >= gapEnd) break;
+                }
+                if (covered < gapEnd) gapMillis += gapEnd - covered;
+            }
+        }
+        return gapMillis / MILLIS_PER_MINUTE;
+    }
+}
@@ -9,6 +9,8 @@ import org.hibernate.SessionFactory;
 import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.hibernate.query.criteria.JpaCriteriaQuery;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -70,6 +72,27 @@ public class Dao<T> {
         });
     }
 
+    /**
+     * Inserts new entities into the database in a single transaction. Inserts are sent to the database in JDBC
+     * batches, and the session is flushed and cleared after every batch to keep its memory use constant.
+     * Entities' new ids will be added to the objects.
+     * @param entities the entities to insert into the database
+     */
+    public void insertAll(Collection<T> entities) {
+        LOG.debug("Inserting {} entities", entities.size());
+        int batchSize = Math.max(1, SESSION_FACTORY.getSessionFactoryOptions().getJdbcBatchSize());
+        SESSION_FACTORY.inTransaction(session -> {
+            int count = 0;
+            for (T entity : entities) {
+                session.persist(entity);
+                if (++count % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+    }
+
     /**
      * Removes the entity from the database.
      * @param entity the entity to remove
@@ -118,6 +141,28 @@ public class Dao<T> {
         return entities;
     }
 
+    /**
+     * Get a list of all entities whose property is equal to one of the values in a single query.
+     * @param property the name of the entity object field
+     * @param values the values to compare against
+     * @return a list of entities matching the search criteria
+     */
+    public List<T> getByPropertyIn(String property, Collection<?> values) {
+        LOG.debug("Searching entities by {} in {} values", property, values.size());
+        if (values.isEmpty()) return new ArrayList<>();
+
+        Session session = SESSION_FACTORY.openSession();
+        HibernateCriteriaBuilder b = session.getCriteriaBuilder();
+        JpaCriteriaQuery<T> q = b.createQuery(ENTITY_CLASS);
+        Root<T> root = q.from(ENTITY_CLASS);
+        q.select(root).where(root.get(property).in(values));
+
+        List<T> entities = session.createQuery(q).getResultList();
+        session.close();
+        LOG.debug("Found {} entities.", entities.size());
+        return entities;
+    }
+
     /**
      * Get a list of all entities that match the property LIKE %value% condition.
      * @param property the name of the enitity object field
@@ -0,0 +1,58 @@
+package com.turygin.persistence.dao;
+
+import com.turygin.persistence.entity.Schedule;
+
+/**
+ * A class that extends generic Dao class implements schedule specific functionality.
+ */
+public class ScheduleDao extends Dao<Schedule> {
+
+    /**
+     * Instantiates schedule dao.
+     */
+    public ScheduleDao() {
+        super(Schedule.class);
+    }
+
+    /**
+     * Deletes schedules of a user together with their schedule sections. Rows are deleted with one statement per
+     * table without loading them, so the cost does not grow with the number of entities involved. Entities loaded
+     * before the call are not updated.
+     * @param userId unique user ID
+     * @param selectedOnly whether only the selected schedules are deleted
+     * @return number of schedules deleted
+     */
+    public int deleteByUser(long userId, boolean selectedOnly) {
+        LOG.debug("Deleting {}schedules of user {}", selectedOnly ? "selected " : "", userId);
+        String condition = selectedOnly ? " and s.selected = true" : "";
+        int deleted = SESSION_FACTORY.fromTransaction(session -> {
+            // Schedule sections go first, they reference the schedules
+            session.createMutationQuery("delete from ScheduleSection ss where ss.schedule.id in " +
+                            "(select s.id from Schedule s where s.user.id = :userId" + condition + ")").
+                    setParameter("userId", userId).
+                    executeUpdate();
+            return session.createMutationQuery("delete from Schedule s where s.user.id = :userId" + condition).
+                    setParameter("userId", userId).
+                    executeUpdate();
+        });
+        LOG.debug("Deleted {} schedules.", deleted);
+        return deleted;
+    }
+
+    /**
+     * Deletes packed schedules of a user with a single statement, without loading them.
+     * @param userId unique user ID
+     * @param selectedOnly whether only the selected schedules are deleted
+     * @return number of packed schedules deleted
+     */
+    public int deletePackedByUser(long userId, boolean selectedOnly) {
+        LOG.debug("Deleting {}packed schedules of user {}", selectedOnly ? "selected " : "", userId);
+        String condition = selectedOnly ? " and s.selected = true" : "";
+        int deleted = SESSION_FACTORY.fromTransaction(session ->
+                session.createMutationQuery("delete from SchedulePacked s where s.user.id = :userId" + condition).
+                        setParameter("userId", userId).
+                        executeUpdate());
+        LOG.debug("Deleted {} packed schedules.", deleted);
+        return deleted;
+    }
+}
@@ -0,0 +1,153 @@
+package com.turygin.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.sql.Time;
+import java.util.Objects;
+
+/**
+ * A class representing a weekly time window the user wants to keep free of classes.
+ */
+@Entity
+@Table(name = "blocked_time")
+public class BlockedTime {
+
+    /** Unique ID. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    /** The user that blocked the time. Unidirectional connection. */
+    @ManyToOne
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    /** Blocked days, encoded the same way as section meeting days. */
+    @Column(name = "days_of_week")
+    private byte daysOfWeek;
+
+    /** Start of the window. */
+    @Column(name = "from_time")
+    private Time fromTime;
+
+    /** End of the window. */
+    @Column(name = "to_time")
+    private Time toTime;
+
+    /** Empty constructor. */
+    public BlockedTime() {}
+
+    /**
+     * Instantiates a new blocked time window.
+     * @param user the user that blocked the time
+     * @param daysOfWeek blocked days, encoded the same way as section meeting days
+     * @param fromTime start of the window
+     * @param toTime end of the window
+     */
+    public BlockedTime(User user, int daysOfWeek, Time fromTime, Time toTime) {
+        this.user = user;
+        this.fromTime = fromTime;
+        this.toTime = toTime;
+        setDaysOfWeek(daysOfWeek);
+    }
+
+    /**
+     * Gets id.
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets user.
+     * @return the user
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Sets user.
+     * @param user the user
+     */
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    /**
+     * Gets days of week.
+     * @return the days of week
+     */
+    public byte getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    /**
+     * Sets days of week.
+     * @param daysOfWeek the days of week
+     */
+    public void setDaysOfWeek(int daysOfWeek) {
+        if (daysOfWeek < 0 || daysOfWeek > 31) {
+            throw new IllegalArgumentException("The invalid days of the week encoded.");
+        }
+        this.daysOfWeek = (byte) daysOfWeek;
+    }
+
+    /**
+     * Gets start time.
+     * @return the start time
+     */
+    public Time getFromTime() {
+        return fromTime;
+    }
+
+    /**
+     * Sets start time.
+     * @param fromTime the start time
+     */
+    public void setFromTime(Time fromTime) {
+        this.fromTime = fromTime;
+    }
+
+    /**
+     * Gets end time.
+     * @return the end time
+     */
+    public Time getToTime() {
+        return toTime;
+    }
+
+    /**
+     * Sets end time.
+     * @param toTime the end time
+     */
+    public void setToTime(Time toTime) {
+        this.toTime = toTime;
+    }
+
+    /**
+     * Performs deep equality comparison.
+     * @param o object to compare to
+     * @return true if all fields of the object are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BlockedTime blockedTime = (BlockedTime) o;
+        return daysOfWeek == blockedTime.daysOfWeek &&
+                Objects.equals(user, blockedTime.user) &&
+                Objects.equals(fromTime, blockedTime.fromTime) &&
+                Objects.equals(toTime, blockedTime.toTime);
+    }
+
+    /**
+     * Generates a hash based on object fields.
+     * @return hash value
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(user, daysOfWeek, fromTime, toTime);
+    }
+}
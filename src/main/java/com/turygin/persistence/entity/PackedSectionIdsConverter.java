@@ -0,0 +1,75 @@
+package com.turygin.persistence.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Packs an array of section IDs into a compact binary column. Every ID is stored as the difference from the previous
+ * one, zigzag encoded so that negative differences stay small, and written as a variable length integer of 7 bits
+ * per byte. Section IDs of a schedule are close to each other, so most of them take one or two bytes.
+ */
+@Converter
+public class PackedSectionIdsConverter implements AttributeConverter<long[], byte[]> {
+
+    /**
+     * Packs section IDs.
+     * @param sectionIds section IDs in schedule order
+     * @return packed section IDs, or null if there are no IDs
+     */
+    @Override
+    public byte[] convertToDatabaseColumn(long[] sectionIds) {
+        if (sectionIds == null) return null;
+
+        ByteArrayOutputStream packed = new ByteArrayOutputStream(sectionIds.length * 2);
+        long previous = 0;
+        for (long sectionId : sectionIds) {
+            long delta = sectionId - previous;
+            long zigzag = (delta << 1) ^ (delta >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                packed.write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            packed.write((int) zigzag);
+            previous = sectionId;
+        }
+        return packed.toByteArray();
+    }
+
+    /**
+     * Unpacks section IDs.
+     * @param packed packed section IDs
+     * @return section IDs in schedule order, or null if there is no value
+     * @throws IllegalArgumentException if the value ends in the middle of an ID
+     */
+    @Override
+    public long[] convertToEntityAttribute(byte[] packed) {
+        if (packed == null) return null;
+
+        // Every ID takes at least one byte
+        long[] sectionIds = new long[packed.length];
+        int count = 0;
+        long previous = 0;
+        int i = 0;
+        while (i < packed.length) {
+            long zigzag = 0;
+            int shift = 0;
+            byte current;
+            do {
+                if (i == packed.length || shift > 63) {
+                    throw new IllegalArgumentException("Packed section IDs are corrupted.");
+                }
+                current = packed[i++];
+                zigzag |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+
+            long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+            previous += delta;
+            sectionIds[count++] = previous;
+        }
+        return Arrays.copyOf(sectionIds, count);
+    }
+}
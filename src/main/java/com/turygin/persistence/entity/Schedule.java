@@ -12,9 +12,11 @@ import java.util.Objects;
 @Entity
 @Table(name = "schedule")
 public class Schedule {
-    /** Unique ID. */
+    /** Unique ID. Allocated in blocks from the ID generator table, so that inserts can be batched. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "schedule_id")
+    @TableGenerator(name = "schedule_id", table = "id_generator", pkColumnName = "name", valueColumnName = "next_id",
+            pkColumnValue = "schedule", allocationSize = 50)
     private long id;
 
     /** The user that has the course in their cart. */
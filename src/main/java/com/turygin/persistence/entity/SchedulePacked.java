@@ -0,0 +1,131 @@
+package com.turygin.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A class representing a schedule stored as a single row. Section IDs are packed into one column instead of
+ * a schedule section row per section, so the sections have to be looked up separately.
+ */
+@Entity
+@Table(name = "schedule_packed")
+public class SchedulePacked {
+    /** Unique ID. Allocated in blocks from the ID generator table, so that inserts can be batched. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "schedule_packed_id")
+    @TableGenerator(name = "schedule_packed_id", table = "id_generator", pkColumnName = "name", valueColumnName = "next_id",
+            pkColumnValue = "schedule_packed", allocationSize = 50)
+    private long id;
+
+    /** The owner of the schedule. Unidirectional connection. */
+    @ManyToOne
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    /** Is the selected user schedule? */
+    @Column(name = "selected")
+    private boolean selected;
+
+    /** IDs of sections that are part of the schedule, in schedule order. */
+    @Convert(converter = PackedSectionIdsConverter.class)
+    @Column(name = "section_ids")
+    private long[] sectionIds = new long[0];
+
+    /** Empty constructor. */
+    public SchedulePacked() {}
+
+    /**
+     * Instantiates a new packed schedule object for a user.
+     * @param user owner of the schedule
+     * @param selected is this the preferred user schedule
+     * @param sections sections that are part of the schedule
+     */
+    public SchedulePacked(User user, boolean selected, List<Section> sections) {
+        this.user = user;
+        this.selected = selected;
+        this.sectionIds = sections.stream().mapToLong(Section::getId).toArray();
+    }
+
+    /**
+     * Gets id.
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets section IDs.
+     * @return the section IDs
+     */
+    public long[] getSectionIds() {
+        return sectionIds;
+    }
+
+    /**
+     * Sets section IDs.
+     * @param sectionIds the section IDs
+     */
+    public void setSectionIds(long[] sectionIds) {
+        this.sectionIds = sectionIds == null ? new long[0] : sectionIds;
+    }
+
+    /**
+     * Is the schedule preferred.
+     * @return the boolean
+     */
+    public boolean isSelected() {
+        return selected;
+    }
+
+    /**
+     * Sets preferred.
+     * @param selected the selected
+     */
+    public void setSelected(boolean selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * Gets user.
+     * @return the user
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Sets user.
+     * @param user the user
+     */
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    /**
+     * Performs deep equality comparison.
+     * @param o object to compare to
+     * @return true if all fields of the object are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SchedulePacked schedule = (SchedulePacked) o;
+        return selected == schedule.selected &&
+                Objects.equals(user, schedule.user) &&
+                Arrays.equals(sectionIds, schedule.sectionIds);
+    }
+
+    /**
+     * Generates a hash based on object fields.
+     * @return hash value
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(user, selected, Arrays.hashCode(sectionIds));
+    }
+}
@@ -10,9 +10,11 @@ import java.util.Objects;
 @Entity
 @Table(name = "schedule_section")
 public class ScheduleSection {
-    /** Unique ID. */
+    /** Unique ID. Allocated in blocks from the ID generator table, so that inserts can be batched. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "schedule_section_id")
+    @TableGenerator(name = "schedule_section_id", table = "id_generator", pkColumnName = "name", valueColumnName = "next_id",
+            pkColumnValue = "schedule_section", allocationSize = 50)
     private long id;
 
     /** The associated schedule. */
@@ -0,0 +1,75 @@
+package com.turygin.api.server.cofig;
+
+import com.turygin.api.server.schedule.ScheduleJob;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Schedule jobs tests. */
+class ScheduleJobsTest {
+
+    static {
+        // Settings are read once, when jobs are first used
+        System.setProperty("schedule.jobs.poolSize", "1");
+        System.setProperty("schedule.jobs.queueSize", "1");
+        System.setProperty("schedule.jobs.retentionMinutes", "0");
+    }
+
+    /**
+     * Waits for a job to finish.
+     * @param job job to wait for
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static void awaitFinished(ScheduleJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (job.isActive() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(job.isActive());
+    }
+
+    /** Ensure jobs are rejected while the queue is full, and a superseded job gives up its place in the queue. */
+    @Test
+    void boundedQueue() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ScheduleJob running = ScheduleJobs.submit(1, job -> {
+            started.countDown();
+            release.await();
+        });
+        assertNotNull(running);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        try {
+            ScheduleJob queued = ScheduleJobs.submit(2, job -> {});
+            assertNotNull(queued);
+            assertNull(ScheduleJobs.submit(3, job -> {}));
+
+            // A new job of the same user takes the place of the queued one
+            ScheduleJob replacement = ScheduleJobs.submit(2, job -> {});
+            assertNotNull(replacement);
+            assertEquals(ScheduleJob.State.CANCELLED, queued.getState());
+
+            release.countDown();
+            awaitFinished(replacement);
+            assertEquals(ScheduleJob.State.COMPLETED, replacement.getState());
+        } finally {
+            release.countDown();
+        }
+        awaitFinished(running);
+    }
+
+    /** Ensure finished jobs are forgotten once they are looked up after the retention period. */
+    @Test
+    void finishedJobsArePurgedOnRead() throws InterruptedException {
+        ScheduleJob job = ScheduleJobs.submit(4, runningJob -> {});
+        assertNotNull(job);
+        awaitFinished(job);
+        Thread.sleep(5);
+
+        assertNull(ScheduleJobs.get(job.getId()));
+    }
+}
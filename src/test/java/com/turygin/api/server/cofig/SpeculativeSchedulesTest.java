@@ -0,0 +1,168 @@
+package com.turygin.api.server.cofig;
+
+import com.turygin.api.server.schedule.BitmapScheduleEngine;
+import com.turygin.api.server.schedule.ScheduleTestHelper;
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Speculative schedules tests. */
+class SpeculativeSchedulesTest {
+
+    /** Delay of background generation used by the tests, in milliseconds. */
+    private static final long DELAY_MILLIS = 50;
+
+    static {
+        // Settings are read once, when background generation is first used
+        System.setProperty("schedule.speculative.enabled", "true");
+        System.setProperty("schedule.speculative.delayMillis", String.valueOf(DELAY_MILLIS));
+        System.setProperty("schedule.speculative.poolSize", "2");
+    }
+
+    /**
+     * Creates a cart that is not shared with other tests.
+     * @param firstSectionId ID of the first section, the other sections get the following IDs
+     * @return a list of courses where each course is represented by a list of its selected sections
+     */
+    private static List<List<Section>> cart(long firstSectionId) {
+        return List.of(
+                List.of(ScheduleTestHelper.section(firstSectionId, Section.Day.MONDAY.value, "09:00:00", "10:00:00"),
+                        ScheduleTestHelper.section(firstSectionId + 1, Section.Day.TUESDAY.value, "09:00:00",
+                                "10:00:00")),
+                List.of(ScheduleTestHelper.section(firstSectionId + 2, Section.Day.MONDAY.value, "09:30:00",
+                        "10:30:00")));
+    }
+
+    /**
+     * Creates a cart loader that counts down a latch when background generation starts.
+     * @param courses cart to load
+     * @param started counted down once the cart is loaded
+     * @return cart loader
+     */
+    private static Supplier<List<List<Section>>> loader(List<List<Section>> courses, CountDownLatch started) {
+        return () -> {
+            started.countDown();
+            return courses;
+        };
+    }
+
+    /**
+     * Checks whether the schedules of a cart are cached.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return true if the cart did not have to be generated
+     */
+    private static boolean isCached(List<List<Section>> courses) {
+        AtomicInteger builds = new AtomicInteger();
+        ScheduleEngines.cache().getOrBuild(courses, (cart, consumer) -> builds.incrementAndGet());
+        return builds.get() == 0;
+    }
+
+    /** Ensure a cart change drops the pending generation of the previous cart. */
+    @Test
+    void cartChangeDropsPendingGeneration() throws InterruptedException {
+        CountDownLatch previousStarted = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        SpeculativeSchedules.cartChanged(1, loader(cart(100), previousStarted));
+        SpeculativeSchedules.cartChanged(1, loader(cart(110), started));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertFalse(previousStarted.await(DELAY_MILLIS * 4, TimeUnit.MILLISECONDS));
+    }
+
+    /** Ensure joining running generation waits for it and finds its result in the cache. */
+    @Test
+    void joinsRunningGeneration() throws InterruptedException {
+        List<List<Section>> courses = cart(200);
+        CountDownLatch started = new CountDownLatch(1);
+
+        // Loading takes a while, so that the generation is still running when it is joined
+        SpeculativeSchedules.cartChanged(2, () -> {
+            started.countDown();
+            try {
+                Thread.sleep(DELAY_MILLIS * 2);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return courses;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertTrue(SpeculativeSchedules.await(2, 5000));
+        assertTrue(isCached(courses));
+        assertEquals(new BitmapScheduleEngine().buildSchedules(courses),
+                ScheduleEngines.cache().getOrBuild(courses, new BitmapScheduleEngine()));
+    }
+
+    /** Ensure a foreground request drops generation that has not started instead of waiting for the delay. */
+    @Test
+    void awaitDropsPendingGeneration() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        SpeculativeSchedules.cartChanged(3, loader(cart(300), started));
+
+        assertFalse(SpeculativeSchedules.await(3, 5000));
+
+        assertFalse(started.await(DELAY_MILLIS * 4, TimeUnit.MILLISECONDS));
+    }
+
+    /** Ensure joined generation that does not finish in time is dropped without caching a partial result. */
+    @Test
+    void awaitTimeoutDropsGeneration() throws InterruptedException {
+        List<List<Section>> courses = cart(400);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SpeculativeSchedules.cartChanged(4, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return courses;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertFalse(SpeculativeSchedules.await(4, 10));
+        release.countDown();
+
+        // Wait for the dropped generation to end
+        assertFalse(SpeculativeSchedules.await(4, 5000));
+        assertFalse(isCached(courses));
+    }
+
+    /** Ensure generation pauses while foreground requests generate schedules, unless it is joined. */
+    @Test
+    void pausesDuringForegroundGeneration() throws InterruptedException {
+        List<List<Section>> courses = cart(500);
+        CountDownLatch started = new CountDownLatch(1);
+
+        SpeculativeSchedules.foregroundStarted();
+        try {
+            SpeculativeSchedules.cartChanged(5, loader(courses, started));
+            assertFalse(started.await(DELAY_MILLIS * 4, TimeUnit.MILLISECONDS));
+
+            // A paused generation resumes once a request of the same user waits for it
+            assertTrue(SpeculativeSchedules.await(5, 5000));
+            assertEquals(0, started.getCount());
+        } finally {
+            SpeculativeSchedules.foregroundFinished();
+        }
+
+        CountDownLatch resumed = new CountDownLatch(1);
+        SpeculativeSchedules.foregroundStarted();
+        try {
+            SpeculativeSchedules.cartChanged(5, loader(cart(510), resumed));
+            assertFalse(resumed.await(DELAY_MILLIS * 4, TimeUnit.MILLISECONDS));
+        } finally {
+            SpeculativeSchedules.foregroundFinished();
+        }
+        assertTrue(resumed.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,102 @@
+package com.turygin.api.server.resource;
+
+import com.turygin.api.server.model.NormalizedSchedulesDTO;
+import com.turygin.api.server.model.NormalizedSectionDTO;
+import com.turygin.api.server.schedule.ScheduleTestHelper;
+import com.turygin.persistence.entity.Course;
+import com.turygin.persistence.entity.Department;
+import com.turygin.persistence.entity.Instructor;
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Mapper tests. */
+class MapperTest {
+
+    /** Department of the test courses. */
+    private final Department department = new Department("CS", "Computer Science");
+
+    /** Instructor of the test sections. */
+    private final Instructor instructor = new Instructor("Ada", "Lovelace");
+
+    /**
+     * Creates a course with an ID.
+     * @param id unique course ID
+     * @return new course
+     */
+    private Course course(long id) {
+        Course course = new Course("Course " + id, "Description", 3, (int) id, department);
+        try {
+            // IDs are normally assigned by the database
+            Field idField = Course.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.setLong(course, id);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException(exception);
+        }
+        return course;
+    }
+
+    /**
+     * Creates a section of a course with an ID.
+     * @param id unique section ID
+     * @param course course of the section
+     * @param daysOfWeek combination of Section.Day values
+     * @return new section
+     */
+    private Section section(long id, Course course, int daysOfWeek) {
+        Section section = ScheduleTestHelper.section(id, daysOfWeek, "09:00:00", "10:00:00");
+        section.setCourse(course);
+        section.setInstructor(instructor);
+        return section;
+    }
+
+    /** Ensure sections and courses shared by schedules are listed once and schedules point to the right ones. */
+    @Test
+    void toNormalizedSchedulesDTO() {
+        Course first = course(1);
+        Course second = course(2);
+        Section firstMonday = section(11, first, Section.Day.MONDAY.value);
+        Section firstTuesday = section(12, first, Section.Day.TUESDAY.value);
+        Section secondFriday = section(21, second, Section.Day.FRIDAY.value);
+        List<List<Section>> schedules = List.of(List.of(firstMonday, secondFriday),
+                List.of(firstTuesday, secondFriday), List.of(firstMonday, secondFriday));
+
+        NormalizedSchedulesDTO normalized = Mapper.toNormalizedSchedulesDTO(100, schedules);
+
+        // Every course and section is listed once, in the order it is first seen
+        assertEquals(List.of(1L, 2L), normalized.getCourses().stream().map(course -> course.getId()).toList());
+        List<NormalizedSectionDTO> sections = normalized.getSections();
+        assertEquals(List.of(11L, 21L, 12L), sections.stream().map(section -> section.getSection().getId()).toList());
+        assertEquals(List.of(0, 1, 0), sections.stream().map(NormalizedSectionDTO::getCourse).toList());
+
+        // Schedules keep their IDs and list positions of their sections
+        assertArrayEquals(new long[] {100, 101, 102}, normalized.getScheduleIds());
+        assertEquals(schedules.size(), normalized.getSchedules().length);
+        for (int i = 0; i < schedules.size(); i++) {
+            int[] positions = normalized.getSchedules()[i];
+            assertEquals(schedules.get(i).size(), positions.length);
+            for (int j = 0; j < positions.length; j++) {
+                NormalizedSectionDTO section = sections.get(positions[j]);
+                assertEquals(schedules.get(i).get(j).getId(), section.getSection().getId());
+                assertEquals(schedules.get(i).get(j).getCourse().getId(),
+                        normalized.getCourses().get(section.getCourse()).getId());
+            }
+        }
+    }
+
+    /** Ensure no schedules are converted to empty lookup tables. */
+    @Test
+    void toNormalizedSchedulesDTOEmpty() {
+        NormalizedSchedulesDTO normalized = Mapper.toNormalizedSchedulesDTO(100, List.of());
+
+        assertTrue(normalized.getCourses().isEmpty());
+        assertTrue(normalized.getSections().isEmpty());
+        assertEquals(0, normalized.getScheduleIds().length);
+        assertEquals(0, normalized.getSchedules().length);
+    }
+}
@@ -0,0 +1,29 @@
+package com.turygin.api.server.resource;
+
+import com.turygin.api.server.cofig.ExceptionHandler;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Schedule resource tests. */
+class ScheduleResourceTest {
+
+    /** Ensure known schedule formats are accepted in any case, and a missing format means the full one. */
+    @Test
+    void knownFormat() {
+        assertDoesNotThrow(() -> ScheduleResource.checkFormat(null));
+        assertDoesNotThrow(() -> ScheduleResource.checkFormat("full"));
+        assertDoesNotThrow(() -> ScheduleResource.checkFormat("Normalized"));
+    }
+
+    /** Ensure an unknown schedule format is rejected with 400. */
+    @Test
+    void unknownFormat() {
+        IllegalArgumentException exception =
+                assertThrows(IllegalArgumentException.class, () -> ScheduleResource.checkFormat("xml"));
+
+        Response response = new ExceptionHandler().toResponse(exception);
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+    }
+}
@@ -0,0 +1,92 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Bitmap schedule engine tests. */
+class BitmapScheduleEngineTest {
+
+    /** Engine under test. */
+    private final ScheduleEngine engine = new BitmapScheduleEngine();
+
+    /** Ensure an empty cart produces a single empty schedule, same as the simple engine. */
+    @Test
+    void emptyCart() {
+        List<List<Section>> schedules = engine.buildSchedules(List.of());
+
+        assertEquals(1, schedules.size());
+        assertTrue(schedules.getFirst().isEmpty());
+    }
+
+    /** Ensure conflicting sections are never combined. */
+    @Test
+    void skipsConflictingSections() {
+        Section morning = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section overlapping = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:30:00", "10:30:00");
+        Section afternoon = ScheduleTestHelper.section(Section.Day.MONDAY.value, "13:00:00", "14:00:00");
+
+        List<List<Section>> schedules = engine.buildSchedules(List.of(List.of(morning), List.of(overlapping, afternoon)));
+
+        assertEquals(1, schedules.size());
+        assertSame(afternoon, schedules.getFirst().get(1));
+    }
+
+    /** Ensure generation stops as soon as the consumer asks to. */
+    @Test
+    void consumerStopsGeneration() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(3), 4, 5);
+        List<List<Section>> allSchedules = engine.buildSchedules(courses);
+        List<List<Section>> firstSchedules = new ArrayList<>();
+
+        engine.buildSchedules(courses, schedule -> firstSchedules.add(schedule) && firstSchedules.size() < 2);
+
+        assertEquals(allSchedules.subList(0, Math.min(2, allSchedules.size())), firstSchedules);
+    }
+
+    /** Ensure a cancelled search stops even if it never finds a schedule. */
+    @Test
+    void cancellationStopsSearch() {
+        List<List<Section>> courses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            List<Section> sections = new ArrayList<>();
+            String time = String.format("%02d:00:00", 8 + i);
+            for (Section.Day day : Section.Day.values()) {
+                sections.add(ScheduleTestHelper.section(day.value, time, time));
+            }
+            courses.add(sections);
+        }
+        // The last course conflicts with every section of the other courses
+        courses.add(List.of(ScheduleTestHelper.section(31, "07:00:00", "20:00:00")));
+        AtomicInteger checks = new AtomicInteger();
+        SearchMonitor monitor = new SearchMonitor() {
+            @Override
+            public boolean isCancelled() {
+                if (checks.incrementAndGet() == 100) cancel();
+                return super.isCancelled();
+            }
+        };
+
+        engine.buildSchedules(courses, schedule -> fail("No schedules expected."), monitor);
+
+        assertEquals(100, checks.get());
+    }
+
+    /** Ensure the engine generates the same schedules in the same order as the simple engine. */
+    @Test
+    void matchesSimpleEngine() {
+        Random random = new Random(7);
+        ScheduleEngine simpleEngine = new SimpleScheduleEngine();
+        for (int i = 0; i < 50; i++) {
+            List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 1 + random.nextInt(6), 5);
+
+            assertEquals(simpleEngine.buildSchedules(courses), engine.buildSchedules(courses));
+        }
+    }
+}
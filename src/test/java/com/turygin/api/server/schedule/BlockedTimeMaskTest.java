@@ -0,0 +1,76 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Blocked time mask tests. */
+class BlockedTimeMaskTest {
+
+    /** Ensure sections meeting during a blocked window are blocked, and other sections are not. */
+    @Test
+    void blocksOverlappingSections() {
+        BlockedTimeMask mask = new BlockedTimeMask(List.of());
+        mask.block(Section.Day.TUESDAY.value, LocalTime.of(13, 0), LocalTime.of(17, 0));
+
+        assertTrue(mask.isBlocked(ScheduleTestHelper.section(Section.Day.TUESDAY.value, "12:00:00", "13:15:00")));
+        assertTrue(mask.isBlocked(ScheduleTestHelper.section(Section.Day.TUESDAY.value, "14:00:00", "15:00:00")));
+        assertTrue(mask.isBlocked(ScheduleTestHelper.section(Section.Day.TUESDAY.value, "16:59:00", "18:00:00")));
+        assertTrue(mask.isBlocked(ScheduleTestHelper.section(
+                Section.Day.MONDAY.value | Section.Day.TUESDAY.value, "12:00:00", "18:00:00")));
+        assertFalse(mask.isBlocked(ScheduleTestHelper.section(Section.Day.MONDAY.value, "14:00:00", "15:00:00")));
+        assertFalse(mask.isBlocked(ScheduleTestHelper.section(Section.Day.TUESDAY.value, "09:00:00", "10:00:00")));
+    }
+
+    /** Ensure sections that only touch a blocked window are not blocked. */
+    @Test
+    void windowsAreHalfOpen() {
+        BlockedTimeMask mask = new BlockedTimeMask(List.of());
+        mask.block(Section.Day.FRIDAY.value, LocalTime.MIDNIGHT, LocalTime.of(10, 0));
+
+        assertFalse(mask.isBlocked(ScheduleTestHelper.section(Section.Day.FRIDAY.value, "10:00:00", "11:00:00")));
+        assertTrue(mask.isBlocked(ScheduleTestHelper.section(Section.Day.FRIDAY.value, "09:59:00", "11:00:00")));
+    }
+
+    /** Ensure blocked sections are removed from every course while the courses are kept. */
+    @Test
+    void removesBlockedSections() {
+        Section early = ScheduleTestHelper.section(Section.Day.MONDAY.value, "08:00:00", "09:00:00");
+        Section late = ScheduleTestHelper.section(Section.Day.MONDAY.value, "11:00:00", "12:00:00");
+        BlockedTimeMask mask = new BlockedTimeMask(List.of());
+        mask.block(Section.Day.MONDAY.value, LocalTime.MIDNIGHT, LocalTime.of(10, 0));
+
+        List<List<Section>> allowed = mask.apply(List.of(List.of(early, late), List.of(early)));
+
+        assertEquals(List.of(List.of(late), List.of()), allowed);
+        assertTrue(new BitmapScheduleEngine().buildSchedules(allowed).isEmpty());
+    }
+
+    /** Ensure the mask agrees with a direct comparison of random sections and windows. */
+    @Test
+    void matchesDirectComparison() {
+        Random random = new Random(21);
+        for (int i = 0; i < 200; i++) {
+            int days = 1 + random.nextInt(31);
+            LocalTime from = LocalTime.of(7 + random.nextInt(12), random.nextInt(60));
+            LocalTime to = from.plusMinutes(random.nextInt(240));
+            if (to.isBefore(from)) to = LocalTime.of(23, 59);
+            BlockedTimeMask mask = new BlockedTimeMask(List.of());
+            mask.block(days, from, to);
+
+            for (int j = 0; j < 20; j++) {
+                Section section = ScheduleTestHelper.randomSection(random);
+                LocalTime sectionFrom = section.getFromTime().toLocalTime();
+                LocalTime sectionTo = section.getToTime().toLocalTime();
+                boolean expected = (section.getDaysOfWeek() & days) != 0 &&
+                        sectionFrom.isBefore(to) && sectionTo.isAfter(from) && sectionFrom.isBefore(sectionTo);
+                assertEquals(expected, mask.isBlocked(section), section.getMeetingTimesString());
+            }
+        }
+    }
+}
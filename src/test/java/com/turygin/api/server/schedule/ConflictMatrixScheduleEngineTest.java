@@ -0,0 +1,57 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Conflict matrix schedule engine tests. */
+class ConflictMatrixScheduleEngineTest {
+
+    /** Engine under test. */
+    private final ScheduleEngine engine = new ConflictMatrixScheduleEngine();
+
+    /** Ensure the matrix marks only non-conflicting sections as compatible. */
+    @Test
+    void compatibilityRows() {
+        Section morning = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section overlapping = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:30:00", "10:30:00");
+        Section afternoon = ScheduleTestHelper.section(Section.Day.MONDAY.value, "13:00:00", "14:00:00");
+        SectionConflictMatrix matrix =
+                new SectionConflictMatrix(List.of(List.of(morning), List.of(overlapping, afternoon)));
+
+        assertEquals(3, matrix.size());
+        assertEquals(1, matrix.firstSection(1));
+        assertFalse(matrix.getCompatible(0).get(1));
+        assertTrue(matrix.getCompatible(0).get(2));
+        assertTrue(matrix.getCompatible(2).get(0));
+    }
+
+    /** Ensure an empty cart produces a single empty schedule. */
+    @Test
+    void emptyCart() {
+        assertEquals(List.of(List.of()), engine.buildSchedules(List.of()));
+    }
+
+    /** Ensure the engine generates the same schedules in the same order as the simple engine. */
+    @Test
+    void matchesSimpleEngine() {
+        Random random = new Random(19);
+        ScheduleEngine simpleEngine = new SimpleScheduleEngine();
+        for (int i = 0; i < 50; i++) {
+            List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 1 + random.nextInt(6), 5);
+
+            assertEquals(simpleEngine.buildSchedules(courses), engine.buildSchedules(courses));
+        }
+    }
+
+    /** Ensure strategies are found by case-insensitive name. */
+    @Test
+    void strategyByName() {
+        assertEquals(ScheduleStrategy.MATRIX, ScheduleStrategy.fromName(" Matrix "));
+        assertThrows(IllegalArgumentException.class, () -> ScheduleStrategy.fromName("unknown"));
+    }
+}
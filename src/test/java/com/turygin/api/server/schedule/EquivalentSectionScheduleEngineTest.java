@@ -0,0 +1,170 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Equivalent section schedule engine tests. */
+class EquivalentSectionScheduleEngineTest {
+
+    /** Pool of the parallel delegate. */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /** Ensure the delegate only sees one section per meeting pattern and every member ends up in a schedule. */
+    @Test
+    void collapsesEquivalentSections() {
+        Section first = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section second = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section friday = ScheduleTestHelper.section(Section.Day.FRIDAY.value, "09:00:00", "10:00:00");
+        AtomicInteger delegateSchedules = new AtomicInteger();
+        ScheduleEngine counting = (courses, consumer) -> new BitmapScheduleEngine().buildSchedules(courses,
+                schedule -> {
+                    delegateSchedules.incrementAndGet();
+                    return consumer.accept(schedule);
+                });
+
+        List<List<Section>> schedules = new EquivalentSectionScheduleEngine(counting).buildSchedules(
+                List.of(List.of(first, second), List.of(friday)));
+
+        assertEquals(1, delegateSchedules.get());
+        assertEquals(2, schedules.size());
+        assertSame(first, schedules.get(0).get(0));
+        assertSame(second, schedules.get(1).get(0));
+    }
+
+    /** Ensure expansion stops as soon as the consumer asks to stop. */
+    @Test
+    void expandsLazily() {
+        List<Section> monday = new ArrayList<>();
+        List<Section> tuesday = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            monday.add(ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00"));
+            tuesday.add(ScheduleTestHelper.section(Section.Day.TUESDAY.value, "09:00:00", "10:00:00"));
+        }
+        AtomicInteger accepted = new AtomicInteger();
+
+        new EquivalentSectionScheduleEngine(new BitmapScheduleEngine()).buildSchedules(List.of(monday, tuesday),
+                schedule -> accepted.incrementAndGet() < 3);
+
+        assertEquals(3, accepted.get());
+    }
+
+    /** Ensure the engine generates the same schedules as the simple engine. */
+    @Test
+    void matchesSimpleEngine() {
+        Random random = new Random(47);
+        ScheduleEngine simpleEngine = new SimpleScheduleEngine();
+        ScheduleEngine engine = new EquivalentSectionScheduleEngine(new BitmapScheduleEngine());
+        for (int i = 0; i < 50; i++) {
+            List<List<Section>> courses = withDuplicates(random,
+                    ScheduleTestHelper.randomCourses(random, random.nextInt(6), 4));
+
+            List<List<Integer>> expected = toIndices(courses, simpleEngine.buildSchedules(courses));
+            List<List<Integer>> actual = toIndices(courses, engine.buildSchedules(courses));
+
+            assertEquals(expected.size(), actual.size());
+            assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        }
+    }
+
+    /**
+     * Adds sections with the same meeting pattern as randomly chosen existing sections.
+     * @param random source of randomness
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return courses with duplicated sections
+     */
+    private static List<List<Section>> withDuplicates(Random random, List<List<Section>> courses) {
+        List<List<Section>> duplicated = new ArrayList<>();
+        for (List<Section> sections : courses) {
+            List<Section> copy = new ArrayList<>(sections);
+            for (Section section : sections) {
+                for (int i = random.nextInt(3); i > 0; i--) {
+                    copy.add(new Section(section.getDaysOfWeek(), section.getFromTime(), section.getToTime()));
+                }
+            }
+            duplicated.add(copy);
+        }
+        return duplicated;
+    }
+
+    /**
+     * Converts schedules to section positions within their courses, so that equal sections can be told apart.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @param schedules schedules built from the courses
+     * @return schedules represented by section positions
+     */
+    private static List<List<Integer>> toIndices(List<List<Section>> courses, List<List<Section>> schedules) {
+        List<List<Integer>> indices = new ArrayList<>();
+        for (List<Section> schedule : schedules) {
+            List<Integer> positions = new ArrayList<>();
+            for (int course = 0; course < schedule.size(); course++) {
+                List<Section> sections = courses.get(course);
+                for (int i = 0; i < sections.size(); i++) {
+                    if (sections.get(i) == schedule.get(course)) positions.add(i);
+                }
+            }
+            indices.add(positions);
+        }
+        return indices;
+    }
+
+    /** Ensure a delegate that collects schedules before passing them on stops collecting at the maximum. */
+    @Test
+    void parallelDelegateStopsAtMaximum() {
+        // Every combination of meeting patterns is a schedule, and every pattern has two equivalent sections
+        List<List<Section>> courses = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            List<Section> sections = new ArrayList<>();
+            String time = String.format("%02d:00:00", 8 + i);
+            for (Section.Day day : Section.Day.values()) {
+                sections.add(ScheduleTestHelper.section(day.value, time, time));
+                sections.add(ScheduleTestHelper.section(day.value, time, time));
+            }
+            courses.add(sections);
+        }
+
+        // Count representative schedules the parallel delegate collects
+        ScheduleEngine parallel = new ParallelScheduleEngine(POOL, 4, 0);
+        AtomicInteger collected = new AtomicInteger();
+        ScheduleEngine counting = new ScheduleEngine() {
+            @Override
+            public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer) {
+                buildSchedules(courses, consumer, SearchMonitor.NONE);
+            }
+
+            @Override
+            public void buildSchedules(List<List<Section>> courses, ScheduleConsumer consumer,
+                                       SearchMonitor monitor) {
+                parallel.buildSchedules(courses, consumer, new SearchMonitor() {
+                    @Override
+                    public boolean isCancelled() {
+                        return monitor.isCancelled();
+                    }
+
+                    @Override
+                    public boolean scheduleFound() {
+                        if (!monitor.scheduleFound()) return false;
+                        collected.incrementAndGet();
+                        return true;
+                    }
+                });
+            }
+        };
+        SearchLimits limits = new SearchLimits(Long.MAX_VALUE, 10);
+        List<List<Section>> schedules = new ArrayList<>();
+
+        new EquivalentSectionScheduleEngine(counting).buildSchedules(courses, schedules::add, limits);
+
+        assertTrue(limits.isTruncated());
+        assertEquals(10, schedules.size());
+        assertTrue(collected.get() <= 11, "Collected " + collected.get() + " representative schedules");
+    }
+}
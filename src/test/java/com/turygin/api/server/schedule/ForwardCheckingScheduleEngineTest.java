@@ -0,0 +1,54 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Forward checking schedule engine tests. */
+class ForwardCheckingScheduleEngineTest {
+
+    /** Engine under test. */
+    private final ScheduleEngine engine = new ForwardCheckingScheduleEngine();
+
+    /** Ensure sections within a schedule are listed in course order even if courses are placed out of order. */
+    @Test
+    void keepsCourseOrder() {
+        Section monday = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section tuesday = ScheduleTestHelper.section(Section.Day.TUESDAY.value, "09:00:00", "10:00:00");
+        Section friday = ScheduleTestHelper.section(Section.Day.FRIDAY.value, "09:00:00", "10:00:00");
+
+        List<List<Section>> schedules = engine.buildSchedules(List.of(List.of(monday, tuesday), List.of(friday)));
+
+        assertEquals(List.of(List.of(monday, friday), List.of(tuesday, friday)), schedules);
+    }
+
+    /** Ensure a course whose sections all conflict with another course results in no schedules. */
+    @Test
+    void unsatisfiableCart() {
+        Section first = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section second = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:30:00", "10:30:00");
+        Section free = ScheduleTestHelper.section(Section.Day.FRIDAY.value, "09:00:00", "10:00:00");
+
+        assertTrue(engine.buildSchedules(List.of(List.of(free), List.of(first), List.of(second))).isEmpty());
+    }
+
+    /** Ensure the engine generates the same set of schedules as the simple engine. */
+    @Test
+    void matchesSimpleEngine() {
+        Random random = new Random(23);
+        ScheduleEngine simpleEngine = new SimpleScheduleEngine();
+        for (int i = 0; i < 50; i++) {
+            List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, random.nextInt(7), 5);
+            List<List<Section>> expected = simpleEngine.buildSchedules(courses);
+            List<List<Section>> actual = engine.buildSchedules(courses);
+
+            assertEquals(expected.size(), actual.size());
+            assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        }
+    }
+}
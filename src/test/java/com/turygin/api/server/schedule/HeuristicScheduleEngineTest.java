@@ -0,0 +1,118 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Heuristic schedule engine tests. */
+class HeuristicScheduleEngineTest {
+
+    /** Scoring function used by the tests. */
+    private final ScheduleScorer scorer = ScheduleRanking.COMPACT.scorer;
+
+    /** Ensure every returned schedule is distinct and conflict free, and schedules are ordered best first. */
+    @Test
+    void returnsValidSchedules() {
+        Random random = new Random(37);
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 8, 8);
+        HeuristicScheduleEngine engine = new HeuristicScheduleEngine(scorer, 50, 100, random);
+
+        List<List<Section>> schedules = engine.buildSchedules(courses);
+
+        assertTrue(schedules.size() <= 50);
+        assertEquals(schedules.size(), new HashSet<>(schedules).size());
+        for (int i = 0; i < schedules.size(); i++) {
+            List<Section> schedule = schedules.get(i);
+            assertEquals(courses.size(), schedule.size());
+            for (int course = 0; course < courses.size(); course++) {
+                assertTrue(courses.get(course).contains(schedule.get(course)));
+                for (int other = course + 1; other < courses.size(); other++) {
+                    assertFalse(schedule.get(course).isConflicting(schedule.get(other)));
+                }
+            }
+            if (i > 0) {
+                assertTrue(scorer.score(schedules.get(i - 1)) <= scorer.score(schedule));
+            }
+        }
+    }
+
+    /** Ensure the search finds the best schedule of small carts. */
+    @Test
+    void findsBestScheduleOfSmallCarts() {
+        Random random = new Random(41);
+        for (int i = 0; i < 10; i++) {
+            List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 4, 4);
+            List<List<Section>> expected = new RankedScheduleSearch(scorer, 1).findBest(courses);
+            List<List<Section>> actual = new HeuristicScheduleEngine(scorer, 1, 50, random).buildSchedules(courses);
+
+            assertEquals(expected.size(), actual.size());
+            if (!expected.isEmpty()) {
+                assertEquals(scorer.score(expected.getFirst()), scorer.score(actual.getFirst()));
+            }
+        }
+    }
+
+    /** Ensure the search of a cart too large to enumerate stops once the time budget runs out. */
+    @Test
+    void respectsTimeBudget() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(43), 14, 10);
+        ScheduleEngine engine = new HeuristicScheduleEngine(scorer, 100, 200);
+
+        long startTime = System.nanoTime();
+        engine.buildSchedules(courses);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 200);
+        assertTrue(elapsedMillis < 1000);
+        assertFalse(engine.isExhaustive());
+    }
+
+    /** Ensure the search stops at the deadline of its limits, keeps the best it found and reports how much it did. */
+    @Test
+    void respectsDeadline() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(37), 8, 8);
+        ScheduleEngine engine = new HeuristicScheduleEngine(scorer, 5, 5000);
+        SearchLimits limits = new SearchLimits(100, 3);
+        List<List<Section>> schedules = new ArrayList<>();
+
+        long startTime = System.nanoTime();
+        engine.buildSchedules(courses, schedules::add, limits);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        assertTrue(elapsedMillis < 1000);
+        assertEquals(3, schedules.size());
+        assertTrue(limits.isTruncated());
+        assertTrue(limits.getNodesExplored() > 0);
+        assertTrue(limits.getConflictChecks() > 0);
+    }
+
+    /** Ensure a cancelled search stops right away. */
+    @Test
+    void stopsWhenCancelled() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(53), 14, 10);
+        ScheduleEngine engine = new HeuristicScheduleEngine(scorer, 5, 5000);
+        SearchMonitor monitor = new SearchMonitor();
+        monitor.cancel();
+
+        long startTime = System.nanoTime();
+        engine.buildSchedules(courses, schedule -> true, monitor);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        assertTrue(elapsedMillis < 1000);
+    }
+
+    /** Ensure edge cases match the exhaustive engines. */
+    @Test
+    void edgeCases() {
+        ScheduleEngine engine = new HeuristicScheduleEngine(scorer, 10, 10);
+
+        assertEquals(List.of(List.of()), engine.buildSchedules(List.of()));
+        assertTrue(engine.buildSchedules(List.of(List.of())).isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package com.turygin.api.server.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Histogram tests. */
+class HistogramTest {
+
+    /** Ensure an empty histogram reports zeros. */
+    @Test
+    void empty() {
+        Histogram histogram = new Histogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getQuantile(0.99));
+    }
+
+    /** Ensure small values are recorded exactly. */
+    @Test
+    void smallValues() {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 8; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(8, histogram.getCount());
+        assertEquals(3.5, histogram.getMean());
+        assertEquals(3, histogram.getQuantile(0.5));
+        assertEquals(7, histogram.getQuantile(1));
+        assertEquals(0, histogram.getQuantile(0));
+    }
+
+    /** Ensure every bucket covers the values right after the previous one, up to the largest long. */
+    @Test
+    void bucketsAreContiguous() {
+        for (int i = 1; i < Histogram.bucketIndex(Long.MAX_VALUE); i++) {
+            long lowerBound = Histogram.bucketUpperBound(i - 1) + 1;
+
+            assertEquals(i, Histogram.bucketIndex(lowerBound));
+            assertEquals(i, Histogram.bucketIndex(Histogram.bucketUpperBound(i)));
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.bucketUpperBound(Histogram.bucketIndex(Long.MAX_VALUE)));
+    }
+
+    /** Ensure quantiles of large values are within 12.5% of the exact ones and never above the maximum. */
+    @Test
+    void quantilesOfLargeValues() {
+        Histogram histogram = new Histogram();
+        Random random = new Random(13);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000 + random.nextInt(1_000_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double quantile : new double[] {0.5, 0.9, 0.99}) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            long estimate = histogram.getQuantile(quantile);
+
+            assertTrue(estimate >= exact && estimate <= exact * 1.125, quantile + ": " + estimate + " " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values[values.length - 1], histogram.getQuantile(1));
+    }
+
+    /** Ensure negative values are recorded as zero and invalid quantiles are rejected. */
+    @Test
+    void invalidValues() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getMax());
+        assertEquals(1, histogram.getCount());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getQuantile(1.5));
+    }
+}
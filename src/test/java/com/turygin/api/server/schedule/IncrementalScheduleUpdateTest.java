@@ -0,0 +1,132 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Incremental schedule update tests. */
+class IncrementalScheduleUpdateTest {
+
+    /** Engine used to generate schedules from scratch. */
+    private final ScheduleEngine simpleEngine = new SimpleScheduleEngine();
+
+    /** Update under test. */
+    private final IncrementalScheduleUpdate update = new IncrementalScheduleUpdate(new BitmapScheduleEngine());
+
+    /** Source of unique section IDs. */
+    private long nextSectionId = 1;
+
+    /**
+     * Generates a random cart of sections with unique IDs.
+     * @param random source of randomness
+     * @param courseCount number of courses in the cart
+     * @param maxSections maximum number of sections selected per course
+     * @return a list of courses where each course is represented by a list of its selected sections
+     */
+    private List<List<Section>> randomCart(Random random, int courseCount, int maxSections) {
+        List<List<Section>> courses = new ArrayList<>();
+        for (int i = 0; i < courseCount; i++) {
+            List<Section> sections = new ArrayList<>();
+            for (int j = 1 + random.nextInt(maxSections); j > 0; j--) {
+                sections.add(ScheduleTestHelper.randomSection(random, nextSectionId++));
+            }
+            courses.add(sections);
+        }
+        return courses;
+    }
+
+    /**
+     * Gets the section IDs of every course of a cart.
+     * @param courses a list of courses where each course is represented by a list of its selected sections
+     * @return IDs of the sections of every course
+     */
+    private static List<List<Long>> sectionIds(List<List<Section>> courses) {
+        return courses.stream().map(sections -> sections.stream().map(Section::getId).toList()).toList();
+    }
+
+    /** Ensure updating after adding and removing sections of one course matches generating from scratch. */
+    @Test
+    void matchesFullRegeneration() {
+        Random random = new Random(23);
+        for (int i = 0; i < 100; i++) {
+            List<List<Section>> courses = randomCart(random, 2 + random.nextInt(4), 6);
+            List<List<Section>> schedules = simpleEngine.buildSchedules(courses);
+
+            // Deselect some sections of one course and select some new ones
+            int changedCourse = random.nextInt(courses.size());
+            List<Section> changedSections = new ArrayList<>();
+            for (Section section : courses.get(changedCourse)) {
+                if (random.nextBoolean()) changedSections.add(section);
+            }
+            for (int j = random.nextInt(3); j > 0; j--) {
+                changedSections.add(random.nextInt(changedSections.size() + 1),
+                        ScheduleTestHelper.randomSection(random, nextSectionId++));
+            }
+            if (changedSections.equals(courses.get(changedCourse))) continue;
+            List<List<Section>> changedCourses = new ArrayList<>(courses);
+            changedCourses.set(changedCourse, changedSections);
+
+            assertEquals(changedCourse, IncrementalScheduleUpdate.changedCourse(sectionIds(courses), changedCourses));
+            assertEquals(simpleEngine.buildSchedules(changedCourses),
+                    update.update(sectionIds(courses), schedules, changedCourses, SearchMonitor.NONE));
+        }
+    }
+
+    /** Ensure removing sections only filters previous schedules without searching. */
+    @Test
+    void removalOnlyFilters() {
+        List<List<Section>> courses = randomCart(new Random(29), 4, 6);
+        List<List<Section>> schedules = simpleEngine.buildSchedules(courses);
+        List<List<Section>> changedCourses = new ArrayList<>(courses);
+        changedCourses.set(1, courses.get(1).subList(0, 1));
+        SearchMonitor monitor = new SearchMonitor() {
+            @Override
+            public boolean isCancelled() {
+                fail("No search expected.");
+                return true;
+            }
+        };
+
+        assertEquals(simpleEngine.buildSchedules(changedCourses),
+                update.update(sectionIds(courses), schedules, changedCourses, monitor));
+    }
+
+    /** Ensure updated schedules use the current section entities. */
+    @Test
+    void usesCurrentSections() {
+        Section first = ScheduleTestHelper.section(1, Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section second = ScheduleTestHelper.section(2, Section.Day.TUESDAY.value, "09:00:00", "10:00:00");
+        Section reloadedFirst = ScheduleTestHelper.section(1, Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section added = ScheduleTestHelper.section(3, Section.Day.TUESDAY.value, "11:00:00", "12:00:00");
+        List<List<Section>> courses = List.of(List.of(first), List.of(second));
+
+        List<List<Section>> schedules = update.update(sectionIds(courses), simpleEngine.buildSchedules(courses),
+                List.of(List.of(reloadedFirst), List.of(second, added)), SearchMonitor.NONE);
+
+        assertEquals(2, schedules.size());
+        assertSame(reloadedFirst, schedules.get(0).get(0));
+        assertSame(reloadedFirst, schedules.get(1).get(0));
+        assertSame(added, schedules.get(1).get(1));
+    }
+
+    /** Ensure carts with other changes than the sections of a single course are not updated. */
+    @Test
+    void notApplicable() {
+        List<List<Section>> courses = randomCart(new Random(31), 3, 4);
+        List<List<Section>> schedules = simpleEngine.buildSchedules(courses);
+        List<List<Section>> twoChanged = new ArrayList<>(courses);
+        twoChanged.set(0, courses.get(0).subList(0, 1));
+        twoChanged.set(2, List.of(ScheduleTestHelper.randomSection(new Random(37), nextSectionId++)));
+
+        assertNull(update.update(sectionIds(courses), schedules, courses, SearchMonitor.NONE));
+        assertNull(update.update(sectionIds(courses), schedules, twoChanged, SearchMonitor.NONE));
+        assertNull(update.update(sectionIds(courses), schedules, courses.subList(0, 2), SearchMonitor.NONE));
+        ScheduleEngine heuristicEngine = new HeuristicScheduleEngine(ScheduleRanking.COMPACT.scorer, 10, 10);
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalScheduleUpdate(heuristicEngine));
+    }
+}
@@ -0,0 +1,119 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Minimal conflict search tests. */
+class MinimalConflictSearchTest {
+
+    /** Monday morning section. */
+    private final Section monday = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+
+    /** Tuesday morning section. */
+    private final Section tuesday = ScheduleTestHelper.section(Section.Day.TUESDAY.value, "09:00:00", "10:00:00");
+
+    /** Friday morning section. */
+    private final Section friday = ScheduleTestHelper.section(Section.Day.FRIDAY.value, "09:00:00", "10:00:00");
+
+    /** Ensure a cart that yields a schedule has no conflict. */
+    @Test
+    void noConflict() {
+        List<List<Section>> courses = List.of(List.of(monday, tuesday), List.of(monday), List.of(friday));
+
+        MinimalConflictSearch.Result result = new MinimalConflictSearch().find(courses, new SearchMonitor());
+
+        assertEquals(List.of(), result.courses());
+        assertTrue(result.minimal());
+    }
+
+    /** Ensure two courses that always overlap are reported. */
+    @Test
+    void pairConflict() {
+        List<List<Section>> courses = List.of(List.of(friday), List.of(monday), List.of(tuesday), List.of(monday));
+
+        MinimalConflictSearch.Result result = new MinimalConflictSearch().find(courses, new SearchMonitor());
+
+        assertEquals(List.of(1, 3), result.courses());
+        assertTrue(result.minimal());
+    }
+
+    /** Ensure a conflict of three courses that can be scheduled pairwise is reported without unrelated courses. */
+    @Test
+    void tripleConflict() {
+        List<List<Section>> courses = List.of(List.of(friday), List.of(monday, tuesday),
+                List.of(monday, tuesday), List.of(monday, tuesday, friday), List.of(monday, tuesday));
+
+        MinimalConflictSearch.Result result = new MinimalConflictSearch().find(courses, new SearchMonitor());
+
+        assertEquals(List.of(1, 2, 4), result.courses());
+        assertTrue(result.minimal());
+    }
+
+    /** Ensure a course whose sections are all blocked is reported by its position in the cart. */
+    @Test
+    void fullyBlockedCourse() {
+        BlockedTimeMask mask = new BlockedTimeMask(List.of());
+        mask.block(Section.Day.MONDAY.value | Section.Day.TUESDAY.value, LocalTime.of(8, 0), LocalTime.of(12, 0));
+        Section afternoon = ScheduleTestHelper.section(Section.Day.MONDAY.value, "13:00:00", "14:00:00");
+        List<List<Section>> courses = mask.apply(List.of(List.of(friday), List.of(monday, afternoon),
+                List.of(monday, tuesday)));
+
+        MinimalConflictSearch.Result result = new MinimalConflictSearch().find(courses, new SearchMonitor());
+
+        assertEquals(List.of(), courses.get(2));
+        assertEquals(List.of(2), result.courses());
+        assertTrue(result.minimal());
+    }
+
+    /** Ensure a cancelled search still returns courses that yield no schedule. */
+    @Test
+    void cancelled() {
+        List<List<Section>> courses = List.of(List.of(friday), List.of(monday, tuesday),
+                List.of(monday, tuesday), List.of(monday, tuesday));
+        SearchMonitor monitor = new SearchMonitor();
+        monitor.cancel();
+
+        MinimalConflictSearch.Result result = new MinimalConflictSearch().find(courses, monitor);
+
+        assertEquals(List.of(0, 1, 2, 3), result.courses());
+        assertFalse(result.minimal());
+    }
+
+    /** Ensure the conflict of random carts yields no schedule, while removing any of its courses does. */
+    @Test
+    void randomCartsAreMinimal() {
+        Random random = new Random(20);
+        BitmapScheduleEngine engine = new BitmapScheduleEngine();
+        int conflicts = 0;
+        for (int i = 0; i < 300; i++) {
+            List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 2 + random.nextInt(5), 3);
+
+            MinimalConflictSearch.Result result = new MinimalConflictSearch().find(courses, new SearchMonitor());
+
+            assertTrue(result.minimal());
+            if (result.courses().isEmpty()) {
+                assertFalse(engine.buildSchedules(courses).isEmpty());
+                continue;
+            }
+            conflicts++;
+            List<List<Section>> conflict = new ArrayList<>();
+            for (int course : result.courses()) {
+                conflict.add(courses.get(course));
+            }
+            assertTrue(engine.buildSchedules(conflict).isEmpty());
+            for (int removed = 0; removed < conflict.size(); removed++) {
+                List<List<Section>> rest = new ArrayList<>(conflict);
+                rest.remove(removed);
+                assertFalse(engine.buildSchedules(rest).isEmpty());
+            }
+        }
+        assertTrue(conflicts > 0);
+    }
+}
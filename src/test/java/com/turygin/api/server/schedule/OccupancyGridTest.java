@@ -0,0 +1,62 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Occupancy grid tests. */
+class OccupancyGridTest {
+
+    /** Ensure sections that only share an end and a start time overlap, same as Section.isConflicting. */
+    @Test
+    void touchingSectionsOverlap() {
+        Section first = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section second = ScheduleTestHelper.section(Section.Day.MONDAY.value, "10:00:00", "11:00:00");
+        OccupancyGrid grid = new OccupancyGrid(List.of(List.of(first), List.of(second)));
+
+        assertTrue(OccupancyGrid.overlaps(grid.toMask(first), grid.toMask(second)));
+    }
+
+    /** Ensure sections meeting at the same time on different days do not overlap. */
+    @Test
+    void differentDaysDoNotOverlap() {
+        Section first = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section second = ScheduleTestHelper.section(Section.Day.TUESDAY.value, "09:00:00", "10:00:00");
+        OccupancyGrid grid = new OccupancyGrid(List.of(List.of(first), List.of(second)));
+
+        assertFalse(OccupancyGrid.overlaps(grid.toMask(first), grid.toMask(second)));
+    }
+
+    /** Ensure releasing a section frees only its own time slots. */
+    @Test
+    void occupyAndRelease() {
+        Section first = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section second = ScheduleTestHelper.section(Section.Day.FRIDAY.value, "13:00:00", "14:00:00");
+        OccupancyGrid grid = new OccupancyGrid(List.of(List.of(first, second)));
+        long[] occupancy = grid.emptyMask();
+
+        OccupancyGrid.occupy(occupancy, grid.toMask(first));
+        OccupancyGrid.occupy(occupancy, grid.toMask(second));
+        OccupancyGrid.release(occupancy, grid.toMask(first));
+
+        assertArrayEquals(grid.toMask(second), occupancy);
+    }
+
+    /** Ensure mask overlap matches Section.isConflicting for random section pairs. */
+    @Test
+    void matchesSectionConflicts() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            Section first = ScheduleTestHelper.randomSection(random);
+            Section second = ScheduleTestHelper.randomSection(random);
+            OccupancyGrid grid = new OccupancyGrid(List.of(List.of(first, second)));
+
+            assertEquals(first.isConflicting(second),
+                    OccupancyGrid.overlaps(grid.toMask(first), grid.toMask(second)));
+        }
+    }
+}
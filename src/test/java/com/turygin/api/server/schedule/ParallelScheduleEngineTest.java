@@ -0,0 +1,80 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Parallel schedule engine tests. */
+class ParallelScheduleEngineTest {
+
+    /** Pool shared by the tests. */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    /** Reference engine. */
+    private final ScheduleEngine serialEngine = new SimpleScheduleEngine();
+
+    /** Ensure parallel generation produces the same schedules in the same order as the serial one. */
+    @Test
+    void matchesSerialEngine() {
+        Random random = new Random(11);
+        ScheduleEngine engine = new ParallelScheduleEngine(POOL, 4, 0);
+        for (int i = 0; i < 50; i++) {
+            List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 2 + random.nextInt(5), 6);
+
+            assertEquals(serialEngine.buildSchedules(courses), engine.buildSchedules(courses));
+        }
+    }
+
+    /** Ensure the result does not depend on the per request task cap. */
+    @Test
+    void taskCapDoesNotChangeResult() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(5), 6, 6);
+        List<List<Section>> expected = serialEngine.buildSchedules(courses);
+
+        for (int maxTasks = 1; maxTasks <= 8; maxTasks++) {
+            assertEquals(expected, new ParallelScheduleEngine(POOL, maxTasks, 0).buildSchedules(courses));
+        }
+    }
+
+    /** Ensure small carts are generated serially. */
+    @Test
+    void smallCartFallsBackToSerial() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(3), 3, 3);
+        ScheduleEngine engine = new ParallelScheduleEngine(POOL, 4, Long.MAX_VALUE);
+
+        assertEquals(serialEngine.buildSchedules(courses), engine.buildSchedules(courses));
+    }
+
+    /** Ensure a request may not be configured without any tasks. */
+    @Test
+    void invalidTaskCap() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelScheduleEngine(POOL, 0, 0));
+    }
+
+    /** Ensure a search stopped at the maximum number of schedules keeps that many distinct schedules. */
+    @Test
+    void truncatedResultKeepsMaximum() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(3), 6, 6);
+        List<List<Section>> expected = serialEngine.buildSchedules(courses);
+        ScheduleEngine engine = new ParallelScheduleEngine(POOL, 4, 0);
+
+        for (int maxSchedules = 1; maxSchedules < expected.size(); maxSchedules += 7) {
+            SearchLimits limits = new SearchLimits(Long.MAX_VALUE, maxSchedules);
+            List<List<Section>> schedules = new ArrayList<>();
+
+            engine.buildSchedules(courses, schedules::add, limits);
+
+            assertTrue(limits.isTruncated());
+            assertEquals(maxSchedules, schedules.size());
+            assertEquals(maxSchedules, new HashSet<>(schedules).size());
+            assertTrue(expected.containsAll(schedules));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Ranked schedule search tests. */
+class RankedScheduleSearchTest {
+
+    /** Ensure the compact ranking prefers fewer campus days, no gaps and no early starts. */
+    @Test
+    void compactRanking() {
+        Section earlyMonday = ScheduleTestHelper.section(Section.Day.MONDAY.value, "08:00:00", "08:50:00");
+        Section lateMonday = ScheduleTestHelper.section(Section.Day.MONDAY.value, "10:00:00", "10:50:00");
+        Section tuesday = ScheduleTestHelper.section(Section.Day.TUESDAY.value, "10:00:00", "10:50:00");
+        Section monday = ScheduleTestHelper.section(Section.Day.MONDAY.value, "11:00:00", "11:50:00");
+        List<List<Section>> courses = List.of(List.of(earlyMonday, lateMonday, tuesday), List.of(monday));
+
+        List<List<Section>> best = new RankedScheduleSearch(ScheduleRanking.COMPACT.scorer, 1).findBest(courses);
+
+        assertEquals(List.of(List.of(lateMonday, monday)), best);
+    }
+
+    /** Ensure the search finds the same scores as sorting every schedule, for every ranking. */
+    @Test
+    void matchesExhaustiveRanking() {
+        Random random = new Random(29);
+        ScheduleEngine engine = new SimpleScheduleEngine();
+        for (ScheduleRanking ranking : ScheduleRanking.values()) {
+            for (int i = 0; i < 20; i++) {
+                List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 1 + random.nextInt(5), 5);
+                int top = 1 + random.nextInt(5);
+                List<Double> expected = engine.buildSchedules(courses).stream().map(ranking.scorer::score).
+                        sorted(Comparator.naturalOrder()).limit(top).toList();
+
+                List<Double> actual = new RankedScheduleSearch(ranking.scorer, top).findBest(courses).stream().
+                        map(ranking.scorer::score).toList();
+
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    /** Ensure the lower bound never exceeds the score of a complete schedule, for every ranking. */
+    @Test
+    void lowerBoundIsAdmissible() {
+        Random random = new Random(31);
+        for (ScheduleRanking ranking : ScheduleRanking.values()) {
+            for (int cart = 0; cart < 10; cart++) {
+                List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 5, 5);
+                for (List<Section> schedule : new SimpleScheduleEngine().buildSchedules(courses)) {
+                    for (int i = 0; i <= schedule.size(); i++) {
+                        double bound = ranking.scorer.lowerBound(schedule.subList(0, i),
+                                courses.subList(i, courses.size()));
+                        assertTrue(bound <= ranking.scorer.score(schedule), ranking.name());
+                    }
+                }
+            }
+        }
+    }
+
+    /** Ensure idle time that no remaining course can fill counts toward the bound. */
+    @Test
+    void gapLowerBound() {
+        ScheduleScorer scorer = ScheduleRanking.FEWEST_GAPS.scorer;
+        List<Section> placed = List.of(
+                ScheduleTestHelper.section(Section.Day.MONDAY.value, "08:00:00", "09:00:00"),
+                ScheduleTestHelper.section(Section.Day.MONDAY.value, "12:00:00", "13:00:00"));
+        Section filler = ScheduleTestHelper.section(Section.Day.MONDAY.value, "10:00:00", "11:00:00");
+        Section tuesday = ScheduleTestHelper.section(Section.Day.TUESDAY.value, "09:00:00", "12:00:00");
+
+        assertEquals(180, scorer.lowerBound(placed, List.of()));
+        assertEquals(180, scorer.lowerBound(placed, List.of(List.of(tuesday))));
+        assertEquals(120, scorer.lowerBound(placed, List.of(List.of(tuesday, filler))));
+        assertEquals(120, scorer.lowerBound(placed, List.of(List.of(filler), List.of(filler))));
+    }
+
+    /** Ensure ranking by gaps prunes branches instead of scoring every schedule. */
+    @Test
+    void gapRankingPrunes() {
+        Random random = new Random(37);
+        long rankedNodes = 0;
+        long exhaustiveNodes = 0;
+        for (int i = 0; i < 20; i++) {
+            List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 6, 6);
+            SearchLimits rankedLimits = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+            SearchLimits exhaustiveLimits = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+
+            new RankedScheduleSearch(ScheduleRanking.FEWEST_GAPS.scorer, 1).findBest(courses, rankedLimits);
+            new BitmapScheduleEngine().buildSchedules(courses, schedule -> true, exhaustiveLimits);
+
+            rankedNodes += rankedLimits.getNodesExplored();
+            exhaustiveNodes += exhaustiveLimits.getNodesExplored();
+        }
+        assertTrue(rankedNodes < exhaustiveNodes);
+    }
+
+    /** Ensure at least one schedule must be requested. */
+    @Test
+    void invalidTop() {
+        assertThrows(IllegalArgumentException.class, () -> new RankedScheduleSearch(ScheduleRanking.COMPACT.scorer, 0));
+    }
+
+    /** Ensure a cancelled search stops and returns the best of the schedules scored before. */
+    @Test
+    void cancellation() {
+        // Every combination of sections is a schedule
+        List<List<Section>> courses = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            List<Section> sections = new ArrayList<>();
+            String time = String.format("%02d:00:00", 8 + 2 * i);
+            for (Section.Day day : Section.Day.values()) {
+                sections.add(ScheduleTestHelper.section(day.value, time, time));
+            }
+            courses.add(sections);
+        }
+        ScheduleScorer scorer = ScheduleRanking.FEWEST_GAPS.scorer;
+        SearchMonitor monitor = new SearchMonitor() {
+            private int checks;
+
+            @Override
+            public boolean isCancelled() {
+                if (++checks == 50) cancel();
+                return super.isCancelled();
+            }
+        };
+
+        List<List<Section>> best = new RankedScheduleSearch(scorer, 3).findBest(courses, monitor);
+        List<List<Section>> all = new RankedScheduleSearch(scorer, 3).findBest(courses);
+
+        assertTrue(monitor.isCancelled());
+        assertTrue(best.size() <= 3);
+        for (List<Section> schedule : best) {
+            assertTrue(new SimpleScheduleEngine().buildSchedules(courses).contains(schedule));
+        }
+        assertTrue(best.isEmpty() || scorer.score(best.getFirst()) >= scorer.score(all.getFirst()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Resumable schedule search tests. */
+class ResumableScheduleSearchTest {
+
+    /** Reference engine. */
+    private final ScheduleEngine engine = new SimpleScheduleEngine();
+
+    /** Ensure the search produces the same schedules in the same order as the schedule engines. */
+    @Test
+    void matchesEngine() {
+        Random random = new Random(13);
+        for (int i = 0; i < 50; i++) {
+            List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, random.nextInt(6), 5);
+
+            assertEquals(engine.buildSchedules(courses), drain(new ResumableScheduleSearch(courses)));
+        }
+    }
+
+    /** Ensure resuming after any produced schedule yields exactly the remaining schedules. */
+    @Test
+    void resumesAfterEverySchedule() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(17), 4, 5);
+        List<List<Section>> allSchedules = engine.buildSchedules(courses);
+
+        ResumableScheduleSearch search = new ResumableScheduleSearch(courses);
+        for (int i = 0; i < allSchedules.size(); i++) {
+            assertNotNull(search.next());
+
+            ResumableScheduleSearch resumed = new ResumableScheduleSearch(courses);
+            resumed.skipPast(search.position());
+            assertEquals(allSchedules.subList(i + 1, allSchedules.size()), drain(resumed));
+        }
+        assertNull(search.next());
+    }
+
+    /** Ensure an empty cart produces a single empty schedule. */
+    @Test
+    void emptyCart() {
+        ResumableScheduleSearch search = new ResumableScheduleSearch(List.of());
+
+        assertEquals(List.of(), search.next());
+        assertNull(search.next());
+    }
+
+    /** Ensure a position that refers to conflicting sections is rejected. */
+    @Test
+    void conflictingPosition() {
+        Section first = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+        Section second = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:30:00", "10:30:00");
+        ResumableScheduleSearch search = new ResumableScheduleSearch(List.of(List.of(first), List.of(second)));
+
+        assertThrows(IllegalArgumentException.class, () -> search.skipPast(new int[]{0, 0}));
+    }
+
+    /**
+     * Collects all remaining schedules of a search.
+     * @param search schedule search
+     * @return remaining schedules
+     */
+    private static List<List<Section>> drain(ResumableScheduleSearch search) {
+        List<List<Section>> schedules = new ArrayList<>();
+        List<Section> schedule;
+        while ((schedule = search.next()) != null) {
+            schedules.add(schedule);
+        }
+        return schedules;
+    }
+
+    /** Ensure a search cancelled before it finds the next schedule continues where it stopped. */
+    @Test
+    void resumesAfterCancellation() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(17), 5, 5);
+        List<List<Section>> expected = new SimpleScheduleEngine().buildSchedules(courses);
+        ResumableScheduleSearch search = new ResumableScheduleSearch(courses);
+        SearchMonitor monitor = new SearchMonitor() {
+            private int checks;
+
+            // Report every third check as cancelled
+            @Override
+            public boolean isCancelled() {
+                return ++checks % 3 == 0;
+            }
+        };
+
+        List<List<Section>> schedules = new ArrayList<>();
+        int[] lastPosition = search.position();
+        while (schedules.size() < expected.size()) {
+            List<Section> schedule = search.next(monitor);
+            if (schedule == null) {
+                assertArrayEquals(lastPosition, search.position());
+                continue;
+            }
+            schedules.add(schedule);
+            lastPosition = search.position();
+        }
+
+        assertEquals(expected, schedules);
+        assertNull(search.next());
+    }
+}
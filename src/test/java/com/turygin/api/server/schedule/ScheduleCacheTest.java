@@ -0,0 +1,107 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Schedule cache tests. */
+class ScheduleCacheTest {
+
+    /** Monday morning section. */
+    private final Section monday = ScheduleTestHelper.section(1, Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+
+    /** Monday section that does not conflict with the others. */
+    private final Section mondayLate = ScheduleTestHelper.section(2, Section.Day.MONDAY.value, "11:00:00", "12:00:00");
+
+    /** Monday section that conflicts with the morning one. */
+    private final Section mondayEarly = ScheduleTestHelper.section(3, Section.Day.MONDAY.value, "09:30:00", "10:30:00");
+
+    /** Friday section. */
+    private final Section friday = ScheduleTestHelper.section(4, Section.Day.FRIDAY.value, "09:00:00", "10:00:00");
+
+    /** Counts the searches run by the cache. */
+    private final AtomicInteger searches = new AtomicInteger();
+
+    /** Engine that counts searches. */
+    private final ScheduleEngine engine = (courses, consumer) -> {
+        searches.incrementAndGet();
+        new BitmapScheduleEngine().buildSchedules(courses, consumer);
+    };
+
+    /** Ensure identical carts share an entry regardless of course and section order. */
+    @Test
+    void sharesCanonicalCarts() {
+        ScheduleCache cache = new ScheduleCache(1000, "1");
+        List<List<Section>> first = List.of(List.of(monday, mondayLate), List.of(mondayEarly, friday));
+        List<List<Section>> second = List.of(List.of(friday, mondayEarly), List.of(mondayLate, monday));
+
+        List<List<Section>> firstSchedules = cache.getOrBuild(first, engine);
+        List<List<Section>> secondSchedules = cache.getOrBuild(second, engine);
+
+        assertEquals(1, searches.get());
+        assertEquals(1, cache.size());
+        assertEquals(firstSchedules.size(), secondSchedules.size());
+        for (int i = 0; i < firstSchedules.size(); i++) {
+            // Sections are listed in the order of the requesting cart
+            assertEquals(List.of(firstSchedules.get(i).get(1), firstSchedules.get(i).get(0)), secondSchedules.get(i));
+        }
+        assertEquals(firstSchedules, cache.getOrBuild(first, engine));
+        assertEquals(1, searches.get());
+    }
+
+    /** Ensure changing a section invalidates only the entries that contain it. */
+    @Test
+    void invalidatesBySection() {
+        ScheduleCache cache = new ScheduleCache(1000, "1");
+        List<List<Section>> withFriday = List.of(List.of(monday), List.of(friday));
+        List<List<Section>> withoutFriday = List.of(List.of(monday), List.of(mondayLate));
+        cache.getOrBuild(withFriday, engine);
+        cache.getOrBuild(withoutFriday, engine);
+
+        cache.invalidateSection(friday.getId());
+
+        assertEquals(1, cache.size());
+        cache.getOrBuild(withoutFriday, engine);
+        assertEquals(2, searches.get());
+        cache.getOrBuild(withFriday, engine);
+        assertEquals(3, searches.get());
+    }
+
+    /** Ensure least recently used entries are evicted once the weight limit is exceeded. */
+    @Test
+    void evictsByWeight() {
+        // Every entry weighs 1 for the key, 2 for its section IDs and 2 for its only schedule
+        ScheduleCache cache = new ScheduleCache(10, "1");
+        List<List<Section>> first = List.of(List.of(monday), List.of(friday));
+        List<List<Section>> second = List.of(List.of(mondayLate), List.of(friday));
+        List<List<Section>> third = List.of(List.of(mondayEarly), List.of(mondayLate));
+        cache.getOrBuild(first, engine);
+        cache.getOrBuild(second, engine);
+        cache.getOrBuild(first, engine);
+        cache.getOrBuild(third, engine);
+
+        assertEquals(2, cache.size());
+        assertEquals(10, cache.weight());
+        cache.getOrBuild(first, engine);
+        assertEquals(3, searches.get());
+        cache.getOrBuild(second, engine);
+        assertEquals(4, searches.get());
+    }
+
+    /** Ensure entries heavier than the whole cache are not stored. */
+    @Test
+    void skipsOversizedEntries() {
+        List<Section> mondays = new ArrayList<>(List.of(monday, mondayLate, mondayEarly));
+        ScheduleCache cache = new ScheduleCache(3, "1");
+
+        cache.getOrBuild(List.of(mondays, List.of(friday)), engine);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.weight());
+    }
+}
@@ -0,0 +1,77 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Schedule counter tests. */
+class ScheduleCounterTest {
+
+    /** Counter under test. */
+    private final ScheduleCounter counter = new ScheduleCounter(1_000_000);
+
+    /** Ensure the count matches the number of schedules generated by the simple engine. */
+    @Test
+    void matchesSimpleEngine() {
+        Random random = new Random(53);
+        ScheduleEngine simpleEngine = new SimpleScheduleEngine();
+        for (int i = 0; i < 100; i++) {
+            List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, random.nextInt(7), 6);
+
+            assertEquals(OptionalLong.of(simpleEngine.buildSchedules(courses).size()), counter.count(courses));
+        }
+    }
+
+    /** Ensure sections with equal meeting patterns are all counted. */
+    @Test
+    void countsEquivalentSections() {
+        List<Section> monday = new ArrayList<>();
+        List<Section> friday = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            monday.add(ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00"));
+            friday.add(ScheduleTestHelper.section(Section.Day.FRIDAY.value, "09:00:00", "10:00:00"));
+        }
+
+        assertEquals(OptionalLong.of(9), counter.count(List.of(monday, friday)));
+    }
+
+    /** Ensure large non-conflicting carts are counted without enumeration. */
+    @Test
+    void countsLargeCarts() {
+        List<List<Section>> courses = new ArrayList<>();
+        for (Section.Day day : Section.Day.values()) {
+            for (String time : List.of("08:00:00", "10:00:00", "12:00:00", "14:00:00")) {
+                List<Section> sections = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    sections.add(ScheduleTestHelper.section(day.value, time, time));
+                }
+                courses.add(sections);
+            }
+        }
+
+        // Ten interchangeable sections for each of the twenty courses overflow a long
+        assertEquals(OptionalLong.of(Long.MAX_VALUE), counter.count(courses));
+        assertEquals(OptionalLong.of(10_000_000_000L), counter.count(courses.subList(0, 10)));
+    }
+
+    /** Ensure edge cases match the engines. */
+    @Test
+    void edgeCases() {
+        assertEquals(OptionalLong.of(1), counter.count(List.of()));
+        assertEquals(OptionalLong.of(0), counter.count(List.of(List.of())));
+    }
+
+    /** Ensure counting gives up once the state limit is exceeded. */
+    @Test
+    void stateLimit() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(59), 8, 6);
+
+        assertTrue(new ScheduleCounter(1).count(courses).isEmpty());
+    }
+}
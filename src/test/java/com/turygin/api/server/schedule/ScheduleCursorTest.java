@@ -0,0 +1,43 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Schedule cursor tests. */
+class ScheduleCursorTest {
+
+    /** Sample cart. */
+    private final List<List<Section>> courses = List.of(
+            List.of(ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00"),
+                    ScheduleTestHelper.section(Section.Day.TUESDAY.value, "09:00:00", "10:00:00")),
+            List.of(ScheduleTestHelper.section(Section.Day.MONDAY.value, "11:00:00", "12:00:00")));
+
+    /** Ensure a cursor survives encoding and decoding. */
+    @Test
+    void roundTrip() {
+        ScheduleCursor cursor = ScheduleCursor.decode(ScheduleCursor.of(courses, new int[]{1, 0}).encode());
+
+        assertArrayEquals(new int[]{1, 0}, cursor.getPosition());
+        assertTrue(cursor.matches(courses));
+    }
+
+    /** Ensure a cursor does not match a cart that has changed. */
+    @Test
+    void changedCart() {
+        ScheduleCursor cursor = ScheduleCursor.of(courses, new int[]{1, 0});
+
+        assertFalse(cursor.matches(List.of(courses.getFirst())));
+        assertFalse(cursor.matches(List.of(courses.getFirst(), courses.getFirst())));
+    }
+
+    /** Ensure malformed cursors are rejected. */
+    @Test
+    void malformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> ScheduleCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> ScheduleCursor.decode("eHl6LjE"));
+    }
+}
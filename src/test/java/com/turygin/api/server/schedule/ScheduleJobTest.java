@@ -0,0 +1,78 @@
+package com.turygin.api.server.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Schedule job tests. */
+class ScheduleJobTest {
+
+    /** Ensure a job that runs its task to the end completes and reports stored schedules. */
+    @Test
+    void completes() {
+        ScheduleJob job = new ScheduleJob("job", 1);
+        assertEquals(ScheduleJob.State.QUEUED, job.getState());
+
+        job.run(runningJob -> {
+            assertEquals(ScheduleJob.State.RUNNING, runningJob.getState());
+            runningJob.scheduleFound();
+            runningJob.scheduleFound();
+        });
+
+        assertEquals(ScheduleJob.State.COMPLETED, job.getState());
+        assertEquals(2, job.getSchedulesFound());
+        assertFalse(job.isActive());
+    }
+
+    /** Ensure a job cancelled while running ends up cancelled. */
+    @Test
+    void cancelledWhileRunning() {
+        ScheduleJob job = new ScheduleJob("job", 1);
+
+        job.run(runningJob -> {
+            runningJob.cancel();
+            assertTrue(runningJob.getMonitor().isCancelled());
+        });
+
+        assertEquals(ScheduleJob.State.CANCELLED, job.getState());
+    }
+
+    /** Ensure a job cancelled before it started never runs its task. */
+    @Test
+    void cancelledBeforeStart() {
+        ScheduleJob job = new ScheduleJob("job", 1);
+        job.cancel();
+
+        job.run(runningJob -> fail("Cancelled job should not run."));
+
+        assertEquals(ScheduleJob.State.CANCELLED, job.getState());
+    }
+
+    /** Ensure a failing task fails the job with its error message. */
+    @Test
+    void fails() {
+        ScheduleJob job = new ScheduleJob("job", 1);
+
+        job.run(runningJob -> {
+            throw new IllegalStateException("Database is down.");
+        });
+
+        assertEquals(ScheduleJob.State.FAILED, job.getState());
+        assertEquals("Database is down.", job.getError());
+    }
+
+    /** Ensure the search monitor is created when the job starts and reports a truncated search. */
+    @Test
+    void truncated() {
+        ScheduleJob job = new ScheduleJob("job", 1, () -> new SearchLimits(Long.MAX_VALUE, 1));
+        assertNull(job.getMonitor());
+
+        job.run(runningJob -> {
+            assertTrue(runningJob.getMonitor().scheduleFound());
+            assertFalse(runningJob.getMonitor().scheduleFound());
+        });
+
+        assertEquals(ScheduleJob.State.COMPLETED, job.getState());
+        assertTrue(job.isTruncated());
+    }
+}
@@ -0,0 +1,64 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Schedule request statistics tests. */
+class ScheduleRequestStatsTest {
+
+    /** Ensure only started phases are timed and listed in the Server-Timing header in phase order. */
+    @Test
+    void serverTiming() {
+        ScheduleRequestStats stats = new ScheduleRequestStats("all");
+        stats.start(ScheduleRequestStats.Phase.LOAD);
+        stats.start(ScheduleRequestStats.Phase.MAP);
+        stats.stop();
+
+        assertTrue(stats.isTimed(ScheduleRequestStats.Phase.LOAD));
+        assertFalse(stats.isTimed(ScheduleRequestStats.Phase.SEARCH));
+        assertTrue(stats.toServerTiming().matches("load;dur=\\d+\\.\\d{3}, map;dur=\\d+\\.\\d{3}"),
+                stats.toServerTiming());
+    }
+
+    /** Ensure stopping without a phase being timed changes nothing, and repeated phases add up. */
+    @Test
+    void repeatedPhases() throws InterruptedException {
+        ScheduleRequestStats stats = new ScheduleRequestStats("page");
+        stats.stop();
+        assertEquals("", stats.toServerTiming());
+
+        stats.start(ScheduleRequestStats.Phase.SEARCH);
+        Thread.sleep(2);
+        stats.stop();
+        long firstSearch = stats.getPhaseNanos(ScheduleRequestStats.Phase.SEARCH);
+        stats.start(ScheduleRequestStats.Phase.SEARCH);
+        Thread.sleep(2);
+        stats.stop();
+
+        assertTrue(firstSearch >= 2_000_000);
+        assertTrue(stats.getPhaseNanos(ScheduleRequestStats.Phase.SEARCH) >= firstSearch + 2_000_000);
+    }
+
+    /** Ensure search work is taken from the search limits. */
+    @Test
+    void recordSearch() {
+        SearchLimits limits = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(17), 4, 5);
+        new BitmapScheduleEngine().buildSchedules(courses, schedule -> true, limits);
+        ScheduleRequestStats stats = new ScheduleRequestStats("all");
+
+        stats.recordSearch("BitmapScheduleEngine", limits);
+        stats.recordSchedules(3);
+
+        assertEquals(limits.getNodesExplored(), stats.getNodesExplored());
+        assertEquals(limits.getConflictChecks(), stats.getConflictChecks());
+        assertEquals(limits.getBranchesPruned(), stats.getBranchesPruned());
+        assertTrue(stats.toString().contains("engine=BitmapScheduleEngine"));
+        assertTrue(stats.toString().contains("schedules=3"));
+    }
+}
@@ -0,0 +1,170 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Schedule store tests. */
+class ScheduleStoreTest {
+
+    /** Monday section. */
+    private final Section monday = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+
+    /** Friday section. */
+    private final Section friday = ScheduleTestHelper.section(Section.Day.FRIDAY.value, "09:00:00", "10:00:00");
+
+    /** Current time of the store. */
+    private final AtomicLong now = new AtomicLong();
+
+    /** Ensure stored schedules can be found by user and consecutive IDs. */
+    @Test
+    void storesSchedules() {
+        ScheduleStore store = new ScheduleStore(100, 10, 1000, now::get);
+
+        long firstId = store.replace(1, List.of(List.of(monday), List.of(friday)));
+        long appendedId = store.append(1, List.of(List.of(monday, friday)));
+
+        assertEquals(firstId + 2, appendedId);
+        assertEquals(List.of(monday), store.get(1, firstId));
+        assertEquals(List.of(friday), store.get(1, firstId + 1));
+        assertEquals(List.of(monday, friday), store.get(1, appendedId));
+        assertNull(store.get(1, appendedId + 1));
+        assertNull(store.get(2, firstId));
+    }
+
+    /** Ensure replacing schedules forgets the old ones and gives the new ones fresh IDs. */
+    @Test
+    void replacesSchedules() {
+        ScheduleStore store = new ScheduleStore(100, 10, 1000, now::get);
+        long oldId = store.replace(1, List.of(List.of(monday)));
+
+        long newId = store.replace(1, List.of(List.of(friday)));
+
+        assertNotEquals(oldId, newId);
+        assertNull(store.get(1, oldId));
+        assertEquals(List.of(friday), store.get(1, newId));
+        assertEquals(2, store.weight());
+    }
+
+    /** Ensure schedules expire once they have not been accessed for the time to live. */
+    @Test
+    void expires() {
+        ScheduleStore store = new ScheduleStore(100, 10, 1000, now::get);
+        long id = store.replace(1, List.of(List.of(monday)));
+
+        now.set(900);
+        assertNotNull(store.get(1, id));
+        now.set(1800);
+        assertNotNull(store.get(1, id));
+        now.set(2800);
+        assertNull(store.get(1, id));
+        assertEquals(0, store.size());
+        assertEquals(0, store.weight());
+    }
+
+    /** Ensure least recently used users are evicted once the weight limit is exceeded. */
+    @Test
+    void evictsLeastRecentlyUsed() {
+        ScheduleStore store = new ScheduleStore(6, 10, 1000, now::get);
+        long first = store.replace(1, List.of(List.of(monday, friday)));
+        long second = store.replace(2, List.of(List.of(monday, friday)));
+        store.get(1, first);
+
+        store.replace(3, List.of(List.of(monday, friday)));
+
+        assertNotNull(store.get(1, first));
+        assertNull(store.get(2, second));
+        assertEquals(6, store.weight());
+    }
+
+    /** Ensure schedules beyond the per user limit are not stored. */
+    @Test
+    void perUserLimit() {
+        ScheduleStore store = new ScheduleStore(100, 2, 1000, now::get);
+
+        long id = store.replace(1, List.of(List.of(monday), List.of(friday), List.of(monday)));
+
+        assertNotNull(store.get(1, id + 1));
+        assertNull(store.get(1, id + 2));
+    }
+
+    /** Ensure schedules stored with a version can be reused until they change. */
+    @Test
+    void snapshot() {
+        ScheduleStore store = new ScheduleStore(100, 10, 1000, now::get);
+        assertNull(store.snapshot(1));
+        long firstId = store.replace(1, List.of(List.of(monday), List.of(friday)), "cart");
+
+        ScheduleStore.Snapshot snapshot = store.snapshot(1);
+
+        assertEquals(firstId, snapshot.firstId());
+        assertEquals(List.of(List.of(monday), List.of(friday)), snapshot.schedules());
+        assertEquals("cart", snapshot.version());
+
+        store.append(1, List.of(List.of(monday, friday)));
+        assertNull(store.snapshot(1));
+    }
+
+    /** Ensure schedules are not reused if they were stored without a version, or not all of them were stored. */
+    @Test
+    void snapshotWithoutVersion() {
+        ScheduleStore store = new ScheduleStore(100, 1, 1000, now::get);
+
+        store.replace(1, List.of(List.of(monday)));
+        store.replace(2, List.of(List.of(monday), List.of(friday)), "cart");
+
+        assertNull(store.snapshot(1));
+        assertNull(store.snapshot(2));
+    }
+
+    /** Ensure invalidating versions keeps schedules but stops reusing them. */
+    @Test
+    void invalidateVersions() {
+        ScheduleStore store = new ScheduleStore(100, 10, 1000, now::get);
+        long id = store.replace(1, List.of(List.of(monday)), "cart");
+
+        store.invalidateVersions();
+
+        assertNull(store.snapshot(1));
+        assertEquals(List.of(monday), store.get(1, id));
+    }
+
+    /** Ensure a writer that claimed the schedules of a user can add to them until another writer takes them over. */
+    @Test
+    void claim() {
+        ScheduleStore store = new ScheduleStore(100, 10, 1000, now::get);
+        Object job = new Object();
+        Object newerJob = new Object();
+
+        long firstId = store.claim(1, job);
+        assertEquals(OptionalLong.of(firstId), store.append(1, job, List.of(monday)));
+        assertEquals(List.of(List.of(monday)), store.owned(1, job).schedules());
+
+        long newerId = store.claim(1, newerJob);
+        assertTrue(store.append(1, job, List.of(friday)).isEmpty());
+        assertNull(store.owned(1, job));
+        assertNull(store.get(1, firstId));
+        assertEquals(OptionalLong.of(newerId), store.append(1, newerJob, List.of(friday)));
+
+        store.replace(1, List.of(List.of(monday)));
+        assertTrue(store.append(1, newerJob, List.of(friday)).isEmpty());
+        assertNull(store.owned(1, newerJob));
+    }
+
+    /** Ensure a writer cannot add schedules beyond the per user limit. */
+    @Test
+    void claimPerUserLimit() {
+        ScheduleStore store = new ScheduleStore(100, 1, 1000, now::get);
+        Object job = new Object();
+        store.claim(1, job);
+
+        assertTrue(store.append(1, job, List.of(monday)).isPresent());
+        assertTrue(store.append(1, job, List.of(friday)).isEmpty());
+        assertEquals(1, store.owned(1, job).schedules().size());
+    }
+}
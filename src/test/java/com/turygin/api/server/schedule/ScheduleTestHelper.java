@@ -0,0 +1,98 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+
+import java.lang.reflect.Field;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A helper class that creates sections and carts for schedule engine tests.
+ */
+public class ScheduleTestHelper {
+
+    /** Possible start times of randomly generated sections. */
+    private static final String[] START_TIMES = {
+            "07:45:00", "08:00:00", "08:30:00", "09:00:00", "09:30:00", "10:00:00", "11:00:00", "11:30:00",
+            "12:30:00", "13:00:00", "14:00:00", "14:30:00", "15:00:00", "16:00:00", "17:30:00", "18:00:00"};
+
+    /** Possible durations of randomly generated sections in minutes. */
+    private static final int[] DURATIONS = {0, 30, 50, 60, 75, 100, 120, 180};
+
+    /**
+     * Creates a section that meets on the given days and times.
+     * @param daysOfWeek combination of Section.Day values
+     * @param fromTime start time in hh:mm:ss format
+     * @param toTime end time in hh:mm:ss format
+     * @return new section
+     */
+    public static Section section(int daysOfWeek, String fromTime, String toTime) {
+        return new Section(daysOfWeek, Time.valueOf(fromTime), Time.valueOf(toTime));
+    }
+
+    /**
+     * Creates a section with an ID that meets on the given days and times.
+     * @param id unique section ID
+     * @param daysOfWeek combination of Section.Day values
+     * @param fromTime start time in hh:mm:ss format
+     * @param toTime end time in hh:mm:ss format
+     * @return new section
+     */
+    public static Section section(long id, int daysOfWeek, String fromTime, String toTime) {
+        Section section = section(daysOfWeek, fromTime, toTime);
+        try {
+            // IDs are normally assigned by the database
+            Field idField = Section.class.getDeclaredField("id");
+            idField.setAccessible(true);
+            idField.setLong(section, id);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException(exception);
+        }
+        return section;
+    }
+
+    /**
+     * Generates a random cart.
+     * @param random source of randomness
+     * @param courseCount number of courses in the cart
+     * @param maxSections maximum number of sections selected per course
+     * @return a list of courses where each course is represented by a list of its selected sections
+     */
+    public static List<List<Section>> randomCourses(Random random, int courseCount, int maxSections) {
+        List<List<Section>> courses = new ArrayList<>();
+        for (int i = 0; i < courseCount; i++) {
+            List<Section> sections = new ArrayList<>();
+            int sectionCount = 1 + random.nextInt(maxSections);
+            for (int j = 0; j < sectionCount; j++) {
+                sections.add(randomSection(random));
+            }
+            courses.add(sections);
+        }
+        return courses;
+    }
+
+    /**
+     * Generates a section with random meeting days and times.
+     * @param random source of randomness
+     * @return new section
+     */
+    public static Section randomSection(Random random) {
+        int daysOfWeek = 1 + random.nextInt(31);
+        Time fromTime = Time.valueOf(START_TIMES[random.nextInt(START_TIMES.length)]);
+        Time toTime = new Time(fromTime.getTime() + DURATIONS[random.nextInt(DURATIONS.length)] * 60_000L);
+        return new Section(daysOfWeek, fromTime, toTime);
+    }
+
+    /**
+     * Generates a section with an ID and random meeting days and times.
+     * @param random source of randomness
+     * @param id unique section ID
+     * @return new section
+     */
+    public static Section randomSection(Random random, long id) {
+        Section section = randomSection(random);
+        return section(id, section.getDaysOfWeek(), section.getFromTime().toString(), section.getToTime().toString());
+    }
+}
@@ -0,0 +1,166 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Search limits tests. */
+class SearchLimitsTest {
+
+    /**
+     * Creates a cart where every combination of sections is a schedule.
+     * @param courseCount number of courses
+     * @return a list of courses with one section per day each
+     */
+    private static List<List<Section>> conflictFreeCart(int courseCount) {
+        List<List<Section>> courses = new ArrayList<>();
+        for (int i = 0; i < courseCount; i++) {
+            List<Section> sections = new ArrayList<>();
+            String time = String.format("%02d:00:00", 8 + i);
+            for (Section.Day day : Section.Day.values()) {
+                sections.add(ScheduleTestHelper.section(day.value, time, time));
+            }
+            courses.add(sections);
+        }
+        return courses;
+    }
+
+    /** Ensure every engine stops at the maximum number of schedules and reports truncation. */
+    @Test
+    void maxSchedules() {
+        List<ScheduleEngine> engines = List.of(new SimpleScheduleEngine(), new BitmapScheduleEngine(),
+                new ParallelScheduleEngine(ForkJoinPool.commonPool(), 4, 1),
+                new EquivalentSectionScheduleEngine(new BitmapScheduleEngine()), new ConflictMatrixScheduleEngine(),
+                new ForwardCheckingScheduleEngine());
+        List<List<Section>> courses = conflictFreeCart(6);
+        for (ScheduleEngine engine : engines) {
+            SearchLimits limits = new SearchLimits(Long.MAX_VALUE, 100);
+            List<List<Section>> schedules = new ArrayList<>();
+
+            engine.buildSchedules(courses, schedules::add, limits);
+
+            assertTrue(schedules.size() <= 100, engine.getClass().getSimpleName());
+            assertTrue(limits.isTruncated(), engine.getClass().getSimpleName());
+        }
+    }
+
+    /** Ensure a search that finds exactly the maximum number of schedules is not truncated. */
+    @Test
+    void exactlyMaxSchedules() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(61), 4, 5);
+        int scheduleCount = new BitmapScheduleEngine().buildSchedules(courses).size();
+        SearchLimits limits = new SearchLimits(Long.MAX_VALUE, Math.max(1, scheduleCount));
+        List<List<Section>> schedules = new ArrayList<>();
+
+        new BitmapScheduleEngine().buildSchedules(courses, schedules::add, limits);
+
+        assertEquals(scheduleCount, schedules.size());
+        assertFalse(limits.isTruncated());
+        assertTrue(limits.getNodesExplored() > 0);
+    }
+
+    /** Ensure the search stops shortly after the deadline and keeps the schedules found so far. */
+    @Test
+    void deadline() {
+        // Roughly 10 million schedules
+        List<List<Section>> courses = conflictFreeCart(10);
+        SearchLimits limits = new SearchLimits(50, Long.MAX_VALUE);
+        List<List<Section>> schedules = new ArrayList<>();
+
+        long startTime = System.nanoTime();
+        new BitmapScheduleEngine().buildSchedules(courses, schedules::add, limits);
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        assertTrue(limits.isTruncated());
+        assertFalse(schedules.isEmpty());
+        assertTrue(elapsedMillis < 1000);
+    }
+
+    /** Ensure results that were not generated with the limits are cut to the maximum. */
+    @Test
+    void apply() {
+        List<List<Section>> schedules = new BitmapScheduleEngine().buildSchedules(conflictFreeCart(2));
+
+        SearchLimits limits = new SearchLimits(Long.MAX_VALUE, 25);
+        assertEquals(schedules, limits.apply(schedules));
+        assertFalse(limits.isTruncated());
+
+        limits = new SearchLimits(Long.MAX_VALUE, 10);
+        assertEquals(schedules.subList(0, 10), limits.apply(schedules));
+        assertTrue(limits.isTruncated());
+    }
+
+    /** Ensure limits must be positive. */
+    @Test
+    void invalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimits(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new SearchLimits(10, 0));
+    }
+
+    /** Ensure engines report conflict checks and pruned branches, including through the equivalent section engine. */
+    @Test
+    void searchStatistics() {
+        List<List<Section>> conflictFree = conflictFreeCart(3);
+        List<List<Section>> conflicting = new ArrayList<>(conflictFree);
+        // Two courses that always overlap, so that forward checking runs out of sections as well
+        conflicting.add(List.of(ScheduleTestHelper.section(Section.Day.MONDAY.value, "07:00:00", "20:00:00")));
+        conflicting.add(List.of(ScheduleTestHelper.section(Section.Day.MONDAY.value, "07:00:00", "20:00:00")));
+        List<ScheduleEngine> engines = List.of(new BitmapScheduleEngine(), new VectorScheduleEngine(),
+                new SimpleScheduleEngine(), new ConflictMatrixScheduleEngine(), new ForwardCheckingScheduleEngine(),
+                new EquivalentSectionScheduleEngine(new BitmapScheduleEngine()));
+        for (ScheduleEngine engine : engines) {
+            SearchLimits conflictFreeLimits = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+            SearchLimits conflictingLimits = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+
+            engine.buildSchedules(conflictFree, schedule -> true, conflictFreeLimits);
+            engine.buildSchedules(conflicting, schedule -> true, conflictingLimits);
+
+            String name = engine.getClass().getSimpleName();
+            assertTrue(conflictFreeLimits.getConflictChecks() > 0, name);
+            assertEquals(0, conflictFreeLimits.getBranchesPruned(), name);
+            assertTrue(conflictingLimits.getBranchesPruned() > 0, name);
+            assertTrue(conflictingLimits.getBranchesPruned() <= conflictingLimits.getNodesExplored(), name);
+        }
+    }
+
+    /** Ensure ranked search reports conflict checks and pruned branches. */
+    @Test
+    void rankedSearchStatistics() {
+        List<List<Section>> conflicting = new ArrayList<>(conflictFreeCart(3));
+        conflicting.add(List.of(ScheduleTestHelper.section(Section.Day.MONDAY.value, "07:00:00", "20:00:00")));
+        SearchLimits limits = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        new RankedScheduleSearch(ScheduleRanking.COMPACT.scorer, 5).findBest(conflicting, limits);
+
+        assertTrue(limits.getConflictChecks() > 0);
+        assertTrue(limits.getBranchesPruned() > 0);
+    }
+
+    /** Ensure every engine checks for cancellation while it searches, not only when it finds a schedule. */
+    @Test
+    void cancellation() {
+        List<ScheduleEngine> engines = List.of(new SimpleScheduleEngine(), new ConflictMatrixScheduleEngine(),
+                new ForwardCheckingScheduleEngine());
+        List<List<Section>> courses = conflictFreeCart(10);
+        for (ScheduleEngine engine : engines) {
+            SearchLimits limits = new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+            List<List<Section>> schedules = new ArrayList<>();
+
+            engine.buildSchedules(courses, schedule -> {
+                schedules.add(schedule);
+                if (schedules.size() == 10) limits.cancel();
+                return true;
+            }, limits);
+
+            String name = engine.getClass().getSimpleName();
+            assertEquals(10, schedules.size(), name);
+            assertTrue(limits.getNodesExplored() > 10, name);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.turygin.api.server.schedule;
+
+import com.turygin.persistence.entity.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Vector schedule engine and conflict kernel tests. */
+class VectorScheduleEngineTest {
+
+    /** Kernels under test. */
+    private final List<ConflictKernel> kernels = List.of(new ScalarConflictKernel(), new VectorConflictKernel());
+
+    /** Ensure the vectorized kernel is selected when the vector module is present. */
+    @Test
+    void bestKernel() {
+        boolean vectorModule = ModuleLayer.boot().findModule(ConflictKernel.VECTOR_MODULE).isPresent();
+
+        assertEquals(vectorModule, ConflictKernel.best() instanceof VectorConflictKernel);
+    }
+
+    /** Ensure both kernels detect exactly the conflicts Section.isConflicting detects, including vector tails. */
+    @Test
+    void kernelsMatchSectionConflicts() {
+        Random random = new Random(11);
+        for (int i = 0; i < 200; i++) {
+            Section section = ScheduleTestHelper.randomSection(random);
+            List<Section> others = new ArrayList<>();
+            for (int j = random.nextInt(40); j > 0; j--) {
+                others.add(ScheduleTestHelper.randomSection(random));
+            }
+            int offset = random.nextInt(3);
+            int size = offset + others.size();
+            int[] days = new int[size];
+            int[] from = new int[size];
+            int[] to = new int[size];
+            boolean[] allowed = new boolean[size];
+            boolean[] expected = new boolean[size];
+            int expectedCount = 0;
+            for (int j = 0; j < others.size(); j++) {
+                Section other = others.get(j);
+                days[offset + j] = other.getDaysOfWeek();
+                from[offset + j] = other.getFromTime().toLocalTime().toSecondOfDay();
+                to[offset + j] = other.getToTime().toLocalTime().toSecondOfDay();
+                allowed[offset + j] = random.nextBoolean();
+                expected[offset + j] = allowed[offset + j] && !section.isConflicting(other);
+                if (expected[offset + j]) expectedCount++;
+            }
+            boolean expectedConflict = others.stream().anyMatch(section::isConflicting);
+            int sectionDays = section.getDaysOfWeek();
+            int sectionFrom = section.getFromTime().toLocalTime().toSecondOfDay();
+            int sectionTo = section.getToTime().toLocalTime().toSecondOfDay();
+
+            for (ConflictKernel kernel : kernels) {
+                boolean[] compatible = new boolean[size];
+                int count = kernel.filterCompatible(sectionDays, sectionFrom, sectionTo, days, from, to,
+                        offset, others.size(), allowed, compatible);
+
+                assertEquals(expectedConflict, kernel.conflictsWithAny(sectionDays, sectionFrom, sectionTo,
+                        days, from, to, offset, others.size()));
+                assertEquals(expectedCount, count);
+                assertArrayEquals(expected, compatible);
+            }
+        }
+    }
+
+    /** Ensure the engine generates the same schedules in the same order as the simple engine with either kernel. */
+    @Test
+    void matchesSimpleEngine() {
+        ScheduleEngine simpleEngine = new SimpleScheduleEngine();
+        for (ConflictKernel kernel : kernels) {
+            Random random = new Random(7);
+            ScheduleEngine engine = new VectorScheduleEngine(kernel);
+            for (int i = 0; i < 50; i++) {
+                List<List<Section>> courses = ScheduleTestHelper.randomCourses(random, 1 + random.nextInt(6), 20);
+
+                assertEquals(simpleEngine.buildSchedules(courses), engine.buildSchedules(courses));
+            }
+        }
+    }
+
+    /** Ensure an empty cart produces a single empty schedule and a course without sections produces none. */
+    @Test
+    void emptyCartAndCourse() {
+        ScheduleEngine engine = new VectorScheduleEngine();
+        Section section = ScheduleTestHelper.section(Section.Day.MONDAY.value, "09:00:00", "10:00:00");
+
+        assertEquals(List.of(List.of()), engine.buildSchedules(List.of()));
+        assertTrue(engine.buildSchedules(List.of(List.of(section), List.of())).isEmpty());
+    }
+
+    /** Ensure a cancelled search stops without generating schedules. */
+    @Test
+    void cancellationStopsSearch() {
+        List<List<Section>> courses = ScheduleTestHelper.randomCourses(new Random(5), 4, 5);
+        SearchMonitor monitor = new SearchMonitor();
+        monitor.cancel();
+
+        new VectorScheduleEngine().buildSchedules(courses, schedule -> fail("No schedules expected."), monitor);
+    }
+}
@@ -22,7 +22,7 @@ public class ScheduleTest {
     private static final List<Schedule> SCHEDULES = new ArrayList<>();
 
     /** DAO for working with schedules in the database. */
-    private static final Dao<Schedule> SCHEDULE_DAO = new Dao<>(Schedule.class);
+    private static final ScheduleDao SCHEDULE_DAO = new ScheduleDao();
 
     /** DAO for working with users in the database. */
     private static final Dao<User> USER_DAO = new Dao<>(User.class);
@@ -30,6 +30,9 @@ public class ScheduleTest {
     /** DAO for working with schedule sections in the database. */
     private static final Dao<ScheduleSection> SCHEDULE_SECTION_DAO = new Dao<>(ScheduleSection.class);
 
+    /** DAO for working with sections in the database. */
+    private static final Dao<Section> SECTION_DAO = new Dao<>(Section.class);
+
     /** Initial count of schedules. */
     private static final int INITIAL_SCHEDULE_COUNT = 3;
 
@@ -85,6 +88,39 @@ public class ScheduleTest {
         assertEquals(schedule.getUser(), user);
     }
 
+    /** Ensure several schedules can be inserted together with their sections in one batch. */
+    @Test
+    void insertAll() {
+        User user = USER_DAO.getById(2);
+        List<Section> sections = SECTION_DAO.getAll();
+        sections.sort(Comparator.comparingLong(Section::getId));
+        int scheduleSectionCount = SCHEDULE_SECTION_DAO.getAll().size();
+
+        List<Schedule> newSchedules = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Schedule newSchedule = new Schedule(user);
+            newSchedule.addSection(sections.get(i));
+            newSchedule.addSection(sections.get(i + 1));
+            newSchedules.add(newSchedule);
+        }
+
+        SCHEDULE_DAO.insertAll(newSchedules);
+
+        // Rows were inserted, and IDs were allocated above the seeded rows by the ID generator
+        assertEquals(INITIAL_SCHEDULE_COUNT + 5, SCHEDULE_DAO.getAll().size());
+        assertEquals(scheduleSectionCount + 10, SCHEDULE_SECTION_DAO.getAll().size());
+        for (Schedule newSchedule : newSchedules) {
+            assertTrue(newSchedule.getId() >= 100);
+            for (ScheduleSection scheduleSection : newSchedule.getSections()) {
+                assertTrue(scheduleSection.getId() >= 100);
+            }
+
+            Schedule schedule = SCHEDULE_DAO.getById(newSchedule.getId());
+            assertEquals(newSchedule, schedule);
+            assertEquals(2, schedule.getSections().size());
+        }
+    }
+
     /** Ensure schedule can be updated. */
     @Test
     void update() {
@@ -116,6 +152,35 @@ public class ScheduleTest {
         assertNull(section);
     }
 
+    /** Ensure all schedules of a user can be removed together with their sections. */
+    @Test
+    void deleteByUser() {
+        int deleted = SCHEDULE_DAO.deleteByUser(1, false);
+
+        assertEquals(2, deleted);
+        assertNull(SCHEDULE_DAO.getById(SCHEDULES.get(0).getId()));
+        assertNull(SCHEDULE_DAO.getById(SCHEDULES.get(1).getId()));
+        assertEquals(SCHEDULES.get(2), SCHEDULE_DAO.getById(SCHEDULES.get(2).getId()));
+
+        // Only the sections of the remaining schedule are left
+        assertEquals(1, SCHEDULE_SECTION_DAO.getAll().size());
+    }
+
+    /** Ensure only the selected schedules of a user can be removed. */
+    @Test
+    void deleteByUser_SelectedOnly() {
+        Schedule schedule1 = SCHEDULES.get(0);
+        schedule1.setSelected(true);
+        SCHEDULE_DAO.update(schedule1);
+
+        int deleted = SCHEDULE_DAO.deleteByUser(1, true);
+
+        assertEquals(1, deleted);
+        assertNull(SCHEDULE_DAO.getById(schedule1.getId()));
+        assertEquals(SCHEDULES.get(1), SCHEDULE_DAO.getById(SCHEDULES.get(1).getId()));
+        assertEquals(3, SCHEDULE_SECTION_DAO.getAll().size());
+    }
+
     /** Ensure all schedules can be loaded. */
     @Test
     void getAll() {
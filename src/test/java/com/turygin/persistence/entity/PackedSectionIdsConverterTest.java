@@ -0,0 +1,76 @@
+package com.turygin.persistence.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Packed section IDs converter tests. */
+class PackedSectionIdsConverterTest {
+
+    private final PackedSectionIdsConverter converter = new PackedSectionIdsConverter();
+
+    /** Ensure section IDs survive packing in their original order. */
+    @Test
+    void roundTrip() {
+        long[] sectionIds = {120, 7, 121, 4000, 3999, 1};
+
+        long[] unpacked = converter.convertToEntityAttribute(converter.convertToDatabaseColumn(sectionIds));
+
+        assertArrayEquals(sectionIds, unpacked);
+    }
+
+    /** Ensure extreme values survive packing. */
+    @Test
+    void roundTripExtremeValues() {
+        long[] sectionIds = {Long.MAX_VALUE, 0, Long.MIN_VALUE, -1, Long.MAX_VALUE};
+
+        long[] unpacked = converter.convertToEntityAttribute(converter.convertToDatabaseColumn(sectionIds));
+
+        assertArrayEquals(sectionIds, unpacked);
+    }
+
+    /** Ensure random section IDs survive packing. */
+    @Test
+    void roundTripRandom() {
+        Random random = new Random(16);
+        for (int i = 0; i < 100; i++) {
+            long[] sectionIds = random.longs(random.nextInt(10), 0, 1_000_000).toArray();
+
+            long[] unpacked = converter.convertToEntityAttribute(converter.convertToDatabaseColumn(sectionIds));
+
+            assertArrayEquals(sectionIds, unpacked);
+        }
+    }
+
+    /** Ensure close section IDs take a byte each. */
+    @Test
+    void closeIdsAreCompact() {
+        long[] sectionIds = {50, 10, 60, 40, 20};
+
+        byte[] packed = converter.convertToDatabaseColumn(sectionIds);
+
+        assertEquals(sectionIds.length, packed.length);
+    }
+
+    /** Ensure empty and missing values are preserved. */
+    @Test
+    void emptyAndNull() {
+        byte[] packed = converter.convertToDatabaseColumn(new long[0]);
+
+        assertArrayEquals(new long[0], converter.convertToEntityAttribute(packed));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    /** Ensure a value that ends in the middle of an ID is rejected. */
+    @Test
+    void truncatedValueIsRejected() {
+        byte[] packed = converter.convertToDatabaseColumn(new long[] {1, 100_000});
+        byte[] truncated = Arrays.copyOf(packed, packed.length - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute(truncated));
+    }
+}
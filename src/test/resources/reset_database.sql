@@ -1,5 +1,8 @@
 -- Drop tables if exist
+DROP TABLE IF EXISTS `id_generator`;
+DROP TABLE IF EXISTS `schedule_packed`;
 DROP TABLE IF EXISTS `schedule_section`;
+DROP TABLE IF EXISTS `blocked_time`;
 DROP TABLE IF EXISTS `schedule`;
 DROP TABLE IF EXISTS `cart_course_section`;
 DROP TABLE IF EXISTS `cart_course`;
@@ -66,19 +69,43 @@ CREATE TABLE `cart_course_section` (
 );
 
 CREATE TABLE `schedule` (
-    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    `id` BIGINT UNSIGNED NOT NULL,
     `user_id` BIGINT UNSIGNED NOT NULL,
     `selected` BIT NOT NULL,
     PRIMARY KEY (`id`)
 );
 
 CREATE TABLE `schedule_section` (
-    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    `id` BIGINT UNSIGNED NOT NULL,
     `schedule_id` BIGINT UNSIGNED NOT NULL,
     `section_id` BIGINT UNSIGNED NOT NULL,
     PRIMARY KEY (`id`)
 );
 
+CREATE TABLE `schedule_packed` (
+    `id` BIGINT UNSIGNED NOT NULL,
+    `user_id` BIGINT UNSIGNED NOT NULL,
+    `selected` BIT NOT NULL,
+    `section_ids` VARBINARY(1024) NOT NULL,
+    PRIMARY KEY (`id`)
+);
+
+CREATE TABLE `blocked_time` (
+    `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    `user_id` BIGINT UNSIGNED NOT NULL,
+    `days_of_week` TINYINT UNSIGNED NOT NULL,
+    `from_time` TIME NOT NULL,
+    `to_time` TIME NOT NULL,
+    PRIMARY KEY (`id`)
+);
+
+-- Blocks of IDs of the schedule tables, which are allocated by the application to batch inserts
+CREATE TABLE `id_generator` (
+    `name` VARCHAR(64) NOT NULL,
+    `next_id` BIGINT UNSIGNED NOT NULL,
+    PRIMARY KEY (`name`)
+);
+
 -- Foreign Keys
 ALTER TABLE `course` ADD CONSTRAINT `course_department` FOREIGN KEY `course_department` (`department_id`)
     REFERENCES `department` (`id`);
@@ -96,6 +123,10 @@ ALTER TABLE `schedule_section` ADD CONSTRAINT `schedule_section_schedule` FOREIG
     REFERENCES `schedule` (`id`);
 ALTER TABLE `schedule_section` ADD CONSTRAINT `schedule_section_section` FOREIGN KEY `schedule_section_section` (`section_id`)
     REFERENCES `section` (`id`) ON DELETE CASCADE;
+ALTER TABLE `schedule_packed` ADD CONSTRAINT `schedule_packed_user` FOREIGN KEY `schedule_packed_user` (`user_id`)
+    REFERENCES `user` (`id`) ON DELETE CASCADE;
+ALTER TABLE `blocked_time` ADD CONSTRAINT `blocked_time_user` FOREIGN KEY `blocked_time_user` (`user_id`)
+    REFERENCES `user` (`id`) ON DELETE CASCADE;
 ALTER TABLE `section` ADD CONSTRAINT `section_course` FOREIGN KEY `section_course` (`course_id`)
     REFERENCES `course` (`id`);
 ALTER TABLE `section` ADD CONSTRAINT `section_instructor` FOREIGN KEY `section_instructor` (`instructor_id`)
@@ -110,6 +141,7 @@ ALTER TABLE `user` ADD UNIQUE `uq_user_uuid`(`uuid`);
 
 -- Checks
 ALTER TABLE `section` ADD CONSTRAINT `section_valid_days_mask` CHECK (`days_of_week` < 32);
+ALTER TABLE `blocked_time` ADD CONSTRAINT `blocked_time_valid_days_mask` CHECK (`days_of_week` < 32);
 ALTER TABLE `course` ADD CONSTRAINT `course_valid_credits` CHECK (`credits` < 10);
 ALTER TABLE `user` ADD CONSTRAINT `user_valid_role` CHECK (`role` < 2);
 
@@ -201,3 +233,10 @@ VALUES
 (4, 2, 3),
 (5, 3, 8);
 
+-- Start generated IDs above the IDs of the rows inserted above
+INSERT INTO `id_generator`
+(`name`, `next_id`)
+VALUES
+("schedule", 100),
+("schedule_section", 100),
+("schedule_packed", 100);